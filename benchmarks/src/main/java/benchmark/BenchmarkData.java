@@ -0,0 +1,41 @@
+package benchmark;
+
+import data.HybridLogicalClock;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+public class BenchmarkData {
+    // Fixed seed, so that every run of the benchmarks works on the same data
+    private static final long seed = 42L;
+
+    public static String[] keys(int numberOfKeys) {
+        String[] keys = new String[numberOfKeys];
+        for (int i = 0; i < numberOfKeys; i++) {
+            keys[i] = "Key-" + i;
+        }
+        return keys;
+    }
+
+    public static String[] values(int numberOfValues) {
+        String[] values = new String[numberOfValues];
+        for (int i = 0; i < numberOfValues; i++) {
+            values[i] = "Value-" + i;
+        }
+        return values;
+    }
+
+    // Hybrid logical clocks in increasing order, a few of them sharing the same physical clock
+    public static HybridLogicalClock[] increasingHybridLogicalClocks(int numberOfClocks) {
+        Random random = new Random(seed);
+        LocalDateTime physicalClock = LocalDateTime.of(2024, 1, 1, 0, 0);
+        HybridLogicalClock[] hybridLogicalClocks = new HybridLogicalClock[numberOfClocks];
+        for (int i = 0; i < numberOfClocks; i++) {
+            if (random.nextInt(4) != 0) {
+                physicalClock = physicalClock.plusNanos(1_000_000L * (1 + random.nextInt(5)));
+            }
+            hybridLogicalClocks[i] = new HybridLogicalClock(physicalClock, random.nextInt(3));
+        }
+        return hybridLogicalClocks;
+    }
+}
@@ -0,0 +1,33 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the selected benchmarks once per thread count, with the GC profiler attached so that the allocation rate is
+// reported next to the throughput. Accepts the usual JMH command line options, passing -t runs a single thread count.
+public class BenchmarkRunner {
+    private static final int[] defaultThreadCounts = {1, 4, 8};
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        int[] threadCounts = commandLineOptions.getThreads().hasValue()
+                ? new int[]{commandLineOptions.getThreads().get()}
+                : defaultThreadCounts;
+
+        for (int threads : threadCounts) {
+            OptionsBuilder optionsBuilder = new OptionsBuilder();
+            optionsBuilder.parent(commandLineOptions)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .result(String.format("jmh-result-%d-threads.json", threads));
+            if (commandLineOptions.getIncludes().isEmpty()) {
+                optionsBuilder.include("benchmark\\..*");
+            }
+            new Runner(optionsBuilder.build()).run();
+        }
+    }
+}
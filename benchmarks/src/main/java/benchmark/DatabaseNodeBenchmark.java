@@ -0,0 +1,81 @@
+package benchmark;
+
+import data.DatabaseNodeType;
+import data.HybridLogicalClock;
+import data.OperationType;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
+import node.impl.DatabaseNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatabaseNodeBenchmark {
+    private static final int sizeOfBatch = 100;
+
+    @Param({"1000", "100000"})
+    private int numberOfKeys;
+
+    private DatabaseNode databaseNode;
+    private String[] keys;
+    private String[] values;
+
+    // The scaling up and down thread of the database node is not started, so the node stays active for the whole run
+    @Setup(Level.Trial)
+    public void setUp() {
+        databaseNode = new DatabaseNode(1, 1, DatabaseNodeType.LEADER, new NoOpRootNode());
+        keys = BenchmarkData.keys(numberOfKeys);
+        values = BenchmarkData.values(5);
+        for (int i = 0; i < numberOfKeys; i++) {
+            databaseNode.write(new HybridLogicalClock(LocalDateTime.now()), keys[i], values[i % values.length]);
+        }
+    }
+
+    @Benchmark
+    public void write(ThreadCursor cursor) {
+        int index = cursor.next(numberOfKeys);
+        databaseNode.write(new HybridLogicalClock(LocalDateTime.now()), keys[index], values[index % values.length]);
+    }
+
+    // Reported per key, so that it compares with the single writes
+    @Benchmark
+    @OperationsPerInvocation(sizeOfBatch)
+    public void writeBatch(ThreadCursor cursor) {
+        LocalDateTime physicalTimestamp = LocalDateTime.now();
+        HashMap<HybridLogicalClock, OperationDetails> logs = new HashMap<>();
+        for (int i = 0; i < sizeOfBatch; i++) {
+            int index = cursor.next(numberOfKeys);
+            logs.put(new HybridLogicalClock(physicalTimestamp, i),
+                    new UpdateOperationDetails(OperationType.UPDATE, keys[index], values[index % values.length]));
+        }
+        databaseNode.writeBatch(logs);
+    }
+
+    @Benchmark
+    public String get(ThreadCursor cursor) {
+        return databaseNode.get(keys[cursor.next(numberOfKeys)]);
+    }
+
+    // Reads served while a writer keeps applying updates, like a follower serving reads during replication
+    @Benchmark
+    @Group("getWhileWriting")
+    @GroupThreads(3)
+    public String getWhileWriting(ThreadCursor cursor) {
+        return databaseNode.get(keys[cursor.next(numberOfKeys)]);
+    }
+
+    @Benchmark
+    @Group("getWhileWriting")
+    @GroupThreads(1)
+    public void writeWhileGetting(ThreadCursor cursor) {
+        write(cursor);
+    }
+}
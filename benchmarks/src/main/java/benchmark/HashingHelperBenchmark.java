@@ -0,0 +1,33 @@
+package benchmark;
+
+import data.RingHashAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import util.HashingHelper;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashingHelperBenchmark {
+    @Param({"1000", "100000"})
+    private int numberOfKeys;
+
+    @Param({"MURMUR3", "SHA256"})
+    private RingHashAlgorithm ringHashAlgorithm;
+
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = BenchmarkData.keys(numberOfKeys);
+    }
+
+    @Benchmark
+    public int hash(ThreadCursor cursor) {
+        return HashingHelper.hash(keys[cursor.next(numberOfKeys)], ringHashAlgorithm);
+    }
+}
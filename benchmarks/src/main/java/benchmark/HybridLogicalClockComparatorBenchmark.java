@@ -0,0 +1,34 @@
+package benchmark;
+
+import data.HybridLogicalClock;
+import org.openjdk.jmh.annotations.*;
+import util.HybridLogicalClockComparator;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HybridLogicalClockComparatorBenchmark {
+    @Param({"1000", "100000"})
+    private int numberOfClocks;
+
+    private HybridLogicalClock[] hybridLogicalClocks;
+    private Comparator<HybridLogicalClock> comparator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hybridLogicalClocks = BenchmarkData.increasingHybridLogicalClocks(numberOfClocks);
+        comparator = HybridLogicalClockComparator.getHybridLogicalClock();
+    }
+
+    @Benchmark
+    public int compare(ThreadCursor cursor) {
+        int index = cursor.next(numberOfClocks - 1);
+        return comparator.compare(hybridLogicalClocks[index], hybridLogicalClocks[index + 1]);
+    }
+}
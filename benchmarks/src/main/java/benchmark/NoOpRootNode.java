@@ -0,0 +1,33 @@
+package benchmark;
+
+import data.HybridLogicalClock;
+import data.operationDetails.OperationDetails;
+import node.databaseNode.ElevatedDatabaseNodeAccess;
+import node.rootNode.ElevatedRootNodeAccess;
+
+import java.util.HashMap;
+
+// Root node which ignores the heart beats and replication requests, so that a database node can be measured on its own
+public class NoOpRootNode implements ElevatedRootNodeAccess {
+    @Override
+    public void updateHeartBeat(ElevatedDatabaseNodeAccess databaseNode) {
+    }
+
+    @Override
+    public void replicationOfDataBetweenDatabaseNodes(ElevatedDatabaseNodeAccess databaseNode) {
+    }
+
+    @Override
+    public HybridLogicalClock getAcknowledgedHybridLogicalClock() {
+        return null;
+    }
+
+    @Override
+    public void replicationOfDataOfLeaderDatabaseNode(ElevatedDatabaseNodeAccess leaderDatabaseNode,
+                                                      HashMap<HybridLogicalClock, OperationDetails> logs) {
+    }
+
+    @Override
+    public void replicationOfData(HashMap<HybridLogicalClock, OperationDetails> temporaryLogData) {
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import server.RequestProxy;
+import server.impl.ProxyServer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Measures the full request path through the proxy server, root nodes and database nodes. The database nodes scale down
+// and up at random while the benchmark runs, so the failed requests are consumed and counted as part of the throughput,
+// the same as a client would see them.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProxyServerBenchmark {
+    @Param({"1000", "100000"})
+    private int numberOfKeys;
+
+    @Param({"10"})
+    private int numberOfShards;
+
+    private ProxyServer proxyServer;
+    private RequestProxy requestProxy;
+    private String[] keys;
+    private String[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        proxyServer = new ProxyServer(numberOfShards);
+        requestProxy = proxyServer;
+        keys = BenchmarkData.keys(numberOfKeys);
+        values = BenchmarkData.values(5);
+        for (int i = 0; i < numberOfKeys; i++) {
+            try {
+                requestProxy.write(LocalDateTime.now(), keys[i], values[i % values.length]);
+            } catch (RuntimeException ignored) {
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        proxyServer.shutdown();
+    }
+
+    @Benchmark
+    public void write(ThreadCursor cursor, Blackhole blackhole) {
+        int index = cursor.next(numberOfKeys);
+        try {
+            requestProxy.write(LocalDateTime.now(), keys[index], values[index % values.length]);
+        } catch (RuntimeException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void delete(ThreadCursor cursor, Blackhole blackhole) {
+        try {
+            requestProxy.delete(LocalDateTime.now(), keys[cursor.next(numberOfKeys)]);
+        } catch (RuntimeException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void get(ThreadCursor cursor, Blackhole blackhole) {
+        try {
+            blackhole.consume(requestProxy.get(keys[cursor.next(numberOfKeys)]));
+        } catch (RuntimeException e) {
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+// Per thread position into the pre-generated benchmark data, so that the threads do not contend on a shared counter
+@State(Scope.Thread)
+public class ThreadCursor {
+    private int position = (int) Thread.currentThread().getId() * 7919;
+
+    public int next(int bound) {
+        position = (position + 1) & Integer.MAX_VALUE;
+        return position % bound;
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import config.ProxyServerConfig;
+import data.HybridLogicalClock;
+import data.operationDetails.OperationDetails;
+import log.WriteAheadLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteAheadLogBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int numberOfLogs;
+
+    private WriteAheadLog writeAheadLog;
+    private HybridLogicalClock[] hybridLogicalClocks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writeAheadLog = new WriteAheadLog();
+        hybridLogicalClocks = BenchmarkData.increasingHybridLogicalClocks(numberOfLogs);
+        String[] keys = BenchmarkData.keys(numberOfLogs);
+        String[] values = BenchmarkData.values(5);
+        for (int i = 0; i < numberOfLogs; i++) {
+            if (i % 10 == 9) {
+                writeAheadLog.addDeleteLog(hybridLogicalClocks[i], keys[i - 1]);
+            } else {
+                writeAheadLog.addUpdateLog(hybridLogicalClocks[i], keys[i], values[i % values.length]);
+            }
+        }
+    }
+
+    // The replication between the database nodes asks for the recent tail of the log, here the last 10 percent
+    @Benchmark
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsAfterTheGivenTimestamp() {
+        return writeAheadLog.getLogsAfterTheGivenTimestamp(hybridLogicalClocks[numberOfLogs - numberOfLogs / 10]);
+    }
+
+    // A root node rejoining the ring asks for the range of a single shard, roughly a tenth of the ring
+    @Benchmark
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition() {
+        return writeAheadLog.getLogsInRangeOfConsistentHashingPosition(0,
+                ProxyServerConfig.positionsInTheConsistentHashingRing / 10);
+    }
+
+    // Around the range of a single virtual node
+    @Benchmark
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInNarrowRangeOfConsistentHashingPosition() {
+        return writeAheadLog.getLogsInRangeOfConsistentHashingPosition(0,
+                ProxyServerConfig.positionsInTheConsistentHashingRing / 100);
+    }
+
+    @Benchmark
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPositionWrappingAround() {
+        int positionsInTheConsistentHashingRing = ProxyServerConfig.positionsInTheConsistentHashingRing;
+        return writeAheadLog.getLogsInRangeOfConsistentHashingPosition(
+                positionsInTheConsistentHashingRing - positionsInTheConsistentHashingRing / 20,
+                positionsInTheConsistentHashingRing, 0, positionsInTheConsistentHashingRing / 20);
+    }
+}
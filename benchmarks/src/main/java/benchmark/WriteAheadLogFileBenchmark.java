@@ -0,0 +1,68 @@
+package benchmark;
+
+import config.WriteAheadLogConfig;
+import data.CommitPolicy;
+import data.HybridLogicalClock;
+import log.WriteAheadLog;
+import log.WriteAheadLogFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Measures an append to the durable write ahead log followed by the wait for its commit, the same as the database node
+// does for every write. Run it with several threads to see the group commit sharing the syncs.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteAheadLogFileBenchmark {
+    @Param({"PER_WRITE_FSYNC", "GROUP_COMMIT", "OS_BUFFERED"})
+    private CommitPolicy commitPolicy;
+
+    @Param({"1000"})
+    private int numberOfKeys;
+
+    private Path directory;
+    private WriteAheadLog writeAheadLog;
+    private String[] keys;
+    private String[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("write-ahead-log-benchmark");
+        writeAheadLog = new WriteAheadLog(new WriteAheadLogFile(directory, commitPolicy,
+                WriteAheadLogConfig.segmentSizeBytes, WriteAheadLogConfig.groupCommitWindowMicroseconds,
+                WriteAheadLogConfig.groupCommitMaxBytes));
+        keys = BenchmarkData.keys(numberOfKeys);
+        values = BenchmarkData.values(5);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void appendAndCommit(ThreadCursor cursor) {
+        int index = cursor.next(numberOfKeys);
+        long sequenceNumber;
+        // The in memory part of the write ahead log is guarded by the database node lock
+        synchronized (this) {
+            sequenceNumber = writeAheadLog.addUpdateLog(new HybridLogicalClock(LocalDateTime.now()), keys[index],
+                    values[index % values.length]);
+        }
+        writeAheadLog.sync(sequenceNumber);
+    }
+}
@@ -0,0 +1,99 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterOfKeysTest {
+    private static final int numberOfKeys = 10000;
+    private static final int numberOfAbsentKeys = 100000;
+
+    @Test
+    void containsEveryAddedKey() {
+        BloomFilterOfKeys bloomFilterOfKeys = new BloomFilterOfKeys(numberOfKeys, 0.01);
+
+        for (int i = 0; i < numberOfKeys; i++) {
+            bloomFilterOfKeys.add("key-" + i);
+        }
+
+        for (int i = 0; i < numberOfKeys; i++) {
+            assertTrue(bloomFilterOfKeys.mightContain("key-" + i));
+        }
+    }
+
+    @Test
+    void containsEveryKeyAddedConcurrently() throws InterruptedException {
+        BloomFilterOfKeys bloomFilterOfKeys = new BloomFilterOfKeys(numberOfKeys, 0.01);
+        int numberOfWriters = 4;
+        List<Thread> writers = new ArrayList<>();
+        for (int writer = 0; writer < numberOfWriters; writer++) {
+            int currentWriter = writer;
+            writers.add(new Thread(() -> {
+                for (int i = currentWriter; i < numberOfKeys; i += numberOfWriters) {
+                    bloomFilterOfKeys.add("key-" + i);
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        for (int i = 0; i < numberOfKeys; i++) {
+            assertTrue(bloomFilterOfKeys.mightContain("key-" + i));
+        }
+        assertFalse(bloomFilterOfKeys.isFull());
+    }
+
+    @Test
+    void isSizedForTheFalsePositiveRate() {
+        double falsePositiveRate = getFalsePositiveRate(new BloomFilterOfKeys(numberOfKeys, 0.01), numberOfKeys);
+        double lowerFalsePositiveRate = getFalsePositiveRate(new BloomFilterOfKeys(numberOfKeys, 0.001), numberOfKeys);
+
+        // The number of bits is rounded up to a power of two, so the rate is at most the configured one, give or take
+        // the sampling
+        assertTrue(falsePositiveRate < 0.015, "False positive rate: " + falsePositiveRate);
+        assertTrue(lowerFalsePositiveRate < 0.0015, "False positive rate: " + lowerFalsePositiveRate);
+        assertTrue(lowerFalsePositiveRate < falsePositiveRate);
+    }
+
+    @Test
+    void isFullOnceMoreKeysWereAddedThanItIsSizedFor() {
+        BloomFilterOfKeys bloomFilterOfKeys = new BloomFilterOfKeys(100, 0.01);
+
+        for (int i = 0; i < 100; i++) {
+            bloomFilterOfKeys.add("key-" + i);
+        }
+        assertFalse(bloomFilterOfKeys.isFull());
+        bloomFilterOfKeys.add("key-100");
+        assertTrue(bloomFilterOfKeys.isFull());
+    }
+
+    @Test
+    void losesItsFalsePositiveRateWhenOverfilled() {
+        BloomFilterOfKeys bloomFilterOfKeys = new BloomFilterOfKeys(numberOfKeys / 10, 0.01);
+
+        double falsePositiveRate = getFalsePositiveRate(bloomFilterOfKeys, numberOfKeys);
+
+        assertTrue(bloomFilterOfKeys.isFull());
+        assertTrue(falsePositiveRate > 0.1, "False positive rate: " + falsePositiveRate);
+    }
+
+    // Adds the given number of keys, then checks as many keys which were never added
+    private double getFalsePositiveRate(BloomFilterOfKeys bloomFilterOfKeys, int numberOfAddedKeys) {
+        for (int i = 0; i < numberOfAddedKeys; i++) {
+            bloomFilterOfKeys.add("key-" + i);
+        }
+        int numberOfFalsePositives = 0;
+        for (int i = 0; i < numberOfAbsentKeys; i++) {
+            if (bloomFilterOfKeys.mightContain("absent-" + i)) {
+                numberOfFalsePositives++;
+            }
+        }
+        return (double) numberOfFalsePositives / numberOfAbsentKeys;
+    }
+}
@@ -0,0 +1,93 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import util.HybridLogicalClockComparator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HybridLogicalClockTest {
+    private static final LocalDateTime physicalClock = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_932);
+
+    @Test
+    void packsThePhysicalClockInMicrosecondsAndTheLogicalClock() {
+        HybridLogicalClock hybridLogicalClock = new HybridLogicalClock(physicalClock, 42);
+
+        // The nanoseconds below a microsecond are dropped
+        assertEquals(physicalClock.withNano(535_897_000), hybridLogicalClock.getPhysicalClock());
+        assertEquals(42, hybridLogicalClock.getLogicalClock());
+        assertEquals((hybridLogicalClock.getPhysicalClockInMicroseconds() << HybridLogicalClock.numberOfBitsOfLogicalClock) + 42,
+                hybridLogicalClock.getPackedClock());
+        HybridLogicalClock unpackedHybridLogicalClock = HybridLogicalClock.fromPackedClock(hybridLogicalClock.getPackedClock());
+        assertEquals(hybridLogicalClock.getPhysicalClock(), unpackedHybridLogicalClock.getPhysicalClock());
+        assertEquals(42, unpackedHybridLogicalClock.getLogicalClock());
+    }
+
+    @Test
+    void ordersByThePhysicalClockAndThenByTheLogicalClock() {
+        HybridLogicalClock earlier = new HybridLogicalClock(physicalClock, HybridLogicalClock.maximumLogicalClock);
+        HybridLogicalClock later = new HybridLogicalClock(physicalClock.plusNanos(1000), 0);
+        HybridLogicalClock laterWithLargerLogicalClock = new HybridLogicalClock(physicalClock.plusNanos(1000), 1);
+
+        assertTrue(earlier.compareTo(later) < 0);
+        assertTrue(later.compareTo(laterWithLargerLogicalClock) < 0);
+        assertTrue(laterWithLargerLogicalClock.compareTo(earlier) > 0);
+        assertEquals(0, later.compareTo(HybridLogicalClock.fromPackedClock(later.getPackedClock())));
+    }
+
+    @Test
+    void carriesTheIncrementOfTheMaximumLogicalClockIntoThePhysicalClock() {
+        HybridLogicalClock hybridLogicalClock = new HybridLogicalClock(physicalClock, HybridLogicalClock.maximumLogicalClock);
+
+        HybridLogicalClock incrementedHybridLogicalClock = hybridLogicalClock.incrementLogicalClockByOne();
+
+        assertEquals(0, incrementedHybridLogicalClock.getLogicalClock());
+        assertEquals(hybridLogicalClock.getPhysicalClockInMicroseconds() + 1,
+                incrementedHybridLogicalClock.getPhysicalClockInMicroseconds());
+        assertTrue(hybridLogicalClock.compareTo(incrementedHybridLogicalClock) < 0);
+    }
+
+    @Test
+    void keepsTheOrderOnceThePhysicalClockReachesTheSignBit() {
+        HybridLogicalClock beforeSignBit = new HybridLogicalClock(LocalDateTime.of(2040, 1, 1, 0, 0));
+        HybridLogicalClock afterSignBit = new HybridLogicalClock(LocalDateTime.of(2042, 1, 1, 0, 0), 7);
+
+        assertTrue(beforeSignBit.getPackedClock() > 0);
+        assertTrue(afterSignBit.getPackedClock() < 0);
+        assertTrue(beforeSignBit.compareTo(afterSignBit) < 0);
+        assertTrue(HybridLogicalClockComparator.getHybridLogicalClock().compare(afterSignBit, beforeSignBit) > 0);
+        assertEquals(LocalDateTime.of(2042, 1, 1, 0, 0), afterSignBit.getPhysicalClock());
+        assertEquals(7, afterSignBit.getLogicalClock());
+    }
+
+    @Test
+    void sortsTheClocksInTheOrderTheyWereTaken() {
+        List<HybridLogicalClock> hybridLogicalClocks = new ArrayList<>();
+        for (int year = 2038; year <= 2045; year++) {
+            for (int logicalClock = 0; logicalClock < 3; logicalClock++) {
+                hybridLogicalClocks.add(new HybridLogicalClock(LocalDateTime.of(year, 6, 1, 0, 0), logicalClock));
+            }
+        }
+        List<HybridLogicalClock> sortedHybridLogicalClocks = new ArrayList<>(hybridLogicalClocks);
+        Collections.shuffle(sortedHybridLogicalClocks, new Random(1));
+        sortedHybridLogicalClocks.sort(HybridLogicalClockComparator.getHybridLogicalClock());
+
+        assertEquals(hybridLogicalClocks, sortedHybridLogicalClocks);
+    }
+
+    @Test
+    void rejectsALogicalClockOutOfItsRange() {
+        assertThrows(IllegalArgumentException.class, () -> new HybridLogicalClock(physicalClock, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HybridLogicalClock(physicalClock, HybridLogicalClock.maximumLogicalClock + 1));
+        assertEquals(HybridLogicalClock.maximumLogicalClock,
+                new HybridLogicalClock(physicalClock, HybridLogicalClock.maximumLogicalClock).getLogicalClock());
+    }
+}
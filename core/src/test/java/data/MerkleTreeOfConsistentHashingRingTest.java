@@ -0,0 +1,111 @@
+package data;
+
+import config.DatabaseNodeConfig;
+import config.ProxyServerConfig;
+import data.operationDetails.DeleteOperationDetails;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
+import node.impl.DatabaseNode;
+import node.impl.NoOpRootNode;
+import org.junit.jupiter.api.Test;
+import util.HashingHelper;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class MerkleTreeOfConsistentHashingRingTest {
+    private static final int numberOfPositionsPerRange = DatabaseNodeConfig.numberOfPositionsPerAntiEntropyRange;
+
+    @Test
+    void removesAHashByAddingItAgain() {
+        MerkleTreeOfConsistentHashingRing merkleTree = new MerkleTreeOfConsistentHashingRing();
+
+        merkleTree.updateHash(5, 0x1234L);
+        merkleTree.updateHash(5, 0x5678L);
+        merkleTree.updateHash(5, 0x1234L);
+
+        assertEquals(0x5678L, merkleTree.getHashesOfRanges()[5 / numberOfPositionsPerRange]);
+        merkleTree.updateHash(5, 0x5678L);
+        assertArrayEquals(new long[MerkleTreeOfConsistentHashingRing.getNumberOfRanges()], merkleTree.getHashesOfRanges());
+        assertEquals(new MerkleTreeOfConsistentHashingRing().getRootHash(), merkleTree.getRootHash());
+    }
+
+    @Test
+    void hasTheSameHashesForTheSameUpdatesInAnyOrder() {
+        MerkleTreeOfConsistentHashingRing merkleTree = new MerkleTreeOfConsistentHashingRing();
+        MerkleTreeOfConsistentHashingRing otherMerkleTree = new MerkleTreeOfConsistentHashingRing();
+
+        for (int i = 0; i < 100; i++) {
+            merkleTree.updateHash(i * 7 % ProxyServerConfig.positionsInTheConsistentHashingRing, HashingHelper.hash("key-" + i, "value"));
+        }
+        for (int i = 99; i >= 0; i--) {
+            otherMerkleTree.updateHash(i * 7 % ProxyServerConfig.positionsInTheConsistentHashingRing, HashingHelper.hash("key-" + i, "value"));
+        }
+
+        assertArrayEquals(merkleTree.getHashesOfRanges(), otherMerkleTree.getHashesOfRanges());
+        assertEquals(merkleTree.getRootHash(), otherMerkleTree.getRootHash());
+    }
+
+    @Test
+    void changesOnlyTheRangeOfThePosition() {
+        MerkleTreeOfConsistentHashingRing merkleTree = new MerkleTreeOfConsistentHashingRing();
+        int range = 3;
+
+        merkleTree.updateHash(MerkleTreeOfConsistentHashingRing.getEndingPositionOfRange(range), 42L);
+
+        long[] hashesOfRanges = merkleTree.getHashesOfRanges();
+        for (int i = 0; i < hashesOfRanges.length; i++) {
+            assertEquals(i == range ? 42L : 0L, hashesOfRanges[i]);
+        }
+        // The root hash tells apart the same hash in different ranges
+        MerkleTreeOfConsistentHashingRing otherMerkleTree = new MerkleTreeOfConsistentHashingRing();
+        otherMerkleTree.updateHash(MerkleTreeOfConsistentHashingRing.getStartingPositionOfRange(range + 1), 42L);
+        assertNotEquals(merkleTree.getRootHash(), otherMerkleTree.getRootHash());
+    }
+
+    @Test
+    void coversTheRingWithContiguousRanges() {
+        int numberOfRanges = MerkleTreeOfConsistentHashingRing.getNumberOfRanges();
+
+        assertEquals(0, MerkleTreeOfConsistentHashingRing.getStartingPositionOfRange(0));
+        for (int range = 1; range < numberOfRanges; range++) {
+            assertEquals(MerkleTreeOfConsistentHashingRing.getEndingPositionOfRange(range - 1) + 1,
+                    MerkleTreeOfConsistentHashingRing.getStartingPositionOfRange(range));
+        }
+        assertEquals(ProxyServerConfig.positionsInTheConsistentHashingRing - 1,
+                MerkleTreeOfConsistentHashingRing.getEndingPositionOfRange(numberOfRanges - 1));
+    }
+
+    @Test
+    void matchesOnDatabaseNodesWithTheSameDataAndDifferentClocks() {
+        DatabaseNode leaderDatabaseNode = new DatabaseNode(920, 1, DatabaseNodeType.LEADER, new NoOpRootNode());
+        DatabaseNode followerDatabaseNode = new DatabaseNode(920, 2, DatabaseNodeType.FOLLOWER, new NoOpRootNode());
+        try {
+            HashMap<HybridLogicalClock, OperationDetails> logs = new HashMap<>();
+            for (int i = 0; i < 50; i++) {
+                leaderDatabaseNode.write(new HybridLogicalClock(LocalDateTime.now()), "key-" + i, "value-" + i);
+                logs.put(new HybridLogicalClock(LocalDateTime.now(), i),
+                        new UpdateOperationDetails(OperationType.UPDATE, "key-" + i, "value-" + i));
+            }
+            followerDatabaseNode.replicateData(logs);
+
+            assertEquals(leaderDatabaseNode.getRootHashOfData(), followerDatabaseNode.getRootHashOfData());
+            assertArrayEquals(leaderDatabaseNode.getHashesOfRangesOfData(), followerDatabaseNode.getHashesOfRangesOfData());
+
+            leaderDatabaseNode.delete(new HybridLogicalClock(LocalDateTime.now()), "key-7");
+            assertNotEquals(leaderDatabaseNode.getRootHashOfData(), followerDatabaseNode.getRootHashOfData());
+
+            HashMap<HybridLogicalClock, OperationDetails> deleteLogs = new HashMap<>();
+            deleteLogs.put(new HybridLogicalClock(LocalDateTime.now()), new DeleteOperationDetails(OperationType.DELETE, "key-7"));
+            followerDatabaseNode.replicateData(deleteLogs);
+            assertEquals(leaderDatabaseNode.getRootHashOfData(), followerDatabaseNode.getRootHashOfData());
+        } finally {
+            leaderDatabaseNode.run();
+            followerDatabaseNode.run();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package data;
+
+import node.impl.NamedRootNode;
+import node.rootNode.BasicRootNodeAccess;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingTableTest {
+    private static final int positionsInTheConsistentHashingRing = 16;
+    private final BasicRootNodeAccess rootNodeA = new NamedRootNode("A");
+    private final BasicRootNodeAccess rootNodeB = new NamedRootNode("B");
+    private final BasicRootNodeAccess rootNodeC = new NamedRootNode("C");
+
+    @Test
+    void resolvesEveryPositionToTheNextRootNodeInTheRing() {
+        RoutingTable routingTable = new RoutingTable(7, getConsistentHashingRootNode(), positionsInTheConsistentHashingRing, 2);
+
+        assertEquals(7, routingTable.getVersion());
+        assertFalse(routingTable.isEmpty());
+        // A position is owned by the first root node strictly after it, so the position of a root node belongs to the next one
+        assertSame(rootNodeA, routingTable.getRootNode(0));
+        assertSame(rootNodeA, routingTable.getRootNode(1));
+        assertSame(rootNodeB, routingTable.getRootNode(2));
+        assertSame(rootNodeB, routingTable.getRootNode(5));
+        assertSame(rootNodeC, routingTable.getRootNode(6));
+        assertSame(rootNodeC, routingTable.getRootNode(9));
+        assertSame(rootNodeA, routingTable.getRootNode(10));
+        assertSame(rootNodeA, routingTable.getRootNode(12));
+        // The positions after the last root node wrap around the ring
+        assertSame(rootNodeA, routingTable.getRootNode(13));
+        assertSame(rootNodeA, routingTable.getRootNode(15));
+    }
+
+    @Test
+    void walksTheRingClockwiseForTheReplicaRootNodes() {
+        RoutingTable routingTable = new RoutingTable(1, getConsistentHashingRootNode(), positionsInTheConsistentHashingRing, 2);
+
+        assertEquals(List.of(rootNodeA, rootNodeB), routingTable.getReplicaRootNodes(0));
+        assertEquals(List.of(rootNodeB, rootNodeC), routingTable.getReplicaRootNodes(3));
+        assertEquals(List.of(rootNodeC, rootNodeA), routingTable.getReplicaRootNodes(7));
+        // The second virtual node of A is skipped, as A already holds the replica
+        assertEquals(List.of(rootNodeA, rootNodeB), routingTable.getReplicaRootNodes(11));
+        assertEquals(List.of(rootNodeA, rootNodeB), routingTable.getReplicaRootNodes(14));
+    }
+
+    @Test
+    void replicatesToEveryRootNodeWhenTheReplicationFactorIsLarger() {
+        RoutingTable routingTable = new RoutingTable(1, getConsistentHashingRootNode(), positionsInTheConsistentHashingRing, 5);
+
+        for (int position = 0; position < positionsInTheConsistentHashingRing; position++) {
+            List<BasicRootNodeAccess> replicaRootNodes = routingTable.getReplicaRootNodes(position);
+            assertEquals(3, replicaRootNodes.size());
+            // The owner is always the first replica
+            assertSame(routingTable.getRootNode(position), replicaRootNodes.get(0));
+        }
+    }
+
+    @Test
+    void resolvesNothingInAnEmptyRing() {
+        RoutingTable routingTable = new RoutingTable(1, new TreeMap<>(), positionsInTheConsistentHashingRing, 2);
+
+        assertTrue(routingTable.isEmpty());
+        assertNull(routingTable.getRootNode(3));
+        assertTrue(routingTable.getReplicaRootNodes(3).isEmpty());
+    }
+
+    @Test
+    void isNotChangedByTheRingItWasBuiltFrom() {
+        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNode = getConsistentHashingRootNode();
+        RoutingTable routingTable = new RoutingTable(1, consistentHashingRootNode, positionsInTheConsistentHashingRing, 2);
+
+        consistentHashingRootNode.put(4, rootNodeC);
+
+        assertSame(rootNodeB, routingTable.getRootNode(4));
+        assertEquals(4, routingTable.getConsistentHashingRootNode().size());
+    }
+
+    // A at 2 and 13, B at 6, C at 10
+    private TreeMap<Integer, BasicRootNodeAccess> getConsistentHashingRootNode() {
+        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNode = new TreeMap<>();
+        consistentHashingRootNode.put(2, rootNodeA);
+        consistentHashingRootNode.put(6, rootNodeB);
+        consistentHashingRootNode.put(10, rootNodeC);
+        consistentHashingRootNode.put(13, rootNodeA);
+        return consistentHashingRootNode;
+    }
+}
@@ -0,0 +1,107 @@
+package log;
+
+import data.HybridLogicalClock;
+import data.operationDetails.OperationDetails;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicationBufferTest {
+    private static final LocalDateTime physicalClock = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void returnsTheLogsAfterTheCursorInTheOrderOfTheirClocks() {
+        ReplicationBuffer replicationBuffer = new ReplicationBuffer();
+        replicationBuffer.addUpdateLog(new HybridLogicalClock(physicalClock, 3), "c", "3");
+        replicationBuffer.addDeleteLog(new HybridLogicalClock(physicalClock, 1), "a");
+        replicationBuffer.addUpdateLog(new HybridLogicalClock(physicalClock, 2), "b", "2");
+
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logs = replicationBuffer.getLogsAfterCursor(10);
+
+        assertEquals(List.of("a", "b", "c"), getKeys(logs));
+        assertEquals(List.of(1, 2, 3), logs.keySet().stream().map(HybridLogicalClock::getLogicalClock).toList());
+    }
+
+    @Test
+    void returnsTheSameLogsAgainUntilTheyAreAcknowledged() {
+        ReplicationBuffer replicationBuffer = new ReplicationBuffer();
+        for (int i = 0; i < 5; i++) {
+            replicationBuffer.addUpdateLog(new HybridLogicalClock(physicalClock, i), "key-" + i, "value-" + i);
+        }
+
+        assertEquals(List.of("key-0", "key-1", "key-2"), getKeys(replicationBuffer.getLogsAfterCursor(3)));
+        // A failed shipment takes the same logs again
+        assertEquals(List.of("key-0", "key-1", "key-2"), getKeys(replicationBuffer.getLogsAfterCursor(3)));
+        assertEquals(5, replicationBuffer.getNumberOfLogsToShip());
+
+        replicationBuffer.acknowledgeLogsAfterCursor();
+
+        assertEquals(2, replicationBuffer.getNumberOfLogsToShip());
+        assertEquals(List.of("key-3", "key-4"), getKeys(replicationBuffer.getLogsAfterCursor(3)));
+        replicationBuffer.acknowledgeLogsAfterCursor();
+        assertEquals(0, replicationBuffer.getNumberOfLogsToShip());
+        assertTrue(replicationBuffer.getLogsAfterCursor(3).isEmpty());
+    }
+
+    @Test
+    void ordersTheLogsAppendedBeforeARetryWithTheTakenLogs() {
+        ReplicationBuffer replicationBuffer = new ReplicationBuffer();
+        replicationBuffer.addUpdateLog(new HybridLogicalClock(physicalClock, 5), "late", "5");
+        assertEquals(List.of("late"), getKeys(replicationBuffer.getLogsAfterCursor(2)));
+
+        // A writer with an earlier clock appended after the logs were taken
+        replicationBuffer.addUpdateLog(new HybridLogicalClock(physicalClock, 4), "early", "4");
+
+        assertEquals(List.of("early", "late"), getKeys(replicationBuffer.getLogsAfterCursor(2)));
+        replicationBuffer.acknowledgeLogsAfterCursor();
+        assertEquals(0, replicationBuffer.getNumberOfLogsToShip());
+    }
+
+    @Test
+    void drainsEveryLogOfConcurrentWritersExactlyOnce() throws InterruptedException {
+        ReplicationBuffer replicationBuffer = new ReplicationBuffer();
+        int numberOfWriters = 4;
+        int numberOfLogsPerWriter = 2000;
+        List<Thread> writers = new ArrayList<>();
+        for (int writer = 0; writer < numberOfWriters; writer++) {
+            int currentWriter = writer;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < numberOfLogsPerWriter; i++) {
+                    replicationBuffer.addUpdateLog(new HybridLogicalClock(physicalClock.plusNanos(1000L * i), currentWriter),
+                            currentWriter + "-" + i, "value");
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+
+        Set<String> shippedKeys = new HashSet<>();
+        int numberOfShippedLogs = 0;
+        while (true) {
+            boolean isWriting = writers.stream().anyMatch(Thread::isAlive);
+            LinkedHashMap<HybridLogicalClock, OperationDetails> logs = replicationBuffer.getLogsAfterCursor(64);
+            if (logs.isEmpty() && !isWriting) break;
+            shippedKeys.addAll(getKeys(logs));
+            numberOfShippedLogs += logs.size();
+            replicationBuffer.acknowledgeLogsAfterCursor();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(numberOfWriters * numberOfLogsPerWriter, numberOfShippedLogs);
+        assertEquals(numberOfWriters * numberOfLogsPerWriter, shippedKeys.size());
+        assertEquals(0, replicationBuffer.getNumberOfLogsToShip());
+    }
+
+    private List<String> getKeys(LinkedHashMap<HybridLogicalClock, OperationDetails> logs) {
+        return logs.values().stream().map(OperationDetails::getKey).toList();
+    }
+}
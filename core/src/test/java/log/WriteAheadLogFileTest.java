@@ -0,0 +1,309 @@
+package log;
+
+import data.CommitPolicy;
+import data.HybridLogicalClock;
+import data.OperationType;
+import data.operationDetails.DeleteOperationDetails;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
+import exception.WriteAheadLogException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Reopens the write ahead log file on the same directory to simulate a restart after a crash
+class WriteAheadLogFileTest {
+    private static final long largeSegmentSizeBytes = 1024 * 1024;
+    private static final long smallSegmentSizeBytes = 128;
+    private static final int segmentHeaderSize = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversEveryRecordAfterReopening() {
+        WriteAheadLogFile writeAheadLogFile = openAndRecover(largeSegmentSizeBytes, new ArrayList<>());
+        appendUpdates(writeAheadLogFile, 0, 10);
+        writeAheadLogFile.append(getHybridLogicalClock(10), new DeleteOperationDetails(OperationType.DELETE, "key-3"));
+
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> recoveredLogs = new ArrayList<>();
+        WriteAheadLogFile reopenedWriteAheadLogFile = openAndRecover(largeSegmentSizeBytes, recoveredLogs);
+
+        assertEquals(11, recoveredLogs.size());
+        assertUpdates(recoveredLogs, 0, 10);
+        assertEquals(OperationType.DELETE, recoveredLogs.get(10).getValue().getOperationType());
+        assertEquals("key-3", recoveredLogs.get(10).getValue().getKey());
+        assertEquals(11, reopenedWriteAheadLogFile.getWrittenSequenceNumber());
+    }
+
+    @Test
+    void recoversRecordsAcrossSegmentsAfterReopeningMoreThanOnce() throws IOException {
+        WriteAheadLogFile writeAheadLogFile = openAndRecover(smallSegmentSizeBytes, new ArrayList<>());
+        appendUpdates(writeAheadLogFile, 0, 10);
+
+        WriteAheadLogFile reopenedWriteAheadLogFile = openAndRecover(smallSegmentSizeBytes, new ArrayList<>());
+        assertEquals(10, reopenedWriteAheadLogFile.getWrittenSequenceNumber());
+        appendUpdates(reopenedWriteAheadLogFile, 10, 15);
+
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> recoveredLogs = new ArrayList<>();
+        WriteAheadLogFile lastWriteAheadLogFile = openAndRecover(smallSegmentSizeBytes, recoveredLogs);
+
+        assertTrue(listSegments().size() > 2);
+        assertEquals(15, recoveredLogs.size());
+        assertUpdates(recoveredLogs, 0, 15);
+        assertEquals(15, lastWriteAheadLogFile.getWrittenSequenceNumber());
+    }
+
+    @Test
+    void truncatesTheTornTailOfTheSegment() throws IOException {
+        WriteAheadLogFile writeAheadLogFile = openAndRecover(largeSegmentSizeBytes, new ArrayList<>());
+        appendUpdates(writeAheadLogFile, 0, 10);
+        Path segment = listSegments().get(0);
+        long sizeOfSegment = Files.size(segment);
+        try (FileChannel fileChannel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            fileChannel.truncate(sizeOfSegment - 3);
+        }
+
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> recoveredLogs = new ArrayList<>();
+        WriteAheadLogFile reopenedWriteAheadLogFile = openAndRecover(largeSegmentSizeBytes, recoveredLogs);
+
+        assertEquals(9, recoveredLogs.size());
+        assertUpdates(recoveredLogs, 0, 9);
+        assertTrue(Files.size(segment) < sizeOfSegment - 3);
+
+        // The appends after the recovery go on from the last valid record
+        appendUpdates(reopenedWriteAheadLogFile, 9, 12);
+        recoveredLogs.clear();
+        openAndRecover(largeSegmentSizeBytes, recoveredLogs);
+        assertEquals(12, recoveredLogs.size());
+        assertUpdates(recoveredLogs, 0, 12);
+    }
+
+    @Test
+    void stopsAtTheCorruptedRecordOfTheSegment() throws IOException {
+        WriteAheadLogFile writeAheadLogFile = openAndRecover(largeSegmentSizeBytes, new ArrayList<>());
+        Path segment = listSegments().get(0);
+        appendUpdates(writeAheadLogFile, 0, 5);
+        long endOfFifthRecord = Files.size(segment);
+        appendUpdates(writeAheadLogFile, 5, 10);
+        // Flipping the last byte of the payload of the fifth record breaks its checksum
+        try (FileChannel fileChannel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            fileChannel.read(lastByte, endOfFifthRecord - 1);
+            lastByte.put(0, (byte) (lastByte.get(0) ^ 0xff));
+            lastByte.rewind();
+            fileChannel.write(lastByte, endOfFifthRecord - 1);
+        }
+
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> recoveredLogs = new ArrayList<>();
+        WriteAheadLogFile reopenedWriteAheadLogFile = openAndRecover(largeSegmentSizeBytes, recoveredLogs);
+
+        assertEquals(4, recoveredLogs.size());
+        assertUpdates(recoveredLogs, 0, 4);
+        assertEquals(4, reopenedWriteAheadLogFile.getWrittenSequenceNumber());
+    }
+
+    @Test
+    void skipsTheRecordsCoveredByTheCheckpoint() throws IOException {
+        WriteAheadLogFile writeAheadLogFile = openAndRecover(smallSegmentSizeBytes, new ArrayList<>());
+        appendUpdates(writeAheadLogFile, 0, 10);
+        int numberOfSegmentsBeforeCheckpoint = listSegments().size();
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> logsOfLiveKeys = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            logsOfLiveKeys.add(getUpdate(i));
+        }
+        writeAheadLogFile.writeCheckpoint(new WriteAheadLogCheckpoint(6, getHybridLogicalClock(5), logsOfLiveKeys));
+        appendUpdates(writeAheadLogFile, 10, 12);
+
+        assertTrue(listSegments().size() < numberOfSegmentsBeforeCheckpoint);
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> recoveredLogs = new ArrayList<>();
+        WriteAheadLogFile reopenedWriteAheadLogFile = new WriteAheadLogFile(directory, CommitPolicy.PER_WRITE_FSYNC,
+                smallSegmentSizeBytes, 0, 0);
+        WriteAheadLogCheckpoint checkpoint = reopenedWriteAheadLogFile.recover((hybridLogicalClock, operationDetails) ->
+                recoveredLogs.add(new AbstractMap.SimpleImmutableEntry<>(hybridLogicalClock, operationDetails)));
+
+        assertEquals(6, checkpoint.getSequenceNumber());
+        assertEquals(getHybridLogicalClock(5).getPackedClock(), checkpoint.getHybridLogicalClock().getPackedClock());
+        assertEquals(6, checkpoint.getLogsOfLiveKeys().size());
+        assertUpdates(checkpoint.getLogsOfLiveKeys(), 0, 6);
+        assertEquals(6, recoveredLogs.size());
+        assertUpdates(recoveredLogs, 6, 12);
+        assertEquals(12, reopenedWriteAheadLogFile.getWrittenSequenceNumber());
+    }
+
+    @Test
+    void failsOnASegmentOfAnotherFormatVersion() throws IOException {
+        WriteAheadLogFile writeAheadLogFile = openAndRecover(largeSegmentSizeBytes, new ArrayList<>());
+        appendUpdates(writeAheadLogFile, 0, 5);
+        Path segment = listSegments().get(0);
+        long sizeOfSegment = Files.size(segment);
+        try (FileChannel fileChannel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            fileChannel.write(ByteBuffer.allocate(4).putInt(0, 1), 4);
+        }
+
+        assertThrows(WriteAheadLogException.class, () -> openAndRecover(largeSegmentSizeBytes, new ArrayList<>()));
+        assertEquals(sizeOfSegment, Files.size(segment));
+    }
+
+    @Test
+    void removesTheLastSegmentWithATornHeader() throws IOException {
+        WriteAheadLogFile writeAheadLogFile = openAndRecover(largeSegmentSizeBytes, new ArrayList<>());
+        appendUpdates(writeAheadLogFile, 0, 5);
+        Path tornSegment = directory.resolve(String.format("segment-%020d.log", 6));
+        Files.write(tornSegment, new byte[3]);
+
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> recoveredLogs = new ArrayList<>();
+        WriteAheadLogFile reopenedWriteAheadLogFile = openAndRecover(largeSegmentSizeBytes, recoveredLogs);
+
+        assertEquals(5, recoveredLogs.size());
+        assertUpdates(recoveredLogs, 0, 5);
+        // The new segment for the appends replaces the torn one
+        assertEquals(segmentHeaderSize, Files.size(tornSegment));
+        appendUpdates(reopenedWriteAheadLogFile, 5, 6);
+        recoveredLogs.clear();
+        openAndRecover(largeSegmentSizeBytes, recoveredLogs);
+        assertUpdates(recoveredLogs, 0, 6);
+    }
+
+    @Test
+    void failsOnATornHeaderBeforeTheLastSegment() throws IOException {
+        WriteAheadLogFile writeAheadLogFile = openAndRecover(smallSegmentSizeBytes, new ArrayList<>());
+        appendUpdates(writeAheadLogFile, 0, 10);
+        Path firstSegment = listSegments().get(0);
+        try (FileChannel fileChannel = FileChannel.open(firstSegment, StandardOpenOption.WRITE)) {
+            fileChannel.truncate(3);
+        }
+
+        assertThrows(WriteAheadLogException.class, () -> openAndRecover(smallSegmentSizeBytes, new ArrayList<>()));
+    }
+
+    @Test
+    void sharesTheSyncsBetweenConcurrentAppendersWithGroupCommit() throws Exception {
+        int numberOfAppenders = 8;
+        int numberOfAppendsPerAppender = 200;
+        WriteAheadLogFile writeAheadLogFile = new WriteAheadLogFile(directory, CommitPolicy.GROUP_COMMIT,
+                largeSegmentSizeBytes, 1000, 1024 * 1024);
+        writeAheadLogFile.recover((hybridLogicalClock, operationDetails) -> {});
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfAppenders);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> appenders = new ArrayList<>();
+        for (int appender = 0; appender < numberOfAppenders; appender++) {
+            int firstIndex = appender * numberOfAppendsPerAppender;
+            appenders.add(executor.submit(() -> {
+                start.await();
+                for (int i = firstIndex; i < firstIndex + numberOfAppendsPerAppender; i++) {
+                    Map.Entry<HybridLogicalClock, OperationDetails> update = getUpdate(i);
+                    long sequenceNumber = writeAheadLogFile.append(update.getKey(), update.getValue());
+                    // Returns once a sync covering the record is done, whichever appender ran it
+                    writeAheadLogFile.sync(sequenceNumber);
+                    assertTrue(writeAheadLogFile.getNumberOfSyncs() > 0);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> appender : appenders) {
+            appender.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int numberOfAppends = numberOfAppenders * numberOfAppendsPerAppender;
+        assertEquals(numberOfAppends, writeAheadLogFile.getWrittenSequenceNumber());
+        assertTrue(writeAheadLogFile.getNumberOfSyncs() < numberOfAppends / 2,
+                "syncs: " + writeAheadLogFile.getNumberOfSyncs());
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> recoveredLogs = new ArrayList<>();
+        openAndRecover(largeSegmentSizeBytes, recoveredLogs);
+        assertEquals(numberOfAppends, recoveredLogs.size());
+        assertEquals(numberOfAppends, recoveredLogs.stream().map(log -> log.getValue().getKey()).distinct().count());
+    }
+
+    @Test
+    void syncsEveryAppendOnlyWithPerWriteFsync() {
+        WriteAheadLogFile perWriteFsyncWriteAheadLogFile = new WriteAheadLogFile(directory.resolve("per-write-fsync"),
+                CommitPolicy.PER_WRITE_FSYNC, largeSegmentSizeBytes, 0, 0);
+        perWriteFsyncWriteAheadLogFile.recover((hybridLogicalClock, operationDetails) -> {});
+        WriteAheadLogFile osBufferedWriteAheadLogFile = new WriteAheadLogFile(directory.resolve("os-buffered"),
+                CommitPolicy.OS_BUFFERED, largeSegmentSizeBytes, 0, 0);
+        osBufferedWriteAheadLogFile.recover((hybridLogicalClock, operationDetails) -> {});
+
+        for (int i = 0; i < 20; i++) {
+            Map.Entry<HybridLogicalClock, OperationDetails> update = getUpdate(i);
+            perWriteFsyncWriteAheadLogFile.sync(perWriteFsyncWriteAheadLogFile.append(update.getKey(), update.getValue()));
+            osBufferedWriteAheadLogFile.sync(osBufferedWriteAheadLogFile.append(update.getKey(), update.getValue()));
+        }
+
+        assertEquals(20, perWriteFsyncWriteAheadLogFile.getNumberOfSyncs());
+        assertEquals(0, osBufferedWriteAheadLogFile.getNumberOfSyncs());
+        assertEquals(20, osBufferedWriteAheadLogFile.getWrittenSequenceNumber());
+    }
+
+    @Test
+    void recoversWithoutCheckpoint() {
+        WriteAheadLogFile writeAheadLogFile = new WriteAheadLogFile(directory, CommitPolicy.PER_WRITE_FSYNC,
+                largeSegmentSizeBytes, 0, 0);
+        assertNull(writeAheadLogFile.recover((hybridLogicalClock, operationDetails) -> {}));
+        assertEquals(0, writeAheadLogFile.getWrittenSequenceNumber());
+    }
+
+    private WriteAheadLogFile openAndRecover(long segmentSizeBytes,
+                                             List<Map.Entry<HybridLogicalClock, OperationDetails>> recoveredLogs) {
+        WriteAheadLogFile writeAheadLogFile = new WriteAheadLogFile(directory, CommitPolicy.PER_WRITE_FSYNC,
+                segmentSizeBytes, 0, 0);
+        writeAheadLogFile.recover((hybridLogicalClock, operationDetails) ->
+                recoveredLogs.add(new AbstractMap.SimpleImmutableEntry<>(hybridLogicalClock, operationDetails)));
+        return writeAheadLogFile;
+    }
+
+    private void appendUpdates(WriteAheadLogFile writeAheadLogFile, int start, int end) {
+        for (int i = start; i < end; i++) {
+            Map.Entry<HybridLogicalClock, OperationDetails> update = getUpdate(i);
+            writeAheadLogFile.append(update.getKey(), update.getValue());
+        }
+    }
+
+    private void assertUpdates(List<Map.Entry<HybridLogicalClock, OperationDetails>> logs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            Map.Entry<HybridLogicalClock, OperationDetails> log = logs.get(i - start);
+            assertEquals(getHybridLogicalClock(i).getPackedClock(), log.getKey().getPackedClock());
+            assertEquals(OperationType.UPDATE, log.getValue().getOperationType());
+            assertEquals("key-" + i, log.getValue().getKey());
+            assertEquals("value-" + i, ((UpdateOperationDetails) log.getValue()).getValue());
+        }
+    }
+
+    private Map.Entry<HybridLogicalClock, OperationDetails> getUpdate(int index) {
+        return new AbstractMap.SimpleImmutableEntry<>(getHybridLogicalClock(index),
+                new UpdateOperationDetails(OperationType.UPDATE, "key-" + index, "value-" + index));
+    }
+
+    private HybridLogicalClock getHybridLogicalClock(int index) {
+        return HybridLogicalClock.fromPackedClock((1_700_000_000_000_000L + index) << HybridLogicalClock.numberOfBitsOfLogicalClock);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package node.impl;
+
+import data.HybridLogicalClock;
+import data.OperationResult;
+import data.StateTransferChunk;
+import data.Value;
+import data.operationDetails.OperationDetails;
+import node.rootNode.BasicRootNodeAccess;
+
+import java.util.HashMap;
+import java.util.List;
+
+// Root node which only has a name, so that the placement of root nodes in the consistent hashing ring can be tested
+// without starting any database nodes
+public class NamedRootNode implements BasicRootNodeAccess {
+    private final String rootNodeName;
+
+    public NamedRootNode(String rootNodeName) {
+        this.rootNodeName = rootNodeName;
+    }
+
+    @Override
+    public void shutdown() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getRootNodeName() {
+        return rootNodeName;
+    }
+
+    @Override
+    public String toString() {
+        return rootNodeName;
+    }
+
+    @Override
+    public String get(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Value getValue(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String get(String key, HybridLogicalClock hybridLogicalClock) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HybridLogicalClock write(HybridLogicalClock hybridLogicalClock, String key, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HybridLogicalClock delete(HybridLogicalClock hybridLogicalClock, String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public OperationResult tryGet(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public OperationResult tryGet(String key, HybridLogicalClock hybridLogicalClock) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public OperationResult tryWrite(HybridLogicalClock hybridLogicalClock, String key, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public OperationResult tryDelete(HybridLogicalClock hybridLogicalClock, String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void writeBatch(HashMap<HybridLogicalClock, OperationDetails> logs) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HashMap<String, String> multiGet(List<String> keys) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
+            int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
+            int startingPositionInConsistentHashingRing, int intermediateEndingPositionInConsistentHashingRing,
+            int intermediateStartingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public StateTransferChunk getSnapshotChunkOfRange(int startingPositionInConsistentHashingRing,
+                                                      int endingPositionInConsistentHashingRing, int numberOfKeys) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+            int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing,
+            HybridLogicalClock hybridLogicalClock) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void replicationOfSnapshotChunk(StateTransferChunk stateTransferChunk, int startingPositionInConsistentHashingRing,
+                                           int endingPositionInConsistentHashingRing) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void replicationOfData(HashMap<HybridLogicalClock, OperationDetails> logs) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,114 @@
+package server.impl;
+
+import config.ProxyServerConfig;
+import data.DatabaseNodeType;
+import data.HybridLogicalClock;
+import data.OperationType;
+import data.RoutingTable;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
+import node.impl.DatabaseNode;
+import node.impl.NamedRootNode;
+import node.impl.NoOpRootNode;
+import node.rootNode.BasicRootNodeAccess;
+import org.junit.jupiter.api.Test;
+import service.StateTransferOfRange;
+import util.HybridLogicalClockComparator;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProxyServerTest {
+    private static final int sizeOfLargeBatch = 5000;
+
+    @Test
+    void pullsEveryVirtualNodeRangeOfAJoiningRootNodeFromTheRootNodeServingIt() {
+        BasicRootNodeAccess rootNodeA = new NamedRootNode("A");
+        BasicRootNodeAccess rootNodeB = new NamedRootNode("B");
+        BasicRootNodeAccess rootNodeC = new NamedRootNode("C");
+        BasicRootNodeAccess rootNodeD = new NamedRootNode("D");
+        BasicRootNodeAccess rootNodeE = new NamedRootNode("E");
+        BasicRootNodeAccess rootNodeF = new NamedRootNode("F");
+        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNode = new TreeMap<>();
+        consistentHashingRootNode.put(100, rootNodeB);
+        consistentHashingRootNode.put(200, rootNodeE);
+        consistentHashingRootNode.put(500, rootNodeC);
+        consistentHashingRootNode.put(600, rootNodeF);
+        consistentHashingRootNode.put(800, rootNodeD);
+        RoutingTable currentRoutingTable = new RoutingTable(1, consistentHashingRootNode,
+                ProxyServerConfig.positionsInTheConsistentHashingRing, ProxyServerConfig.replicationFactor);
+        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeAfterJoining = new TreeMap<>(consistentHashingRootNode);
+        consistentHashingRootNodeAfterJoining.put(300, rootNodeA);
+        consistentHashingRootNodeAfterJoining.put(900, rootNodeA);
+
+        List<StateTransferOfRange> stateTransfersOfRanges = ProxyServer.getStateTransfersOfRangesOfJoiningRootNode(
+                currentRoutingTable, consistentHashingRootNodeAfterJoining, rootNodeA);
+
+        // Every range ends at the position before the next virtual node, as the position of a virtual node belongs to the
+        // next one. The ranges of the virtual nodes of A come from the root node which served them before the join, the
+        // range 300 to 499 is skipped as A is not one of its three replicas.
+        assertEquals(List.of(
+                "transfer of the range: 900 99 from B to A",
+                "transfer of the range: 100 199 from E to A",
+                "transfer of the range: 200 299 from C to A",
+                "transfer of the range: 500 599 from F to A",
+                "transfer of the range: 600 799 from D to A",
+                "transfer of the range: 800 899 from B to A"
+        ), stateTransfersOfRanges.stream().map(StateTransferOfRange::toString).toList());
+        // The ranges of the virtual nodes of A are owned by A after the join
+        RoutingTable routingTableAfterJoining = new RoutingTable(2, consistentHashingRootNodeAfterJoining,
+                ProxyServerConfig.positionsInTheConsistentHashingRing, ProxyServerConfig.replicationFactor);
+        assertSame(rootNodeA, routingTableAfterJoining.getRootNode(200));
+        assertSame(rootNodeA, routingTableAfterJoining.getRootNode(299));
+        assertSame(rootNodeC, routingTableAfterJoining.getRootNode(300));
+        assertSame(rootNodeA, routingTableAfterJoining.getRootNode(899));
+        assertSame(rootNodeB, routingTableAfterJoining.getRootNode(900));
+    }
+
+    @Test
+    void givesEveryKeyOfALargeBatchItsOwnClock() {
+        LocalDateTime physicalTimestamp = LocalDateTime.now();
+        long microseconds = new HybridLogicalClock(physicalTimestamp).getPhysicalClockInMicroseconds();
+        TreeSet<HybridLogicalClock> hybridLogicalClocks = new TreeSet<>(HybridLogicalClockComparator.getHybridLogicalClock());
+        HybridLogicalClock previousHybridLogicalClock = null;
+        for (int i = 0; i < sizeOfLargeBatch; i++) {
+            HybridLogicalClock hybridLogicalClock = ProxyServer.getHybridLogicalClockOfBatch(physicalTimestamp, i);
+            hybridLogicalClocks.add(hybridLogicalClock);
+            if (previousHybridLogicalClock != null) {
+                assertTrue(hybridLogicalClock.compareTo(previousHybridLogicalClock) > 0);
+            }
+            previousHybridLogicalClock = hybridLogicalClock;
+            // The leader and a replica increment the clock, which must not reach the next microsecond of the batch
+            assertTrue(hybridLogicalClock.incrementLogicalClockByOne().incrementLogicalClockByOne().getLogicalClock() <=
+                    HybridLogicalClock.maximumLogicalClock);
+        }
+        assertEquals(sizeOfLargeBatch, hybridLogicalClocks.size());
+        // Three microseconds for a batch of 5000 keys
+        assertEquals(microseconds + 2, previousHybridLogicalClock.getPhysicalClockInMicroseconds());
+    }
+
+    @Test
+    void keepsEveryKeyOfALargeBatchInTheLogOfTheDatabaseNode() {
+        DatabaseNode databaseNode = new DatabaseNode(900, 1, DatabaseNodeType.LEADER, new NoOpRootNode());
+        LocalDateTime physicalTimestamp = LocalDateTime.now();
+        HashMap<HybridLogicalClock, OperationDetails> logs = new HashMap<>();
+        for (int i = 0; i < sizeOfLargeBatch; i++) {
+            logs.put(ProxyServer.getHybridLogicalClockOfBatch(physicalTimestamp, i),
+                    new UpdateOperationDetails(OperationType.UPDATE, "key-" + i, "value-" + i));
+        }
+
+        databaseNode.writeBatch(logs);
+
+        assertEquals(sizeOfLargeBatch, databaseNode.getDataSize());
+        assertEquals(sizeOfLargeBatch, databaseNode.getLogsAfterTheGivenTimestamp(HybridLogicalClock.fromPackedClock(0)).size());
+        // Scaling the database node down stops its periodic tasks
+        databaseNode.run();
+    }
+}
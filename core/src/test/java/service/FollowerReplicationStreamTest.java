@@ -0,0 +1,148 @@
+package service;
+
+import data.DatabaseNodeType;
+import data.HybridLogicalClock;
+import data.OperationType;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
+import exception.DatabaseNodeInActiveException;
+import node.impl.DatabaseNode;
+import node.impl.NoOpRootNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FollowerReplicationStreamTest {
+    private static final long timeoutInMilliseconds = 10_000;
+    private final DatabaseNode leaderDatabaseNode = new DatabaseNode(910, 1, DatabaseNodeType.LEADER, new NoOpRootNode());
+    private final FlakyDatabaseNode followerDatabaseNode = new FlakyDatabaseNode(910, 2);
+
+    @AfterEach
+    void scaleDownTheDatabaseNodes() {
+        leaderDatabaseNode.run();
+        followerDatabaseNode.run();
+    }
+
+    @Test
+    void deliversTheBatchesToTheFollowerAndAcknowledgesThem() throws InterruptedException {
+        FollowerReplicationStream followerReplicationStream = new FollowerReplicationStream(followerDatabaseNode,
+                () -> leaderDatabaseNode);
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logs = writeToTheLeader("a", 10);
+
+        followerReplicationStream.enqueue(logs, leaderDatabaseNode);
+
+        waitUntil(followerReplicationStream::isCaughtUp);
+        assertEquals(10, followerDatabaseNode.getDataSize());
+        assertEquals("a-9", followerDatabaseNode.get("a-9"));
+        assertSame(getLastHybridLogicalClock(logs), followerReplicationStream.getAcknowledgedHybridLogicalClock());
+        assertNull(followerReplicationStream.getEarliestUnacknowledgedHybridLogicalClock());
+    }
+
+    @Test
+    void onlyAcknowledgesTheBatchesAlreadyAppliedByTheDatabaseNode() throws InterruptedException {
+        FollowerReplicationStream leaderReplicationStream = new FollowerReplicationStream(leaderDatabaseNode,
+                () -> leaderDatabaseNode);
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logs = new LinkedHashMap<>();
+        // Never written to the leader, so applying it would add a key
+        logs.put(new HybridLogicalClock(LocalDateTime.now()), new UpdateOperationDetails(OperationType.UPDATE, "b", "b"));
+
+        leaderReplicationStream.enqueue(logs, leaderDatabaseNode);
+
+        waitUntil(leaderReplicationStream::isCaughtUp);
+        assertEquals(0, leaderDatabaseNode.getDataSize());
+        assertSame(getLastHybridLogicalClock(logs), leaderReplicationStream.getAcknowledgedHybridLogicalClock());
+    }
+
+    @Test
+    void catchesUpFromTheLogOfTheLeaderOnceTheFollowerIsBack() throws InterruptedException {
+        FollowerReplicationStream followerReplicationStream = new FollowerReplicationStream(followerDatabaseNode,
+                () -> leaderDatabaseNode);
+        followerDatabaseNode.isDown = true;
+        LinkedHashMap<HybridLogicalClock, OperationDetails> firstLogs = writeToTheLeader("first", 5);
+        LinkedHashMap<HybridLogicalClock, OperationDetails> secondLogs = writeToTheLeader("second", 5);
+
+        followerReplicationStream.enqueue(firstLogs, leaderDatabaseNode);
+        followerReplicationStream.enqueue(secondLogs, leaderDatabaseNode);
+
+        // The batches are dropped, the stream only keeps the earliest clock the follower missed
+        waitUntil(() -> followerDatabaseNode.numberOfFailedReplications > 0);
+        Thread.sleep(100);
+        assertFalse(followerReplicationStream.isCaughtUp());
+        assertSame(firstLogs.keySet().iterator().next(), followerReplicationStream.getEarliestUnacknowledgedHybridLogicalClock());
+        assertNull(followerReplicationStream.getAcknowledgedHybridLogicalClock());
+        assertEquals(0, followerDatabaseNode.getDataSize());
+
+        followerDatabaseNode.isDown = false;
+        followerReplicationStream.scheduleCatchingUp();
+        try {
+            waitUntil(followerReplicationStream::isCaughtUp);
+        } finally {
+            followerReplicationStream.cancelCatchingUp();
+        }
+        assertEquals(10, followerDatabaseNode.getDataSize());
+        assertEquals("first-0", followerDatabaseNode.get("first-0"));
+        assertEquals("second-4", followerDatabaseNode.get("second-4"));
+        assertEquals(0, getLastHybridLogicalClock(secondLogs).compareTo(followerReplicationStream.getAcknowledgedHybridLogicalClock()));
+        assertNull(followerReplicationStream.getEarliestUnacknowledgedHybridLogicalClock());
+    }
+
+    private LinkedHashMap<HybridLogicalClock, OperationDetails> writeToTheLeader(String prefix, int numberOfKeys) {
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logs = new LinkedHashMap<>();
+        for (int i = 0; i < numberOfKeys; i++) {
+            String key = prefix + "-" + i;
+            HybridLogicalClock hybridLogicalClock = leaderDatabaseNode.write(new HybridLogicalClock(LocalDateTime.now()), key, key);
+            logs.put(hybridLogicalClock, new UpdateOperationDetails(OperationType.UPDATE, key, key));
+        }
+        return logs;
+    }
+
+    private HybridLogicalClock getLastHybridLogicalClock(LinkedHashMap<HybridLogicalClock, OperationDetails> logs) {
+        HybridLogicalClock lastHybridLogicalClock = null;
+        for (HybridLogicalClock hybridLogicalClock : logs.keySet()) {
+            lastHybridLogicalClock = hybridLogicalClock;
+        }
+        return lastHybridLogicalClock;
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutInMilliseconds;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the replication stream");
+            Thread.sleep(10);
+        }
+    }
+
+    // Follower which can be taken down without scaling it down, so that it comes back with its data
+    private static class FlakyDatabaseNode extends DatabaseNode {
+        private volatile boolean isDown;
+        private volatile int numberOfFailedReplications;
+
+        private FlakyDatabaseNode(int rootNodeId, int databaseNodeId) {
+            super(rootNodeId, databaseNodeId, DatabaseNodeType.FOLLOWER, new NoOpRootNode());
+        }
+
+        @Override
+        public boolean getIsActive() {
+            return !isDown && super.getIsActive();
+        }
+
+        @Override
+        public void replicateData(HashMap<HybridLogicalClock, OperationDetails> log) throws DatabaseNodeInActiveException {
+            if (isDown) {
+                numberOfFailedReplications++;
+                throw new DatabaseNodeInActiveException("The database node is down");
+            }
+            super.replicateData(log);
+        }
+    }
+}
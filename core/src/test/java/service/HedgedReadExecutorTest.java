@@ -0,0 +1,109 @@
+package service;
+
+import config.RootNodeConfig;
+import data.OperationResult;
+import data.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedReadExecutorTest {
+    @Test
+    void returnsTheFirstReadWhenItAnswersFirst() {
+        HedgedReadExecutor hedgedReadExecutor = new HedgedReadExecutor();
+
+        OperationResult operationResult = hedgedReadExecutor.read(answer("first", 0), answer("second", 500));
+
+        assertEquals("first", operationResult.getValue());
+        assertEquals(0, hedgedReadExecutor.getNumberOfHedgedReadsWon());
+    }
+
+    @Test
+    void hedgesASlowFirstRead() throws InterruptedException {
+        HedgedReadExecutor hedgedReadExecutor = new HedgedReadExecutor();
+        long startTimeMilliseconds = System.currentTimeMillis();
+
+        OperationResult operationResult = hedgedReadExecutor.read(answer("first", 1000), answer("second", 0));
+
+        assertEquals("second", operationResult.getValue());
+        // Answered without waiting for the first read
+        assertTrue(System.currentTimeMillis() - startTimeMilliseconds < 800);
+        assertEquals(1, hedgedReadExecutor.getNumberOfHedgedReads());
+        // Counted by the thread of the hedged read right after it answers
+        for (int i = 0; i < 100 && hedgedReadExecutor.getNumberOfHedgedReadsWon() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, hedgedReadExecutor.getNumberOfHedgedReadsWon());
+    }
+
+    @Test
+    void leavesTheAnswerToTheOtherReadWhenADatabaseNodeIsInactive() {
+        HedgedReadExecutor hedgedReadExecutor = new HedgedReadExecutor();
+
+        OperationResult operationResult = hedgedReadExecutor.read(answer("first", 200),
+                () -> new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE));
+
+        assertEquals("first", operationResult.getValue());
+        assertEquals(0, hedgedReadExecutor.getNumberOfHedgedReadsWon());
+    }
+
+    @Test
+    void answersInactiveWhenBothDatabaseNodesAreInactive() {
+        HedgedReadExecutor hedgedReadExecutor = new HedgedReadExecutor();
+        Supplier<OperationResult> slowInactiveRead = () -> {
+            sleep(200);
+            return new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE);
+        };
+
+        OperationResult operationResult = hedgedReadExecutor.read(slowInactiveRead,
+                () -> new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE));
+
+        assertEquals(OperationStatus.DATABASE_NODE_INACTIVE, operationResult.getOperationStatus());
+    }
+
+    @Test
+    void throwsTheFailureOfTheRead() {
+        HedgedReadExecutor hedgedReadExecutor = new HedgedReadExecutor();
+
+        assertThrows(IllegalStateException.class, () -> hedgedReadExecutor.read(() -> {
+            throw new IllegalStateException("The read failed");
+        }, answer("second", 0)));
+    }
+
+    @Test
+    void capsTheNumberOfHedgedReads() {
+        HedgedReadExecutor hedgedReadExecutor = new HedgedReadExecutor();
+        int numberOfReads = 40;
+
+        for (int i = 0; i < numberOfReads; i++) {
+            OperationResult operationResult = hedgedReadExecutor.read(answer("first", 5), answer("second", 0));
+            assertTrue(operationResult.isSuccess());
+        }
+
+        // Every first read was slow, but only the burst and the allowed fraction of the reads were hedged
+        assertEquals((long) (RootNodeConfig.maximumFractionOfHedgedReads * numberOfReads) +
+                RootNodeConfig.numberOfHedgedReadsAllowedInBurst, hedgedReadExecutor.getNumberOfHedgedReads());
+    }
+
+    private Supplier<OperationResult> answer(String value, long delayMilliseconds) {
+        return () -> {
+            sleep(delayMilliseconds);
+            return new OperationResult(OperationStatus.SUCCESS, value);
+        };
+    }
+
+    private static void sleep(long delayMilliseconds) {
+        if (delayMilliseconds == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMilliseconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
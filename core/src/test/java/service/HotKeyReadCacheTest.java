@@ -0,0 +1,94 @@
+package service;
+
+import config.ProxyServerConfig;
+import data.HybridLogicalClock;
+import data.Value;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotKeyReadCacheTest {
+    private static final LocalDateTime physicalClock = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void missesAfterTheKeyIsInvalidatedByAWrite() {
+        HotKeyReadCache hotKeyReadCache = new HotKeyReadCache();
+        hotKeyReadCache.put("key", getValue(1, "old"));
+        assertEquals("old", hotKeyReadCache.get("key", null).getValue());
+
+        hotKeyReadCache.invalidate("key", getHybridLogicalClock(2));
+
+        assertNull(hotKeyReadCache.get("key", null));
+        assertEquals(1, hotKeyReadCache.getNumberOfHits());
+        assertEquals(1, hotKeyReadCache.getNumberOfMisses());
+    }
+
+    @Test
+    void doesNotPutBackAValueOlderThanTheWrite() {
+        HotKeyReadCache hotKeyReadCache = new HotKeyReadCache();
+        hotKeyReadCache.put("key", getValue(1, "old"));
+        hotKeyReadCache.invalidate("key", getHybridLogicalClock(2));
+
+        // A read which raced with the write answers with the replaced value
+        hotKeyReadCache.put("key", getValue(1, "old"));
+        assertNull(hotKeyReadCache.get("key", null));
+
+        // The value written at the clock of the marker, read after the write
+        hotKeyReadCache.put("key", getValue(2, "new"));
+        assertEquals("new", hotKeyReadCache.get("key", null).getValue());
+    }
+
+    @Test
+    void invalidatesAHotKeyOfTheProtectedPart() {
+        HotKeyReadCache hotKeyReadCache = new HotKeyReadCache();
+        hotKeyReadCache.put("key", getValue(1, "old"));
+        // Read twice, so the key is promoted to the protected part
+        hotKeyReadCache.get("key", null);
+        hotKeyReadCache.get("key", null);
+
+        hotKeyReadCache.invalidate("key", getHybridLogicalClock(3));
+        hotKeyReadCache.put("key", getValue(2, "old"));
+
+        assertNull(hotKeyReadCache.get("key", null));
+        hotKeyReadCache.put("key", getValue(3, "new"));
+        assertEquals("new", hotKeyReadCache.get("key", null).getValue());
+    }
+
+    @Test
+    void missesASessionReadAfterTheCachedValue() {
+        HotKeyReadCache hotKeyReadCache = new HotKeyReadCache();
+        hotKeyReadCache.put("key", getValue(5, "value"));
+
+        assertEquals("value", hotKeyReadCache.get("key", getHybridLogicalClock(5)).getValue());
+        assertNull(hotKeyReadCache.get("key", getHybridLogicalClock(6)));
+    }
+
+    @Test
+    void staysBoundedAndKeepsTheHotKeysThroughAScan() {
+        HotKeyReadCache hotKeyReadCache = new HotKeyReadCache();
+        hotKeyReadCache.put("hot", getValue(1, "hot"));
+        hotKeyReadCache.get("hot", null);
+        int numberOfScannedKeys = 2 * ProxyServerConfig.maximumNumberOfKeysInReadCache;
+
+        for (int i = 0; i < numberOfScannedKeys; i++) {
+            hotKeyReadCache.put("scan-" + i, getValue(1, "scan"));
+        }
+
+        assertTrue(hotKeyReadCache.getNumberOfKeys() <= ProxyServerConfig.maximumNumberOfKeysInReadCache);
+        assertTrue(hotKeyReadCache.getNumberOfEvictions() >= numberOfScannedKeys - ProxyServerConfig.maximumNumberOfKeysInReadCache);
+        assertEquals("hot", hotKeyReadCache.get("hot", null).getValue());
+        assertNull(hotKeyReadCache.get("scan-0", null));
+    }
+
+    private HybridLogicalClock getHybridLogicalClock(int logicalClock) {
+        return new HybridLogicalClock(physicalClock, logicalClock);
+    }
+
+    private Value getValue(int logicalClock, String value) {
+        return new Value(getHybridLogicalClock(logicalClock), value);
+    }
+}
@@ -0,0 +1,141 @@
+package util.followerSelector;
+
+import data.OperationResult;
+import data.Value;
+import node.databaseNode.FollowerDatabaseNodeAccess;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FollowerSelectorTest {
+    private final FollowerDatabaseNodeAccess followerA = new NamedFollowerDatabaseNode("A");
+    private final FollowerDatabaseNodeAccess followerB = new NamedFollowerDatabaseNode("B");
+    private final FollowerDatabaseNodeAccess followerC = new NamedFollowerDatabaseNode("C");
+    private final List<FollowerDatabaseNodeAccess> followerDatabaseNodes = List.of(followerA, followerB, followerC);
+
+    @Test
+    void roundRobinCyclesThroughTheFollowers() {
+        FollowerSelector followerSelector = new RoundRobinFollowerSelector();
+
+        for (int i = 0; i < 3 * followerDatabaseNodes.size(); i++) {
+            assertSame(followerDatabaseNodes.get(i % followerDatabaseNodes.size()), followerSelector.select(followerDatabaseNodes));
+        }
+    }
+
+    @Test
+    void powerOfTwoChoicesReturnsTheOnlyFollower() {
+        FollowerSelector followerSelector = new PowerOfTwoChoicesFollowerSelector();
+
+        assertSame(followerA, followerSelector.select(List.of(followerA)));
+    }
+
+    @Test
+    void powerOfTwoChoicesAvoidsTheSlowFollower() {
+        FollowerSelector followerSelector = new PowerOfTwoChoicesFollowerSelector();
+        for (int i = 0; i < 10; i++) {
+            addRead(followerSelector, followerA, 50);
+            addRead(followerSelector, followerB, 1);
+            addRead(followerSelector, followerC, 1);
+        }
+
+        HashMap<FollowerDatabaseNodeAccess, Integer> numberOfSelections = getNumberOfSelections(followerSelector, 1000);
+
+        // The slow follower loses every comparison, while the reads are spread over the other two
+        assertEquals(0, numberOfSelections.getOrDefault(followerA, 0));
+        assertTrue(numberOfSelections.getOrDefault(followerB, 0) > 100);
+        assertTrue(numberOfSelections.getOrDefault(followerC, 0) > 100);
+    }
+
+    @Test
+    void powerOfTwoChoicesAvoidsTheFollowerWithTheReadsInFlight() {
+        FollowerSelector followerSelector = new PowerOfTwoChoicesFollowerSelector();
+        for (int i = 0; i < 10; i++) {
+            addRead(followerSelector, followerA, 5);
+            addRead(followerSelector, followerB, 5);
+        }
+        List<FollowerDatabaseNodeAccess> twoFollowerDatabaseNodes = List.of(followerA, followerB);
+        for (int i = 0; i < 4; i++) {
+            followerSelector.startRead(followerA);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(followerB, followerSelector.select(twoFollowerDatabaseNodes));
+        }
+        // A failed read is no longer in flight, without adding its latency
+        for (int i = 0; i < 4; i++) {
+            followerSelector.failRead(followerA);
+        }
+        followerSelector.startRead(followerB);
+        followerSelector.startRead(followerB);
+        assertSame(followerA, followerSelector.select(twoFollowerDatabaseNodes));
+    }
+
+    // A read of the follower database node which took the given number of milliseconds
+    private void addRead(FollowerSelector followerSelector, FollowerDatabaseNodeAccess followerDatabaseNode,
+                         long latencyMilliseconds) {
+        followerSelector.startRead(followerDatabaseNode);
+        followerSelector.finishRead(followerDatabaseNode, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(latencyMilliseconds));
+    }
+
+    private HashMap<FollowerDatabaseNodeAccess, Integer> getNumberOfSelections(FollowerSelector followerSelector,
+                                                                            int numberOfReads) {
+        HashMap<FollowerDatabaseNodeAccess, Integer> numberOfSelections = new HashMap<>();
+        for (int i = 0; i < numberOfReads; i++) {
+            numberOfSelections.merge(followerSelector.select(followerDatabaseNodes), 1, Integer::sum);
+        }
+        return numberOfSelections;
+    }
+
+    private static class NamedFollowerDatabaseNode implements FollowerDatabaseNodeAccess {
+        private final String databaseNodeName;
+
+        private NamedFollowerDatabaseNode(String databaseNodeName) {
+            this.databaseNodeName = databaseNodeName;
+        }
+
+        @Override
+        public String get(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Value getValue(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OperationResult tryGet(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashMap<String, String> multiGet(List<String> keys) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean getIsActive() {
+            return true;
+        }
+
+        @Override
+        public String getDatabaseNodeName() {
+            return databaseNodeName;
+        }
+
+        @Override
+        public int getDataSize() {
+            return 0;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -5,7 +5,6 @@ import server.RequestProxy;
 import server.impl.ProxyServer;
 import util.RandomHelper;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
 
 public class Main {
@@ -76,7 +75,7 @@ public class Main {
     }
 
     private static void write(String key, String value, BasicRootNodeAccess rootNode) {
-        rootNode.write(new HybridLogicalClock(LocalDateTime.now(), new BigInteger(String.valueOf(0))), key, value);
+        rootNode.write(new HybridLogicalClock(LocalDateTime.now()), key, value);
     }
 
     private static String get(String key, BasicRootNodeAccess rootNode) {
@@ -84,7 +83,7 @@ public class Main {
     }
 
     private static void delete(String key, BasicRootNodeAccess rootNode) {
-        rootNode.delete(new HybridLogicalClock(LocalDateTime.now(), new BigInteger(String.valueOf(0))), key);
+        rootNode.delete(new HybridLogicalClock(LocalDateTime.now()), key);
     }
     */
 }
@@ -3,5 +3,18 @@ package config;
 public interface DatabaseNodeConfig {
     long cooldownTimeForUpdatingHeartBeat = 2000;
     long cooldownTimeForUpdatingDataInFollowerDatabaseNodes = 2000;
+    // Logs shipped to the followers per batch, a larger backlog is shipped in several batches
+    int maximumNumberOfLogsPerReplicationBatch = 10000;
     long cooldownTimeForReplicationOfDataUsingNeighbourDatabaseNodes = 30000;
+    long cooldownTimeForCheckpointingWriteAheadLog = 30000;
+    // Writers of different keys under different locks resolve their hybrid logical clocks concurrently
+    int numberOfLocksOfKeys = 64;
+    // Positions of the consistent hashing ring covered by a single hash compared during anti-entropy
+    int numberOfPositionsPerAntiEntropyRange = 16;
+    // Bloom filter over the keys of every database node, rebuilt from the live keys on every checkpoint and when more
+    // keys were added than it is sized for. A miss in the in-memory data is already about as cheap as checking the
+    // filter, it pays off once looking up the data costs more than a few memory reads.
+    boolean isBloomFilterOfKeysEnabled = false;
+    int minimumNumberOfKeysInBloomFilter = 16384;
+    double falsePositiveRateOfBloomFilter = 0.01;
 }
@@ -7,6 +7,10 @@ public interface LogsConfig {
     boolean inactiveToActiveLoggingEnabled = false;
     boolean isLeaderRootNodeCleaningInactiveDatabaseNodesLoggingEnabled = true;
     boolean isAsyncReplicationOfUpdatesLoggingEnabled = false;
+    boolean isReplicationOfUpdatesQueueDepthLoggingEnabled = false;
+    boolean isReplicationBackpressureLoggingEnabled = false;
+    boolean isHedgedReadsLoggingEnabled = false;
+    boolean isReadCacheLoggingEnabled = false;
     boolean isWriteOperationRootNodeLoggingEnabled = false;
     boolean isDeleteOperationRootNodeLoggingEnabled = false;
     boolean isGetOperationRootNodeLoggingEnabled = false;
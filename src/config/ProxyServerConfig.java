@@ -1,8 +1,41 @@
 package config;
 
+import data.RingHashAlgorithm;
+
 public interface ProxyServerConfig {
     long cooldownTimeForCheckingHeartBeat = 5000;
     int positionsInTheConsistentHashingRing = 1024;
     long heartBeatTimeoutSeconds = 5;
     int replicationFactor = 3;
+    // SHA256 reproduces the ring positions of the earlier versions
+    RingHashAlgorithm ringHashAlgorithm = RingHashAlgorithm.MURMUR3;
+    // Positions of every root node in the consistent hashing ring, 1 places each root node at a single position
+    int numberOfVirtualNodesPerRootNode = 8;
+    int numberOfThreadsForReplicationFromNeighbouringNodes = 4;
+    // Live keys sent per chunk while transferring the data of a range to a rejoining root node
+    int numberOfKeysPerStateTransferChunk = 1000;
+    // Threads sending the sub batches of a batch request to the root nodes in parallel, when there are no virtual threads
+    int numberOfThreadsForBatchRequests = 4;
+    // Requests of the asynchronous proxy, the threads are only used when there are no virtual threads
+    int numberOfThreadsForAsyncRequests = 64;
+    int maximumNumberOfAsyncRequestsInFlight = 4096;
+    long asyncRequestTimeoutMilliseconds = 5000;
+    // Replication of the updates to the replica root nodes, the threads are only used when there are no virtual threads
+    int numberOfThreadsForReplicationOfUpdates = 4;
+    int maximumNumberOfPendingUpdatesPerRootNode = 100000;
+    int maximumNumberOfUpdatesPerReplicationBatch = 1000;
+    // How long a writer waits for room in the full replication pipelines of the replica root nodes before the write is
+    // rejected
+    long replicationBackpressureTimeoutMilliseconds = 1000;
+    // Reads without a session go to a random one of the owning and the replica root nodes, which may return a value the
+    // replica root node has not received the latest update of yet
+    boolean isReadLoadSpreadAcrossReplicaRootNodes = false;
+    // Cache of the hot keys read through the proxy server, invalidated by the writes and the deletes sent through it
+    boolean isReadCacheEnabled = false;
+    int maximumNumberOfKeysInReadCache = 100000;
+    int numberOfSegmentsOfReadCache = 16;
+    // Part of every segment kept for the keys read more than once, the rest is for the keys read once
+    double fractionOfReadCacheForProtectedKeys = 0.8;
+    // A cached value older than this is read again from the root nodes, 0 keeps it until it is evicted or invalidated
+    long maximumStalenessOfReadCacheMilliseconds = 0;
 }
@@ -0,0 +1,13 @@
+package config;
+
+public interface RetryConfig {
+    // The backoff doubles with every failed attempt, up to the maximum, and a random half of it is added as jitter
+    long initialBackoffMilliseconds = 100;
+    long maximumBackoffMilliseconds = 30000;
+    // A task which has failed more than this is moved to the dead letters
+    int maximumNumberOfRetries = 20;
+    // Consecutive failures of a target which open its circuit, the retries of the target wait until it is half open
+    int numberOfFailuresToOpenCircuit = 5;
+    long circuitOpenMilliseconds = 10000;
+    int maximumNumberOfDeadLettersKept = 1000;
+}
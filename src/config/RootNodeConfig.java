@@ -1,5 +1,7 @@
 package config;
 
+import data.FollowerSelectionPolicy;
+
 public interface RootNodeConfig {
     long heartBeatTimeoutSeconds = 5;
     long cooldownTimeForCheckingHeartBeat = 5000;
@@ -7,4 +9,22 @@ public interface RootNodeConfig {
     int retryCountForFindDatabaseNodeForReplication = 3;
     int retryLimitForFindingDatabaseNodeForReplication = 3;
     long cooldownTimeForUpdatingHeartBeat = 2000;
+    // How often the replication stream of a database node which is down checks if it is back, to catch up
+    long cooldownTimeForCatchingUpDatabaseNodes = 2000;
+    // ROUND_ROBIN spreads the reads evenly regardless of the latency of the follower database nodes
+    FollowerSelectionPolicy followerSelectionPolicy = FollowerSelectionPolicy.POWER_OF_TWO_CHOICES;
+    // Weight of the latest read in the moving average of the read latency of a follower database node
+    double weightOfLatestFollowerReadLatency = 0.2;
+    // The average read latency of a follower database node which is not read from halves over this time
+    long decayTimeOfFollowerReadLatencyMilliseconds = 1000;
+    // A read which the first follower database node has not answered within the percentile of the recent read
+    // latencies is sent to a second one as well
+    boolean isHedgedReadEnabled = false;
+    double percentileOfLatencyForHedgedReadDelay = 0.95;
+    long minimumHedgedReadDelayMicroseconds = 100;
+    int numberOfReadsInHedgedReadLatencyWindow = 10000;
+    int numberOfReadsBetweenHedgedReadDelayUpdates = 1000;
+    // Hedged reads are capped at this fraction of the reads, past the burst
+    double maximumFractionOfHedgedReads = 0.05;
+    int numberOfHedgedReadsAllowedInBurst = 10;
 }
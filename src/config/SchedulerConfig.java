@@ -0,0 +1,9 @@
+package config;
+
+public interface SchedulerConfig {
+    // Threads shared by the periodic tasks of every node, so the number of threads does not grow with the number of
+    // nodes. The heart beats and the checks of the inactive nodes only need a few.
+    int numberOfThreadsForPeriodicTasks = 2;
+    // For the tasks which block on the disk or on other nodes, like the replication streams, anti-entropy and checkpoints
+    int numberOfThreadsForBlockingTasks = 8;
+}
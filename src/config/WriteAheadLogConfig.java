@@ -0,0 +1,18 @@
+package config;
+
+import data.CommitPolicy;
+
+public interface WriteAheadLogConfig {
+    // When disabled, the write ahead log of the database nodes is only kept in memory
+    boolean isDurableWriteAheadLogEnabled = false;
+    String directory = "wal";
+    CommitPolicy commitPolicy = CommitPolicy.GROUP_COMMIT;
+    long segmentSizeBytes = 64L * 1024 * 1024;
+    // A writer syncing alone first waits up to the window for other writers to join its group, or until this many bytes
+    // are waiting to be synced. Writers arriving during a sync always share the next one, even without a window.
+    long groupCommitWindowMicroseconds = 0;
+    long groupCommitMaxBytes = 256 * 1024;
+    // A checkpoint is only taken after this many logs were added since the previous one. It truncates the logs which
+    // every database node of the root node has already received.
+    long numberOfLogsBetweenCheckpoints = 10000;
+}
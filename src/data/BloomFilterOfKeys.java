@@ -0,0 +1,70 @@
+package data;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter over the keys of a database node, so that a read of a key which was never written is answered without
+// looking up the data. Keys are only ever added, a deleted key stays until the filter is rebuilt from the live keys.
+// The bits of a key are derived from the cached hash code of the string, so checking a key does not hash it again.
+public class BloomFilterOfKeys {
+    private final AtomicLongArray bits;
+    private final int maskOfBits;
+    private final int numberOfHashes;
+    private final int expectedNumberOfKeys;
+    private final AtomicInteger numberOfAddedKeys = new AtomicInteger();
+
+    public BloomFilterOfKeys(int expectedNumberOfKeys, double falsePositiveRate) {
+        this.expectedNumberOfKeys = Math.max(1, expectedNumberOfKeys);
+        double optimalNumberOfBits = -this.expectedNumberOfKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        // Rounded up to a power of two, so that the position of a bit is a mask of the hash
+        int numberOfBits = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(64, optimalNumberOfBits)));
+        if (numberOfBits < optimalNumberOfBits) {
+            numberOfBits <<= 1;
+        }
+        this.maskOfBits = numberOfBits - 1;
+        this.bits = new AtomicLongArray(numberOfBits >>> 6);
+        this.numberOfHashes = Math.max(1, (int) Math.round(optimalNumberOfBits / this.expectedNumberOfKeys * Math.log(2)));
+    }
+
+    public void add(String key) {
+        long hash = getHash(key);
+        int firstHash = (int) hash;
+        int secondHash = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < numberOfHashes; i++) {
+            int positionOfBit = (firstHash + i * secondHash) & maskOfBits;
+            long maskOfBit = 1L << positionOfBit;
+            int indexOfWord = positionOfBit >>> 6;
+            if ((bits.get(indexOfWord) & maskOfBit) == 0) {
+                bits.accumulateAndGet(indexOfWord, maskOfBit, (first, second) -> first | second);
+            }
+        }
+        numberOfAddedKeys.incrementAndGet();
+    }
+
+    // False only when the key was never added
+    public boolean mightContain(String key) {
+        long hash = getHash(key);
+        int firstHash = (int) hash;
+        int secondHash = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < numberOfHashes; i++) {
+            int positionOfBit = (firstHash + i * secondHash) & maskOfBits;
+            if ((bits.get(positionOfBit >>> 6) & (1L << positionOfBit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // More keys were added than the filter is sized for, so the false positive rate is above the configured one
+    public boolean isFull() {
+        return numberOfAddedKeys.get() > expectedNumberOfKeys;
+    }
+
+    // Spreads the 32-bit hash code of the key over 64 bits
+    private static long getHash(String key) {
+        long hash = key.hashCode() * 0x9e3779b97f4a7c15L;
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
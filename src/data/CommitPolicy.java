@@ -0,0 +1,5 @@
+package data;
+
+public enum CommitPolicy {
+    PER_WRITE_FSYNC, GROUP_COMMIT, OS_BUFFERED
+}
@@ -0,0 +1,5 @@
+package data;
+
+public enum FollowerSelectionPolicy {
+    ROUND_ROBIN, POWER_OF_TWO_CHOICES
+}
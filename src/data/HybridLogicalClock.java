@@ -1,35 +1,74 @@
 package data;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
-public class HybridLogicalClock {
-    private final LocalDateTime physicalClock;
-    private BigInteger logicalClock;
+// The physical clock in microseconds since the epoch (UTC) and the logical clock are packed into a single long, the
+// physical clock in the upper 52 bits and the logical clock in the lower 12 bits. Comparing two clocks is an unsigned
+// comparison of two longs, since the physical clock reaches the sign bit in 2041, and incrementing the logical clock past
+// its maximum carries into the physical clock, which keeps the order. The clock is immutable, so the same instance can be
+// shared between the data, the logs and the replicas.
+// Equality is left as the identity, but the logs ordered by the clock keep a single operation per clock, so two
+// operations of the same database node must never share a clock.
+public final class HybridLogicalClock implements Comparable<HybridLogicalClock> {
+    public static final int numberOfBitsOfLogicalClock = 12;
+    public static final int maximumLogicalClock = (1 << numberOfBitsOfLogicalClock) - 1;
+    private static final long logicalClockMask = maximumLogicalClock;
+    private final long packedClock;
 
     public HybridLogicalClock(LocalDateTime physicalClock) {
-        this.physicalClock = physicalClock;
-        logicalClock = new BigInteger(String.valueOf(0));
+        this(physicalClock, 0);
     }
 
-    public HybridLogicalClock(LocalDateTime physicalClock, BigInteger logicalClock) {
-        this.physicalClock = physicalClock;
-        this.logicalClock = logicalClock;
+    public HybridLogicalClock(LocalDateTime physicalClock, int logicalClock) {
+        this((getMicroseconds(physicalClock) << numberOfBitsOfLogicalClock) + getCheckedLogicalClock(logicalClock));
+    }
+
+    private HybridLogicalClock(long packedClock) {
+        this.packedClock = packedClock;
+    }
+
+    public static HybridLogicalClock fromPackedClock(long packedClock) {
+        return new HybridLogicalClock(packedClock);
+    }
+
+    public long getPackedClock() {
+        return packedClock;
+    }
+
+    public long getPhysicalClockInMicroseconds() {
+        return packedClock >>> numberOfBitsOfLogicalClock;
     }
 
     public LocalDateTime getPhysicalClock() {
-        return physicalClock;
+        long microseconds = getPhysicalClockInMicroseconds();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(microseconds, 1_000_000L),
+                (int) Math.floorMod(microseconds, 1_000_000L) * 1000, ZoneOffset.UTC);
     }
 
-    public BigInteger getLogicalClock() {
-        return logicalClock;
+    public int getLogicalClock() {
+        return (int) (packedClock & logicalClockMask);
+    }
+
+    public HybridLogicalClock incrementLogicalClockByOne() {
+        return new HybridLogicalClock(packedClock + 1);
     }
 
-    public void incrementLogicalClockByOne() {
-        logicalClock = logicalClock.add(BigInteger.ONE);
+    @Override
+    public int compareTo(HybridLogicalClock hybridLogicalClock) {
+        return Long.compareUnsigned(packedClock, hybridLogicalClock.packedClock);
+    }
+
+    // A larger logical clock would carry into the physical clock
+    private static int getCheckedLogicalClock(int logicalClock) {
+        if (logicalClock < 0 || logicalClock > maximumLogicalClock) {
+            throw new IllegalArgumentException(String.format("The logical clock: %d is not in the range [0, %d]",
+                    logicalClock, maximumLogicalClock));
+        }
+        return logicalClock;
     }
 
-    public void setLogicalClock(BigInteger logicalClock) {
-        this.logicalClock = logicalClock;
+    private static long getMicroseconds(LocalDateTime physicalClock) {
+        return physicalClock.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + physicalClock.getNano() / 1000;
     }
 }
@@ -0,0 +1,55 @@
+package data;
+
+import config.DatabaseNodeConfig;
+import config.ProxyServerConfig;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// A two level hash tree over the data of a database node. Every leaf covers a range of positions in the consistent
+// hashing ring and is the XOR of the hashes of the keys and values in the range, so it is updated in place as keys are
+// written and deleted, in any order. The hybrid logical clocks are left out, the same data has the same hashes on every
+// database node even though the clocks of the replicas differ.
+public class MerkleTreeOfConsistentHashingRing {
+    private static final int numberOfRanges = (ProxyServerConfig.positionsInTheConsistentHashingRing +
+            DatabaseNodeConfig.numberOfPositionsPerAntiEntropyRange - 1) / DatabaseNodeConfig.numberOfPositionsPerAntiEntropyRange;
+    private final AtomicLongArray hashesOfRanges;
+
+    public MerkleTreeOfConsistentHashingRing() {
+        this.hashesOfRanges = new AtomicLongArray(numberOfRanges);
+    }
+
+    // Adding and removing the same hash are the same operation
+    public void updateHash(int positionInConsistentHashingRing, long hash) {
+        hashesOfRanges.accumulateAndGet(positionInConsistentHashingRing / DatabaseNodeConfig.numberOfPositionsPerAntiEntropyRange,
+                hash, (first, second) -> first ^ second);
+    }
+
+    public long[] getHashesOfRanges() {
+        long[] hashes = new long[numberOfRanges];
+        for (int i = 0; i < numberOfRanges; i++) {
+            hashes[i] = hashesOfRanges.get(i);
+        }
+        return hashes;
+    }
+
+    public long getRootHash() {
+        long rootHash = 0;
+        for (int i = 0; i < numberOfRanges; i++) {
+            rootHash = rootHash * 0x9e3779b97f4a7c15L + hashesOfRanges.get(i);
+        }
+        return rootHash;
+    }
+
+    public static int getNumberOfRanges() {
+        return numberOfRanges;
+    }
+
+    public static int getStartingPositionOfRange(int range) {
+        return range * DatabaseNodeConfig.numberOfPositionsPerAntiEntropyRange;
+    }
+
+    public static int getEndingPositionOfRange(int range) {
+        return Math.min((range + 1) * DatabaseNodeConfig.numberOfPositionsPerAntiEntropyRange,
+                ProxyServerConfig.positionsInTheConsistentHashingRing) - 1;
+    }
+}
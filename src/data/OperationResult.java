@@ -0,0 +1,39 @@
+package data;
+
+// Outcome of a single key of a request, returned in place of an exception for the expected failures. The value is only
+// set for a successful read, the hybrid logical clock for a successful read, write or delete.
+public class OperationResult {
+    private final OperationStatus operationStatus;
+    private final String value;
+    private final HybridLogicalClock hybridLogicalClock;
+
+    public OperationResult(OperationStatus operationStatus) {
+        this(operationStatus, null, null);
+    }
+
+    public OperationResult(OperationStatus operationStatus, String value) {
+        this(operationStatus, value, null);
+    }
+
+    public OperationResult(OperationStatus operationStatus, String value, HybridLogicalClock hybridLogicalClock) {
+        this.operationStatus = operationStatus;
+        this.value = value;
+        this.hybridLogicalClock = hybridLogicalClock;
+    }
+
+    public OperationStatus getOperationStatus() {
+        return operationStatus;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public HybridLogicalClock getHybridLogicalClock() {
+        return hybridLogicalClock;
+    }
+
+    public boolean isSuccess() {
+        return operationStatus == OperationStatus.SUCCESS;
+    }
+}
@@ -0,0 +1,9 @@
+package data;
+
+// DATABASE_NODE_INACTIVE and NOT_LEADER are the outcomes of a single database node, the root node passes them on and
+// the proxy server reports them as SHARD_UNAVAILABLE. REPLICATION_BACKLOG_FULL is a write which was not applied, since
+// the replication to the replica root nodes is too far behind.
+public enum OperationStatus {
+    SUCCESS, DATA_NOT_FOUND, SHARD_UNAVAILABLE, ROOT_NODE_DOWN, ALL_SHARDS_UNAVAILABLE, DATABASE_NODE_INACTIVE, NOT_LEADER,
+    REPLICATION_BACKLOG_FULL
+}
@@ -0,0 +1,5 @@
+package data;
+
+public enum RingHashAlgorithm {
+    MURMUR3, SHA256
+}
@@ -0,0 +1,80 @@
+package data;
+
+import node.rootNode.BasicRootNodeAccess;
+
+import java.util.*;
+
+// Immutable snapshot of the consistent hashing ring. Every position in the ring is resolved up front to the root node
+// owning it and to the root nodes the updates are replicated to, so a lookup is a single array access. A new snapshot
+// is built only when a root node joins or leaves the ring.
+public class RoutingTable {
+    private final long version;
+    private final NavigableMap<Integer, BasicRootNodeAccess> consistentHashingRootNode;
+    private final BasicRootNodeAccess[] rootNodeOfPosition;
+    private final List<List<BasicRootNodeAccess>> replicaRootNodesOfPosition;
+
+    public RoutingTable(long version, TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNode,
+                        int positionsInTheConsistentHashingRing, int replicationFactor) {
+        this.version = version;
+        this.consistentHashingRootNode = Collections.unmodifiableNavigableMap(new TreeMap<>(consistentHashingRootNode));
+        this.rootNodeOfPosition = new BasicRootNodeAccess[positionsInTheConsistentHashingRing];
+        this.replicaRootNodesOfPosition = new ArrayList<>(positionsInTheConsistentHashingRing);
+
+        if (consistentHashingRootNode.isEmpty()) {
+            for (int position = 0; position < positionsInTheConsistentHashingRing; position++) {
+                replicaRootNodesOfPosition.add(List.of());
+            }
+            return;
+        }
+        // All the positions up to a root node share the same owner and replicas, so they are computed once per root node
+        Map<Integer, List<BasicRootNodeAccess>> replicaRootNodesOfRootNodePosition = new HashMap<>();
+        for (int position = 0; position < positionsInTheConsistentHashingRing; position++) {
+            Map.Entry<Integer, BasicRootNodeAccess> nextRootNodeEntry = this.consistentHashingRootNode.higherEntry(position);
+            // The positions after the last root node wrap around the ring, they are grouped under -1
+            int nextRootNodePosition = -1;
+            if (nextRootNodeEntry == null) {
+                nextRootNodeEntry = this.consistentHashingRootNode.firstEntry();
+            } else {
+                nextRootNodePosition = nextRootNodeEntry.getKey();
+            }
+            rootNodeOfPosition[position] = nextRootNodeEntry.getValue();
+            int currentPosition = position;
+            replicaRootNodesOfPosition.add(replicaRootNodesOfRootNodePosition.computeIfAbsent(nextRootNodePosition,
+                    ignored -> computeReplicaRootNodes(currentPosition, replicationFactor)));
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return consistentHashingRootNode.isEmpty();
+    }
+
+    public BasicRootNodeAccess getRootNode(int positionInConsistentHashingRing) {
+        return rootNodeOfPosition[positionInConsistentHashingRing];
+    }
+
+    public List<BasicRootNodeAccess> getReplicaRootNodes(int positionInConsistentHashingRing) {
+        return replicaRootNodesOfPosition.get(positionInConsistentHashingRing);
+    }
+
+    public NavigableMap<Integer, BasicRootNodeAccess> getConsistentHashingRootNode() {
+        return consistentHashingRootNode;
+    }
+
+    // Walks the ring clockwise from the position, skipping the virtual nodes of the root nodes already picked
+    private List<BasicRootNodeAccess> computeReplicaRootNodes(int positionInConsistentHashingRing, int replicationFactor) {
+        LinkedHashSet<BasicRootNodeAccess> rootNodes = new LinkedHashSet<>();
+        for (var rootNode : consistentHashingRootNode.tailMap(positionInConsistentHashingRing, false).values()) {
+            if (rootNodes.size() >= replicationFactor) break;
+            rootNodes.add(rootNode);
+        }
+        for (var rootNode : consistentHashingRootNode.values()) {
+            if (rootNodes.size() >= replicationFactor) break;
+            rootNodes.add(rootNode);
+        }
+        return List.copyOf(rootNodes);
+    }
+}
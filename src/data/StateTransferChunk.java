@@ -0,0 +1,32 @@
+package data;
+
+import data.operationDetails.OperationDetails;
+
+import java.util.HashMap;
+
+// A part of the live keys of a range, as update logs. The next position is where the following chunk starts, or -1
+// once the range is complete. The hybrid logical clock is the maximum one of the source when the chunk was read.
+public class StateTransferChunk {
+    private final HybridLogicalClock hybridLogicalClock;
+    private final HashMap<HybridLogicalClock, OperationDetails> logs;
+    private final int nextPositionInConsistentHashingRing;
+
+    public StateTransferChunk(HybridLogicalClock hybridLogicalClock, HashMap<HybridLogicalClock, OperationDetails> logs,
+                              int nextPositionInConsistentHashingRing) {
+        this.hybridLogicalClock = hybridLogicalClock;
+        this.logs = logs;
+        this.nextPositionInConsistentHashingRing = nextPositionInConsistentHashingRing;
+    }
+
+    public HybridLogicalClock getHybridLogicalClock() {
+        return hybridLogicalClock;
+    }
+
+    public HashMap<HybridLogicalClock, OperationDetails> getLogs() {
+        return logs;
+    }
+
+    public int getNextPositionInConsistentHashingRing() {
+        return nextPositionInConsistentHashingRing;
+    }
+}
@@ -1,10 +1,10 @@
 package data;
 
-import java.math.BigInteger;
-
+// Immutable, a write replaces the whole value so that a reader never sees the value of one write with the hybrid
+// logical clock of another
 public class Value {
-    private HybridLogicalClock hybridLogicalClock;
-    private String value;
+    private final HybridLogicalClock hybridLogicalClock;
+    private final String value;
 
     public Value(HybridLogicalClock hybridLogicalClock, String value) {
         this.hybridLogicalClock = hybridLogicalClock;
@@ -18,12 +18,4 @@ public class Value {
     public String getValue() {
         return value;
     }
-
-    public void setHybridLogicalClock(HybridLogicalClock hybridLogicalClock) {
-        this.hybridLogicalClock = hybridLogicalClock;
-    }
-
-    public void setValue(String value) {
-        this.value = value;
-    }
 }
@@ -1,10 +1,13 @@
 package data.operationDetails;
 
 import data.OperationType;
+import util.HashingHelper;
 
 public class OperationDetails {
     private final OperationType operationType;
     private final String key;
+    // Computed on the first use and kept with the record, -1 until then
+    private int positionInConsistentHashingRing = -1;
 
     public OperationDetails(OperationType operationType, String key) {
         this.operationType = operationType;
@@ -18,4 +21,11 @@ public class OperationDetails {
     public String getKey() {
         return this.key;
     }
+
+    public int getPositionInConsistentHashingRing() {
+        if (positionInConsistentHashingRing < 0) {
+            positionInConsistentHashingRing = HashingHelper.hash(key);
+        }
+        return positionInConsistentHashingRing;
+    }
 }
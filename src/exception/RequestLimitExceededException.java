@@ -0,0 +1,7 @@
+package exception;
+
+public class RequestLimitExceededException extends RuntimeException {
+    public RequestLimitExceededException(String message) {
+        super(message);
+    }
+}
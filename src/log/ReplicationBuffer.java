@@ -0,0 +1,72 @@
+package log;
+
+import data.HybridLogicalClock;
+import data.OperationType;
+import data.operationDetails.DeleteOperationDetails;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
+import util.HybridLogicalClockComparator;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Logs of the leader waiting to be shipped to the followers. The concurrent writers append to a lock-free queue and
+// every log gets the next sequence number. A single shipper takes the logs from the cursor onward, ordered by the
+// hybrid logical clock, and moves the cursor only once they are shipped. Until then the same logs are taken again, so
+// a failed shipment is retried instead of lost.
+public class ReplicationBuffer {
+    private final ConcurrentLinkedQueue<Map.Entry<HybridLogicalClock, OperationDetails>> appendedLogs;
+    private final AtomicLong appendedSequenceNumber;
+    // Taken from the queue and not shipped yet, only used by the shipper
+    private final List<Map.Entry<HybridLogicalClock, OperationDetails>> takenLogs;
+    private volatile long shippedSequenceNumber;
+
+    public ReplicationBuffer() {
+        appendedLogs = new ConcurrentLinkedQueue<>();
+        appendedSequenceNumber = new AtomicLong();
+        takenLogs = new ArrayList<>();
+    }
+
+    public long addUpdateLog(HybridLogicalClock hybridLogicalClock, String key, String value) {
+        return addLog(hybridLogicalClock, new UpdateOperationDetails(OperationType.UPDATE, key, value));
+    }
+
+    public long addDeleteLog(HybridLogicalClock hybridLogicalClock, String key) {
+        return addLog(hybridLogicalClock, new DeleteOperationDetails(OperationType.DELETE, key));
+    }
+
+    public long addLog(HybridLogicalClock hybridLogicalClock, OperationDetails operationDetails) {
+        appendedLogs.offer(new AbstractMap.SimpleImmutableEntry<>(hybridLogicalClock, operationDetails));
+        return appendedSequenceNumber.incrementAndGet();
+    }
+
+    // Up to the given number of logs after the cursor, in the order of their hybrid logical clocks. Empty once every
+    // appended log is shipped.
+    public LinkedHashMap<HybridLogicalClock, OperationDetails> getLogsAfterCursor(int maximumNumberOfLogs) {
+        Map.Entry<HybridLogicalClock, OperationDetails> log;
+        while (takenLogs.size() < maximumNumberOfLogs && (log = appendedLogs.poll()) != null) {
+            takenLogs.add(log);
+        }
+        takenLogs.sort(Map.Entry.comparingByKey(HybridLogicalClockComparator.getHybridLogicalClock()));
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logs = new LinkedHashMap<>();
+        for (var entry : takenLogs) {
+            logs.put(entry.getKey(), entry.getValue());
+        }
+        return logs;
+    }
+
+    // Moves the cursor past the logs returned by the last call to getLogsAfterCursor
+    public void acknowledgeLogsAfterCursor() {
+        shippedSequenceNumber += takenLogs.size();
+        takenLogs.clear();
+    }
+
+    public long getNumberOfLogsToShip() {
+        return appendedSequenceNumber.get() - shippedSequenceNumber;
+    }
+}
@@ -5,86 +5,315 @@ import data.OperationType;
 import data.operationDetails.DeleteOperationDetails;
 import data.operationDetails.OperationDetails;
 import data.operationDetails.UpdateOperationDetails;
-import util.HashingHelper;
+import util.HybridLogicalClockComparator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static config.ProxyServerConfig.positionsInTheConsistentHashingRing;
 
 public class WriteAheadLog {
+    private static final Comparator<HybridLogicalClock> hybridLogicalClockComparator =
+            HybridLogicalClockComparator.getHybridLogicalClock();
+    // Below this share of the log, the logs of a range are merged from the index instead of walking the whole log
+    private static final int ratioOfLogSizeToRangeSizeForMerging = 16;
+
     private final TreeMap<HybridLogicalClock, OperationDetails> log;
+    // Secondary index of the log by the ring position of the key, null for the positions without any log
+    private final List<TreeMap<HybridLogicalClock, OperationDetails>> logsOfPositionInConsistentHashingRing;
+    private final WriteAheadLogFile writeAheadLogFile;
+    // Maximum hybrid logical clock among the truncated logs, the logs after it are all retained
+    private HybridLogicalClock maximumTruncatedHybridLogicalClock;
+    private long numberOfLogsAddedSinceCheckpoint;
+    private WriteAheadLogCheckpoint recoveredCheckpoint;
+    // Serializes the appends of concurrent writers with each other and with the reads of the log, waiting for the
+    // appends to be durable happens outside of it
+    private final Object lock = new Object();
 
     public WriteAheadLog() {
-        log = new TreeMap<>((firstHybridLogicalClock, secondHybridLogicalClock) -> {
-            if (!firstHybridLogicalClock.getPhysicalClock().isEqual(secondHybridLogicalClock.getPhysicalClock())) {
-                return firstHybridLogicalClock.getPhysicalClock().compareTo(secondHybridLogicalClock.getPhysicalClock());
+        this(null);
+    }
+
+    // With a write ahead log file, the log is recovered from the file and every appended record is written to it
+    public WriteAheadLog(WriteAheadLogFile writeAheadLogFile) {
+        this.writeAheadLogFile = writeAheadLogFile;
+        log = new TreeMap<>(hybridLogicalClockComparator);
+        logsOfPositionInConsistentHashingRing = new ArrayList<>(
+                Collections.nCopies(positionsInTheConsistentHashingRing, null));
+        if (writeAheadLogFile != null) {
+            recoveredCheckpoint = writeAheadLogFile.recover(this::putLog);
+            if (recoveredCheckpoint != null) {
+                // The logs covered by the checkpoint are not recovered
+                maximumTruncatedHybridLogicalClock = recoveredCheckpoint.getHybridLogicalClock();
+            }
+        }
+    }
+
+    // Returns the sequence number to pass to sync, for waiting until the record is durable
+    public long addUpdateLog(HybridLogicalClock hybridLogicalClock, String key, String value) {
+        return addLog(hybridLogicalClock, new UpdateOperationDetails(OperationType.UPDATE, key, value));
+    }
+
+    public long addDeleteLog(HybridLogicalClock hybridLogicalClock, String key) {
+        return addLog(hybridLogicalClock, new DeleteOperationDetails(OperationType.DELETE, key));
+    }
+
+    // Appends the logs of a batch to the file with a single write, returns the sequence number of the last one
+    public long addLogs(List<Map.Entry<HybridLogicalClock, OperationDetails>> logs) {
+        synchronized (lock) {
+            long sequenceNumber = 0;
+            if (writeAheadLogFile != null && !logs.isEmpty()) {
+                sequenceNumber = writeAheadLogFile.appendAll(logs);
             }
-            return firstHybridLogicalClock.getLogicalClock().compareTo(secondHybridLogicalClock.getLogicalClock());
-        });
+            for (var entry : logs) {
+                putLog(entry.getKey(), entry.getValue());
+            }
+            numberOfLogsAddedSinceCheckpoint += logs.size();
+            return sequenceNumber;
+        }
     }
 
-    public void addUpdateLog(HybridLogicalClock hybridLogicalClock, String key, String value) {
-        log.put(hybridLogicalClock, new UpdateOperationDetails(OperationType.UPDATE, key, value));
+    public void sync(long sequenceNumber) {
+        if (writeAheadLogFile != null) {
+            writeAheadLogFile.sync(sequenceNumber);
+        }
+    }
+
+    public boolean isEmpty() {
+        synchronized (lock) {
+            return log.isEmpty();
+        }
     }
 
-    public void addDeleteLog(HybridLogicalClock hybridLogicalClock, String key) {
-        log.put(hybridLogicalClock, new DeleteOperationDetails(OperationType.DELETE, key));
+    public long getNumberOfLogsAddedSinceCheckpoint() {
+        synchronized (lock) {
+            return numberOfLogsAddedSinceCheckpoint;
+        }
+    }
+
+    // Hands over the live keys of the recovered checkpoint once, they are not kept afterward
+    public void replayRecoveredCheckpoint(BiConsumer<HybridLogicalClock, OperationDetails> consumer) {
+        if (recoveredCheckpoint == null) {
+            return;
+        }
+        recoveredCheckpoint.getLogsOfLiveKeys().forEach(entry -> consumer.accept(entry.getKey(), entry.getValue()));
+        recoveredCheckpoint = null;
+    }
+
+    // Only a durable write ahead log needs the live keys, since an in memory log can always be rebuilt from the data of
+    // the database node. The caller has to keep the writers out until the live keys are supplied, and the returned
+    // checkpoint is written with writeCheckpoint.
+    public WriteAheadLogCheckpoint createCheckpoint(
+            Supplier<List<Map.Entry<HybridLogicalClock, OperationDetails>>> logsOfLiveKeysSupplier) {
+        synchronized (lock) {
+            numberOfLogsAddedSinceCheckpoint = 0;
+            if (writeAheadLogFile == null) {
+                return null;
+            }
+            return new WriteAheadLogCheckpoint(writeAheadLogFile.getWrittenSequenceNumber(), getMaximumHybridLogicalClock(),
+                    logsOfLiveKeysSupplier.get());
+        }
+    }
+
+    public void writeCheckpoint(WriteAheadLogCheckpoint checkpoint) {
+        if (writeAheadLogFile != null && checkpoint != null) {
+            writeAheadLogFile.writeCheckpoint(checkpoint);
+        }
+    }
+
+    // Removes the logs before the given hybrid logical clock from memory
+    public void truncateBefore(HybridLogicalClock hybridLogicalClock) {
+        synchronized (lock) {
+            var logsToTruncate = log.headMap(hybridLogicalClock, false);
+            if (logsToTruncate.isEmpty()) {
+                return;
+            }
+            HybridLogicalClock maximumHybridLogicalClockToTruncate = logsToTruncate.lastKey();
+            for (var entry : logsToTruncate.entrySet()) {
+                logsOfPositionInConsistentHashingRing.get(entry.getValue().getPositionInConsistentHashingRing())
+                        .remove(entry.getKey());
+            }
+            logsToTruncate.clear();
+            if (maximumTruncatedHybridLogicalClock == null ||
+                    hybridLogicalClockComparator.compare(maximumHybridLogicalClockToTruncate, maximumTruncatedHybridLogicalClock) > 0) {
+                maximumTruncatedHybridLogicalClock = maximumHybridLogicalClockToTruncate;
+            }
+        }
+    }
+
+    // Whether every log after the given hybrid logical clock is still in the log, null checks for the whole log
+    public boolean isRetainedAfter(HybridLogicalClock hybridLogicalClock) {
+        synchronized (lock) {
+            if (maximumTruncatedHybridLogicalClock == null) {
+                return true;
+            }
+            return hybridLogicalClock != null &&
+                    hybridLogicalClockComparator.compare(hybridLogicalClock, maximumTruncatedHybridLogicalClock) >= 0;
+        }
+    }
+
+    // Iterates over the log in the order of the hybrid logical clock
+    public void forEach(BiConsumer<HybridLogicalClock, OperationDetails> consumer) {
+        synchronized (lock) {
+            log.forEach(consumer);
+        }
     }
 
     public HybridLogicalClock getMaximumHybridLogicalClock() {
-        if (log.isEmpty()) {
-            return null;
+        synchronized (lock) {
+            if (log.isEmpty()) {
+                return maximumTruncatedHybridLogicalClock;
+            }
+            if (maximumTruncatedHybridLogicalClock != null &&
+                    hybridLogicalClockComparator.compare(maximumTruncatedHybridLogicalClock, log.lastKey()) > 0) {
+                return maximumTruncatedHybridLogicalClock;
+            }
+            return log.lastKey();
         }
-        return log.lastKey();
     }
 
     public HashMap<HybridLogicalClock, OperationDetails> getLogsAfterTheGivenTimestamp(HybridLogicalClock hybridLogicalClock) {
-        return new HashMap<>(log.tailMap(hybridLogicalClock));
+        synchronized (lock) {
+            return new HashMap<>(log.tailMap(hybridLogicalClock));
+        }
     }
 
+    // The logs in range are returned in the order of the hybrid logical clock, both ends of a range are inclusive
     public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
             int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing
     ) {
-        HashMap<HybridLogicalClock, OperationDetails> logsInRange = new HashMap<>();
-        for (var entry : log.entrySet()) {
-            HybridLogicalClock hybridLogicalClock = entry.getKey();
-            OperationDetails operationDetails = entry.getValue();
-            String key = operationDetails.getKey();
-            int positionInConsistentHashingRing = HashingHelper.hash(key);
-            if (checkIfInRange(positionInConsistentHashingRing, startingPositionInConsistentHashingRing,
-                    endingPositionInConsistentHashingRing)) {
-                logsInRange.put(hybridLogicalClock, operationDetails);
-            }
+        synchronized (lock) {
+            return getLogsInRangesOfConsistentHashingPosition(startingPositionInConsistentHashingRing,
+                    endingPositionInConsistentHashingRing);
         }
-        return logsInRange;
     }
 
     public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
             int startingPositonInConsistentHashingRing, int intermediateEndingPositonInConsistentHashingRing,
             int intermediateStartingPositionInConsistentHashingRing, int endingPositionInConsistentHashing
     ) {
-        HashMap<HybridLogicalClock, OperationDetails> logsInRange = new HashMap<>();
-        for (var entry : log.entrySet()) {
-            HybridLogicalClock hybridLogicalClock = entry.getKey();
-            OperationDetails operationDetails = entry.getValue();
-            String key = operationDetails.getKey();
-            int positionInConsistentHashingRing = HashingHelper.hash(key);
-            if (checkIfInRange(positionInConsistentHashingRing, startingPositonInConsistentHashingRing,
-                    intermediateEndingPositonInConsistentHashingRing) ||
-            checkIfInRange(positionInConsistentHashingRing, intermediateStartingPositionInConsistentHashingRing,
-                    endingPositionInConsistentHashing)) {
-                logsInRange.put(hybridLogicalClock, operationDetails);
+        synchronized (lock) {
+            return getLogsInRangesOfConsistentHashingPosition(startingPositonInConsistentHashingRing,
+                    intermediateEndingPositonInConsistentHashingRing, intermediateStartingPositionInConsistentHashingRing,
+                    endingPositionInConsistentHashing);
+        }
+    }
+
+    // The logs in range written after the given hybrid logical clock, in the order of the hybrid logical clock. Only the
+    // logs of the positions in range are visited.
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+            int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing,
+            HybridLogicalClock hybridLogicalClock
+    ) {
+        synchronized (lock) {
+            if (hybridLogicalClock == null) {
+                return getLogsInRangeOfConsistentHashingPosition(startingPositionInConsistentHashingRing,
+                        endingPositionInConsistentHashingRing);
+            }
+            List<Map.Entry<HybridLogicalClock, OperationDetails>> entries = new ArrayList<>();
+            int start = Math.max(startingPositionInConsistentHashingRing, 0);
+            int end = Math.min(endingPositionInConsistentHashingRing, positionsInTheConsistentHashingRing - 1);
+            for (int position = start; position <= end; position++) {
+                TreeMap<HybridLogicalClock, OperationDetails> logsOfPosition = logsOfPositionInConsistentHashingRing.get(position);
+                if (logsOfPosition != null) {
+                    entries.addAll(logsOfPosition.tailMap(hybridLogicalClock, false).entrySet());
+                }
             }
+            return getLogsInHybridLogicalClockOrder(entries);
         }
-        return logsInRange;
     }
 
-    public HashMap<HybridLogicalClock, OperationDetails> getLogs() {
-        return new HashMap<>(log);
+    private long addLog(HybridLogicalClock hybridLogicalClock, OperationDetails operationDetails) {
+        synchronized (lock) {
+            long sequenceNumber = 0;
+            if (writeAheadLogFile != null) {
+                sequenceNumber = writeAheadLogFile.append(hybridLogicalClock, operationDetails);
+            }
+            putLog(hybridLogicalClock, operationDetails);
+            numberOfLogsAddedSinceCheckpoint++;
+            return sequenceNumber;
+        }
     }
 
-    private boolean checkIfInRange(int positionInConsistentHashingRing, int startingPositionInConsistentHashingRing,
-                                   int endingPositionInConsistentHashingRing) {
-        return (positionInConsistentHashingRing >= startingPositionInConsistentHashingRing &&
-                positionInConsistentHashingRing <= endingPositionInConsistentHashingRing);
+    private void putLog(HybridLogicalClock hybridLogicalClock, OperationDetails operationDetails) {
+        OperationDetails previousOperationDetails = log.put(hybridLogicalClock, operationDetails);
+        if (previousOperationDetails != null) {
+            // Two keys written with the same hybrid logical clock, the log only keeps the latest one
+            TreeMap<HybridLogicalClock, OperationDetails> logsOfPreviousPosition =
+                    logsOfPositionInConsistentHashingRing.get(previousOperationDetails.getPositionInConsistentHashingRing());
+            logsOfPreviousPosition.remove(hybridLogicalClock);
+        }
+        int positionInConsistentHashingRing = operationDetails.getPositionInConsistentHashingRing();
+        TreeMap<HybridLogicalClock, OperationDetails> logsOfPosition =
+                logsOfPositionInConsistentHashingRing.get(positionInConsistentHashingRing);
+        if (logsOfPosition == null) {
+            logsOfPosition = new TreeMap<>(hybridLogicalClockComparator);
+            logsOfPositionInConsistentHashingRing.set(positionInConsistentHashingRing, logsOfPosition);
+        }
+        logsOfPosition.put(hybridLogicalClock, operationDetails);
+    }
+
+    // Takes pairs of starting and ending positions. A range holding a small part of the log merges the logs of its
+    // positions, otherwise walking the whole log in order and checking the position kept with each record is cheaper
+    // than merging.
+    private LinkedHashMap<HybridLogicalClock, OperationDetails> getLogsInRangesOfConsistentHashingPosition(
+            int... startingAndEndingPositionsInConsistentHashingRing) {
+        boolean[] isPositionInRange = new boolean[positionsInTheConsistentHashingRing];
+        List<TreeMap<HybridLogicalClock, OperationDetails>> logsOfPositions = new ArrayList<>();
+        int numberOfLogsInRange = 0;
+        for (int i = 0; i + 1 < startingAndEndingPositionsInConsistentHashingRing.length; i += 2) {
+            int start = Math.max(startingAndEndingPositionsInConsistentHashingRing[i], 0);
+            int end = Math.min(startingAndEndingPositionsInConsistentHashingRing[i + 1],
+                    positionsInTheConsistentHashingRing - 1);
+            for (int position = start; position <= end; position++) {
+                if (isPositionInRange[position]) {
+                    continue;
+                }
+                isPositionInRange[position] = true;
+                TreeMap<HybridLogicalClock, OperationDetails> logsOfPosition = logsOfPositionInConsistentHashingRing.get(position);
+                if (logsOfPosition == null || logsOfPosition.isEmpty()) {
+                    continue;
+                }
+                logsOfPositions.add(logsOfPosition);
+                numberOfLogsInRange += logsOfPosition.size();
+            }
+        }
+
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logsInRange = new LinkedHashMap<>(
+                (int) (numberOfLogsInRange / 0.75f) + 1);
+        if (logsOfPositions.size() == 1) {
+            logsInRange.putAll(logsOfPositions.get(0));
+        } else if ((long) numberOfLogsInRange * ratioOfLogSizeToRangeSizeForMerging < log.size()) {
+            List<Map.Entry<HybridLogicalClock, OperationDetails>> entries = new ArrayList<>(numberOfLogsInRange);
+            for (TreeMap<HybridLogicalClock, OperationDetails> logsOfPosition : logsOfPositions) {
+                entries.addAll(logsOfPosition.entrySet());
+            }
+            return getLogsInHybridLogicalClockOrder(entries);
+        } else if (numberOfLogsInRange > 0) {
+            for (Map.Entry<HybridLogicalClock, OperationDetails> entry : log.entrySet()) {
+                if (isPositionInRange[entry.getValue().getPositionInConsistentHashingRing()]) {
+                    logsInRange.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return logsInRange;
+    }
+
+    private LinkedHashMap<HybridLogicalClock, OperationDetails> getLogsInHybridLogicalClockOrder(
+            List<Map.Entry<HybridLogicalClock, OperationDetails>> entries) {
+        entries.sort(Map.Entry.comparingByKey(hybridLogicalClockComparator));
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logs = new LinkedHashMap<>((int) (entries.size() / 0.75f) + 1);
+        for (Map.Entry<HybridLogicalClock, OperationDetails> entry : entries) {
+            logs.put(entry.getKey(), entry.getValue());
+        }
+        return logs;
     }
 }
@@ -0,0 +1,34 @@
+package log;
+
+import data.HybridLogicalClock;
+import data.operationDetails.OperationDetails;
+
+import java.util.List;
+import java.util.Map;
+
+// The live keys of a database node as update logs. It covers every record of the write ahead log file up to the
+// sequence number, and the hybrid logical clock is the maximum one of the write ahead log when it was taken.
+public class WriteAheadLogCheckpoint {
+    private final long sequenceNumber;
+    private final HybridLogicalClock hybridLogicalClock;
+    private final List<Map.Entry<HybridLogicalClock, OperationDetails>> logsOfLiveKeys;
+
+    public WriteAheadLogCheckpoint(long sequenceNumber, HybridLogicalClock hybridLogicalClock,
+                                   List<Map.Entry<HybridLogicalClock, OperationDetails>> logsOfLiveKeys) {
+        this.sequenceNumber = sequenceNumber;
+        this.hybridLogicalClock = hybridLogicalClock;
+        this.logsOfLiveKeys = logsOfLiveKeys;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public HybridLogicalClock getHybridLogicalClock() {
+        return hybridLogicalClock;
+    }
+
+    public List<Map.Entry<HybridLogicalClock, OperationDetails>> getLogsOfLiveKeys() {
+        return logsOfLiveKeys;
+    }
+}
@@ -0,0 +1,457 @@
+package log;
+
+import data.CommitPolicy;
+import data.HybridLogicalClock;
+import data.operationDetails.OperationDetails;
+import exception.WriteAheadLogException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+// Durable part of the write ahead log, made of rolling segment files. Every appended record gets a sequence number,
+// and a writer waits for its sequence number to be synced according to the commit policy:
+// - PER_WRITE_FSYNC syncs every record while appending it.
+// - GROUP_COMMIT lets the first waiting writer sync once for every writer that appended within the group commit window.
+// - OS_BUFFERED never syncs and leaves the flushing to the operating system.
+// A checkpoint file holds the live keys up to a sequence number, the segments covered by it are deleted.
+public class WriteAheadLogFile {
+    private static final int segmentMagic = 0x57414c53;
+    private static final int checkpointMagic = 0x57414c43;
+    // Version 2 stores the hybrid logical clock as a single packed long
+    private static final int formatVersion = 2;
+    private static final int segmentHeaderSize = 8;
+    private static final int maximumRecordSize = 64 * 1024 * 1024;
+    private static final String segmentFilePrefix = "segment-";
+    private static final String segmentFileSuffix = ".log";
+    private static final String checkpointFileName = "checkpoint.snapshot";
+    private static final String temporaryCheckpointFileName = "checkpoint.snapshot.tmp";
+
+    private final Path directory;
+    private final CommitPolicy commitPolicy;
+    private final long segmentSizeBytes;
+    private final long groupCommitWindowNanoseconds;
+    private final long groupCommitMaxBytes;
+
+    private final Object appendLock = new Object();
+    private final Object checkpointLock = new Object();
+    // Held for reading while syncing the current segment, and for writing while rolling over to a new segment
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncCompleted = syncLock.newCondition();
+    private final Condition groupCommitFilled = syncLock.newCondition();
+
+    private FileChannel currentSegment;
+    private long currentSegmentFirstSequenceNumber;
+    private long currentSegmentSize;
+    private volatile long writtenSequenceNumber;
+    private volatile long writtenBytes;
+    private volatile long syncedBytes;
+    // Syncs of the segments, the syncs of the checkpoint and of the directory are not counted
+    private final AtomicLong numberOfSyncs = new AtomicLong();
+    private long syncedSequenceNumber;
+    private boolean isSyncInProgress;
+
+    public WriteAheadLogFile(Path directory, CommitPolicy commitPolicy, long segmentSizeBytes,
+                             long groupCommitWindowMicroseconds, long groupCommitMaxBytes) {
+        this.directory = directory;
+        this.commitPolicy = commitPolicy;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.groupCommitWindowNanoseconds = TimeUnit.MICROSECONDS.toNanos(groupCommitWindowMicroseconds);
+        this.groupCommitMaxBytes = groupCommitMaxBytes;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new WriteAheadLogException(String.format("Unable to create the write ahead log directory: %s", directory), e);
+        }
+    }
+
+    // Replays every valid record of the existing segments after the checkpoint, and opens a new segment for the appends.
+    // A torn or corrupted record ends its segment, the rest of that segment is truncated. Returns the recovered
+    // checkpoint, or null when there is none.
+    public WriteAheadLogCheckpoint recover(BiConsumer<HybridLogicalClock, OperationDetails> consumer) {
+        synchronized (appendLock) {
+            try {
+                WriteAheadLogCheckpoint checkpoint = recoverCheckpoint();
+                long checkpointSequenceNumber = checkpoint == null ? 0 : checkpoint.getSequenceNumber();
+                long lastSequenceNumber = checkpointSequenceNumber;
+                List<Path> segments = listSegments();
+                for (int i = 0; i < segments.size(); i++) {
+                    Path segment = segments.get(i);
+                    long firstSequenceNumber = getFirstSequenceNumber(segment);
+                    long numberOfRecords = recoverSegment(segment, firstSequenceNumber, checkpointSequenceNumber,
+                            i == segments.size() - 1, consumer);
+                    if (numberOfRecords == 0) {
+                        Files.delete(segment);
+                        continue;
+                    }
+                    lastSequenceNumber = Math.max(lastSequenceNumber, firstSequenceNumber + numberOfRecords - 1);
+                }
+                writtenSequenceNumber = lastSequenceNumber;
+                syncedSequenceNumber = lastSequenceNumber;
+                openSegment(lastSequenceNumber + 1);
+                return checkpoint;
+            } catch (IOException e) {
+                throw new WriteAheadLogException(String.format("Unable to recover the write ahead log: %s", directory), e);
+            }
+        }
+    }
+
+    // Writes the checkpoint next to the segments and replaces the previous one, then deletes the segments whose
+    // records are all covered by it
+    public void writeCheckpoint(WriteAheadLogCheckpoint checkpoint) {
+        synchronized (checkpointLock) {
+            Path temporaryCheckpointFile = directory.resolve(temporaryCheckpointFileName);
+            try {
+                try (FileChannel fileChannel = FileChannel.open(temporaryCheckpointFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    writeFully(fileChannel, encodeCheckpointHeader(checkpoint));
+                    for (var entry : checkpoint.getLogsOfLiveKeys()) {
+                        writeFully(fileChannel, WriteAheadLogRecordCodec.encode(entry.getKey(), entry.getValue()));
+                    }
+                    fileChannel.force(false);
+                }
+                Files.move(temporaryCheckpointFile, directory.resolve(checkpointFileName),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                // The rename has to be durable before the segments covered by the checkpoint are deleted
+                forceDirectory();
+                deleteSegmentsCoveredByCheckpoint(checkpoint.getSequenceNumber());
+            } catch (IOException e) {
+                throw new WriteAheadLogException(String.format("Unable to write the checkpoint of the write ahead log: %s",
+                        directory), e);
+            }
+        }
+    }
+
+    public long append(HybridLogicalClock hybridLogicalClock, OperationDetails operationDetails) {
+        ByteBuffer record = WriteAheadLogRecordCodec.encode(hybridLogicalClock, operationDetails);
+        return append(new ByteBuffer[]{record}, record.remaining());
+    }
+
+    // Appends the records with a single write, they get consecutive sequence numbers and the last one is returned. The
+    // records are kept in the same segment, so a batch may take a segment past its size.
+    public long appendAll(List<Map.Entry<HybridLogicalClock, OperationDetails>> logs) {
+        ByteBuffer[] records = new ByteBuffer[logs.size()];
+        long recordsSize = 0;
+        for (int i = 0; i < records.length; i++) {
+            records[i] = WriteAheadLogRecordCodec.encode(logs.get(i).getKey(), logs.get(i).getValue());
+            recordsSize += records[i].remaining();
+        }
+        return append(records, recordsSize);
+    }
+
+    private long append(ByteBuffer[] records, long recordsSize) {
+        long sequenceNumber;
+        synchronized (appendLock) {
+            try {
+                if (currentSegment == null) {
+                    throw new WriteAheadLogException(String.format("The write ahead log is not recovered: %s", directory));
+                }
+                if (currentSegmentSize + recordsSize > segmentSizeBytes && currentSegmentSize > segmentHeaderSize) {
+                    rollSegment();
+                }
+                long remainingBytes = recordsSize;
+                while (remainingBytes > 0) {
+                    remainingBytes -= currentSegment.write(records);
+                }
+                if (commitPolicy == CommitPolicy.PER_WRITE_FSYNC) {
+                    currentSegment.force(false);
+                    numberOfSyncs.incrementAndGet();
+                }
+            } catch (IOException e) {
+                throw new WriteAheadLogException(String.format("Unable to append to the write ahead log: %s", directory), e);
+            }
+            currentSegmentSize += recordsSize;
+            writtenBytes += recordsSize;
+            writtenSequenceNumber += records.length;
+            sequenceNumber = writtenSequenceNumber;
+        }
+        if (commitPolicy == CommitPolicy.GROUP_COMMIT && writtenBytes - syncedBytes >= groupCommitMaxBytes) {
+            // Waking up the writer syncing the group, since the group is already large enough
+            syncLock.lock();
+            try {
+                groupCommitFilled.signal();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+        return sequenceNumber;
+    }
+
+    // Returns once the record with the given sequence number is durable according to the commit policy
+    public void sync(long sequenceNumber) {
+        if (commitPolicy != CommitPolicy.GROUP_COMMIT) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (syncedSequenceNumber < sequenceNumber) {
+                if (isSyncInProgress) {
+                    syncCompleted.awaitUninterruptibly();
+                    continue;
+                }
+                isSyncInProgress = true;
+                try {
+                    // The writers which appended during the previous sync already form a group, the window is only
+                    // waited for when this writer would otherwise sync alone
+                    if (writtenSequenceNumber <= sequenceNumber) {
+                        waitForGroupCommitWindow();
+                    }
+                    syncLock.unlock();
+                    long[] synced;
+                    try {
+                        synced = syncCurrentSegment();
+                    } finally {
+                        syncLock.lock();
+                    }
+                    syncedSequenceNumber = Math.max(syncedSequenceNumber, synced[0]);
+                    syncedBytes = Math.max(syncedBytes, synced[1]);
+                } finally {
+                    isSyncInProgress = false;
+                    syncCompleted.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    public long getWrittenSequenceNumber() {
+        return writtenSequenceNumber;
+    }
+
+    public long getNumberOfSyncs() {
+        return numberOfSyncs.get();
+    }
+
+    private void waitForGroupCommitWindow() {
+        long remainingNanoseconds = groupCommitWindowNanoseconds;
+        try {
+            while (remainingNanoseconds > 0 && writtenBytes - syncedBytes < groupCommitMaxBytes) {
+                remainingNanoseconds = groupCommitFilled.awaitNanos(remainingNanoseconds);
+            }
+        } catch (InterruptedException e) {
+            // Syncing right away, the writers of the group are still waiting for it
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Returns the sequence number and the number of bytes covered by the sync
+    private long[] syncCurrentSegment() {
+        segmentLock.readLock().lock();
+        try {
+            // Everything written up to here is either in the current segment, or in an older segment which was synced
+            // while rolling over
+            long sequenceNumber = writtenSequenceNumber;
+            long bytes = writtenBytes;
+            currentSegment.force(false);
+            numberOfSyncs.incrementAndGet();
+            return new long[]{sequenceNumber, bytes};
+        } catch (IOException e) {
+            throw new WriteAheadLogException(String.format("Unable to sync the write ahead log: %s", directory), e);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        segmentLock.writeLock().lock();
+        try {
+            if (commitPolicy != CommitPolicy.OS_BUFFERED) {
+                currentSegment.force(false);
+                numberOfSyncs.incrementAndGet();
+            }
+            currentSegment.close();
+            openSegment(writtenSequenceNumber + 1);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    private void deleteSegmentsCoveredByCheckpoint(long checkpointSequenceNumber) throws IOException {
+        synchronized (appendLock) {
+            List<Path> segments = listSegments();
+            // A segment ends right before the first sequence number of the next one, the current segment is never deleted
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                long firstSequenceNumberOfNextSegment = getFirstSequenceNumber(segments.get(i + 1));
+                if (firstSequenceNumberOfNextSegment - 1 > checkpointSequenceNumber ||
+                        getFirstSequenceNumber(segments.get(i)) >= currentSegmentFirstSequenceNumber) {
+                    break;
+                }
+                Files.delete(segments.get(i));
+            }
+        }
+    }
+
+    private ByteBuffer encodeCheckpointHeader(WriteAheadLogCheckpoint checkpoint) {
+        ByteBuffer hybridLogicalClock = checkpoint.getHybridLogicalClock() == null
+                ? ByteBuffer.allocate(0)
+                : WriteAheadLogRecordCodec.encodeHybridLogicalClock(checkpoint.getHybridLogicalClock());
+        ByteBuffer header = ByteBuffer.allocate(4 + 4 + 8 + 1 + hybridLogicalClock.remaining() + 4);
+        header.putInt(checkpointMagic);
+        header.putInt(formatVersion);
+        header.putLong(checkpoint.getSequenceNumber());
+        header.put((byte) (checkpoint.getHybridLogicalClock() == null ? 0 : 1));
+        header.put(hybridLogicalClock);
+        header.putInt(checkpoint.getLogsOfLiveKeys().size());
+        header.flip();
+        return header;
+    }
+
+    // The checkpoint file is only ever replaced atomically, so an invalid checkpoint cannot be skipped safely
+    private WriteAheadLogCheckpoint recoverCheckpoint() throws IOException {
+        Path checkpointFile = directory.resolve(checkpointFileName);
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        ByteBuffer checkpointBytes = ByteBuffer.wrap(Files.readAllBytes(checkpointFile));
+        try {
+            if (checkpointBytes.getInt() != checkpointMagic || checkpointBytes.getInt() != formatVersion) {
+                throw new WriteAheadLogException(String.format("Invalid header of the checkpoint: %s", checkpointFile));
+            }
+            long sequenceNumber = checkpointBytes.getLong();
+            HybridLogicalClock hybridLogicalClock = checkpointBytes.get() == 0
+                    ? null
+                    : WriteAheadLogRecordCodec.getHybridLogicalClock(checkpointBytes);
+            int numberOfLogs = checkpointBytes.getInt();
+            List<Map.Entry<HybridLogicalClock, OperationDetails>> logsOfLiveKeys = new ArrayList<>(numberOfLogs);
+            for (int i = 0; i < numberOfLogs; i++) {
+                int payloadLength = checkpointBytes.getInt();
+                int checksum = checkpointBytes.getInt();
+                if (payloadLength <= 0 || payloadLength > checkpointBytes.remaining() ||
+                        WriteAheadLogRecordCodec.checksum(checkpointBytes.array(), checkpointBytes.position(),
+                                payloadLength) != checksum) {
+                    throw new WriteAheadLogException(String.format("Corrupted record in the checkpoint: %s", checkpointFile));
+                }
+                ByteBuffer payload = checkpointBytes.slice(checkpointBytes.position(), payloadLength);
+                checkpointBytes.position(checkpointBytes.position() + payloadLength);
+                logsOfLiveKeys.add(WriteAheadLogRecordCodec.decode(payload));
+            }
+            return new WriteAheadLogCheckpoint(sequenceNumber, hybridLogicalClock, logsOfLiveKeys);
+        } catch (BufferUnderflowException e) {
+            throw new WriteAheadLogException(String.format("Truncated checkpoint: %s", checkpointFile), e);
+        }
+    }
+
+    private void forceDirectory() throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            fileChannel.force(true);
+        }
+    }
+
+    private void openSegment(long firstSequenceNumber) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", segmentFilePrefix, firstSequenceNumber, segmentFileSuffix));
+        FileChannel fileChannel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(segmentHeaderSize);
+        header.putInt(segmentMagic);
+        header.putInt(formatVersion);
+        header.flip();
+        while (header.hasRemaining()) {
+            fileChannel.write(header);
+        }
+        // Syncing a record only syncs the segment file, the directory entry of a new segment is made durable here
+        forceDirectory();
+        currentSegment = fileChannel;
+        currentSegmentFirstSequenceNumber = firstSequenceNumber;
+        currentSegmentSize = segmentHeaderSize;
+    }
+
+    // Returns the number of valid records, the records covered by the checkpoint are not replayed. Only the last segment
+    // may have a torn header, from a crash right after it was created. Any other invalid header, like one of another
+    // format version, fails the recovery instead of dropping the records of the segment.
+    private long recoverSegment(Path segment, long firstSequenceNumber, long checkpointSequenceNumber, boolean isLastSegment,
+                                BiConsumer<HybridLogicalClock, OperationDetails> consumer) throws IOException {
+        long numberOfRecords = 0;
+        try (FileChannel fileChannel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer segmentHeader = ByteBuffer.allocate(segmentHeaderSize);
+            if (!readFully(fileChannel, segmentHeader)) {
+                if (!isLastSegment) {
+                    throw new WriteAheadLogException(String.format("Truncated header of the segment: %s", segment));
+                }
+                System.out.printf("[WriteAheadLogFile]: Removing the last segment with a torn header: %s\n", segment);
+                return 0;
+            }
+            if (segmentHeader.getInt(0) != segmentMagic || segmentHeader.getInt(4) != formatVersion) {
+                throw new WriteAheadLogException(String.format("Invalid header of the segment: %s", segment));
+            }
+            long validPosition = segmentHeaderSize;
+            ByteBuffer recordHeader = ByteBuffer.allocate(WriteAheadLogRecordCodec.recordHeaderSize);
+            while (true) {
+                recordHeader.clear();
+                if (!readFully(fileChannel, recordHeader)) {
+                    break;
+                }
+                int payloadLength = recordHeader.getInt(0);
+                int checksum = recordHeader.getInt(4);
+                if (payloadLength <= 0 || payloadLength > maximumRecordSize) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+                if (!readFully(fileChannel, payload) ||
+                        WriteAheadLogRecordCodec.checksum(payload.array(), 0, payloadLength) != checksum) {
+                    break;
+                }
+                payload.flip();
+                if (firstSequenceNumber + numberOfRecords > checkpointSequenceNumber) {
+                    Map.Entry<HybridLogicalClock, OperationDetails> entry = WriteAheadLogRecordCodec.decode(payload);
+                    consumer.accept(entry.getKey(), entry.getValue());
+                }
+                numberOfRecords++;
+                validPosition = fileChannel.position();
+            }
+            if (validPosition < fileChannel.size()) {
+                System.out.printf("[WriteAheadLogFile]: Truncating the torn or corrupted tail of the segment: %s at %d\n",
+                        segment, validPosition);
+                fileChannel.truncate(validPosition);
+            }
+        }
+        return numberOfRecords;
+    }
+
+    private void writeFully(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+    }
+
+    private boolean readFully(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(file -> file.getFileName().toString().startsWith(segmentFilePrefix) &&
+                            file.getFileName().toString().endsWith(segmentFileSuffix))
+                    .toList());
+            segments.sort(null);
+            return segments;
+        }
+    }
+
+    private long getFirstSequenceNumber(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return Long.parseLong(fileName.substring(segmentFilePrefix.length(), fileName.length() - segmentFileSuffix.length()));
+    }
+}
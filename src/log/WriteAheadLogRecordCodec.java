@@ -0,0 +1,81 @@
+package log;
+
+import data.HybridLogicalClock;
+import data.OperationType;
+import data.operationDetails.DeleteOperationDetails;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+// Binary layout of a record in the write ahead log segments:
+// [payload length: int][CRC32C of the payload: int][payload]
+// payload = [operation: byte][packed hybrid logical clock: long][key length: int][key UTF-8 bytes]
+//           and for updates [value length: int][value UTF-8 bytes]
+public class WriteAheadLogRecordCodec {
+    public static final int recordHeaderSize = 8;
+    public static final int hybridLogicalClockSize = 8;
+    private static final byte updateOperation = 0;
+    private static final byte deleteOperation = 1;
+
+    public static ByteBuffer encode(HybridLogicalClock hybridLogicalClock, OperationDetails operationDetails) {
+        byte[] key = operationDetails.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] value = operationDetails.getOperationType() == OperationType.UPDATE
+                ? ((UpdateOperationDetails) operationDetails).getValue().getBytes(StandardCharsets.UTF_8)
+                : null;
+
+        int payloadLength = 1 + hybridLogicalClockSize + 4 + key.length + (value == null ? 0 : 4 + value.length);
+        ByteBuffer record = ByteBuffer.allocate(recordHeaderSize + payloadLength);
+        record.putInt(payloadLength);
+        record.putInt(0);
+        record.put(value == null ? deleteOperation : updateOperation);
+        record.putLong(hybridLogicalClock.getPackedClock());
+        record.putInt(key.length);
+        record.put(key);
+        if (value != null) {
+            record.putInt(value.length);
+            record.put(value);
+        }
+        record.putInt(4, checksum(record.array(), recordHeaderSize, payloadLength));
+        record.flip();
+        return record;
+    }
+
+    public static Map.Entry<HybridLogicalClock, OperationDetails> decode(ByteBuffer payload) {
+        byte operation = payload.get();
+        HybridLogicalClock hybridLogicalClock = getHybridLogicalClock(payload);
+        String key = readString(payload);
+        OperationDetails operationDetails = operation == updateOperation
+                ? new UpdateOperationDetails(OperationType.UPDATE, key, readString(payload))
+                : new DeleteOperationDetails(OperationType.DELETE, key);
+        return new AbstractMap.SimpleImmutableEntry<>(hybridLogicalClock, operationDetails);
+    }
+
+    // Same layout as inside a record: [packed hybrid logical clock: long]
+    public static ByteBuffer encodeHybridLogicalClock(HybridLogicalClock hybridLogicalClock) {
+        ByteBuffer buffer = ByteBuffer.allocate(hybridLogicalClockSize);
+        buffer.putLong(hybridLogicalClock.getPackedClock());
+        buffer.flip();
+        return buffer;
+    }
+
+    public static HybridLogicalClock getHybridLogicalClock(ByteBuffer buffer) {
+        return HybridLogicalClock.fromPackedClock(buffer.getLong());
+    }
+
+    public static int checksum(byte[] bytes, int offset, int length) {
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(bytes, offset, length);
+        return (int) crc32c.getValue();
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getInt()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,15 +1,19 @@
 package node.databaseNode;
 
 import data.HybridLogicalClock;
+import data.StateTransferChunk;
 import data.operationDetails.OperationDetails;
 import exception.DatabaseNodeInActiveException;
 
-import java.math.BigInteger;
 import java.util.HashMap;
 
 public interface ElevatedDatabaseNodeAccess extends LeaderDatabaseNodeAccess, FollowerDatabaseNodeAccess {
     void elevateToLeaderDatabaseNode();
     void replicateData(HashMap<HybridLogicalClock, OperationDetails> log) throws DatabaseNodeInActiveException;
+    void replicateSnapshotChunk(StateTransferChunk stateTransferChunk, int startingPositionInConsistentHashingRing,
+                                int endingPositionInConsistentHashingRing) throws DatabaseNodeInActiveException;
     HybridLogicalClock getMaximumHybridLogicalClock();
+    long getRootHashOfData();
+    long[] getHashesOfRangesOfData();
     HashMap<HybridLogicalClock, OperationDetails> getLogsAfterTheGivenTimestamp(HybridLogicalClock hybridLogicalClock);
 }
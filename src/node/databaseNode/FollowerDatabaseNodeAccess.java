@@ -1,8 +1,17 @@
 package node.databaseNode;
 
+import data.OperationResult;
+import data.Value;
 import exception.DataNotFoundException;
 import exception.DatabaseNodeInActiveException;
 
+import java.util.HashMap;
+import java.util.List;
+
 public interface FollowerDatabaseNodeAccess extends DatabaseNodeAccess {
     String get(String key) throws DatabaseNodeInActiveException, DataNotFoundException;
+    Value getValue(String key) throws DatabaseNodeInActiveException, DataNotFoundException;
+    // SUCCESS with the value and its hybrid logical clock, DATA_NOT_FOUND or DATABASE_NODE_INACTIVE, without throwing
+    OperationResult tryGet(String key);
+    HashMap<String, String> multiGet(List<String> keys) throws DatabaseNodeInActiveException;
 }
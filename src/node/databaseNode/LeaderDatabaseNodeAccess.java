@@ -1,6 +1,8 @@
 package node.databaseNode;
 
 import data.HybridLogicalClock;
+import data.OperationResult;
+import data.StateTransferChunk;
 import data.operationDetails.OperationDetails;
 import exception.DatabaseNodeInActiveException;
 import exception.NotLeaderException;
@@ -8,14 +10,27 @@ import exception.NotLeaderException;
 import java.util.HashMap;
 
 public interface LeaderDatabaseNodeAccess extends DatabaseNodeAccess {
-    void write(HybridLogicalClock hybridLogicalClock, String key, String value) throws DatabaseNodeInActiveException, NotLeaderException;
-    void delete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException, NotLeaderException;
+    // The hybrid logical clock which the key has after the request, a read at this clock observes the request
+    HybridLogicalClock write(HybridLogicalClock hybridLogicalClock, String key, String value) throws DatabaseNodeInActiveException, NotLeaderException;
+    HybridLogicalClock delete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException, NotLeaderException;
+    // SUCCESS with the hybrid logical clock of the key after the request, DATABASE_NODE_INACTIVE or NOT_LEADER, without
+    // throwing
+    OperationResult tryWrite(HybridLogicalClock hybridLogicalClock, String key, String value);
+    OperationResult tryDelete(HybridLogicalClock hybridLogicalClock, String key);
+    void writeBatch(HashMap<HybridLogicalClock, OperationDetails> logs) throws DatabaseNodeInActiveException, NotLeaderException;
     HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
             int startingPositionInConsistentHashingRing, int endPositionInConsistentHashingRing) throws
             DatabaseNodeInActiveException, NotLeaderException;
-    HashMap<HybridLogicalClock, OperationDetails> getLogs() throws DatabaseNodeInActiveException, NotLeaderException;
     HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
             int startingPositionInConsistentHashingRing, int intermediateEndingPositionInConsistentHashingRing,
             int intermediateStartingPositonInConsistentHashingRing, int endingPositionInConsistentHashingRing
     ) throws DatabaseNodeInActiveException, NotLeaderException;
+    StateTransferChunk getSnapshotChunkOfRange(int startingPositionInConsistentHashingRing,
+                                               int endingPositionInConsistentHashingRing, int numberOfKeys) throws
+            DatabaseNodeInActiveException, NotLeaderException;
+    HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+            int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing,
+            HybridLogicalClock hybridLogicalClock) throws DatabaseNodeInActiveException, NotLeaderException;
+    // Every log written so far has been handed to the replication streams
+    boolean isReplicationBufferEmpty();
 }
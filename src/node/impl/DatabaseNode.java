@@ -2,210 +2,327 @@ package node.impl;
 
 import config.DatabaseNodeConfig;
 import config.LogsConfig;
+import config.ProxyServerConfig;
+import config.WriteAheadLogConfig;
+import data.BloomFilterOfKeys;
 import data.DatabaseNodeType;
 import data.HybridLogicalClock;
+import data.MerkleTreeOfConsistentHashingRing;
+import data.OperationResult;
+import data.OperationStatus;
 import data.OperationType;
+import data.StateTransferChunk;
 import data.Value;
 import data.operationDetails.OperationDetails;
 import data.operationDetails.UpdateOperationDetails;
 import exception.DataNotFoundException;
 import exception.DatabaseNodeInActiveException;
 import exception.NotLeaderException;
-import log.TemporaryLog;
+import log.ReplicationBuffer;
 import log.WriteAheadLog;
+import log.WriteAheadLogCheckpoint;
+import log.WriteAheadLogFile;
 import node.databaseNode.ElevatedDatabaseNodeAccess;
 import node.rootNode.ElevatedRootNodeAccess;
-import util.RandomHelper;
-
-import java.math.BigInteger;
-import java.util.Arrays;
-import java.util.Collections;
+import service.PeriodicTask;
+import service.PeriodicTaskScheduler;
+import util.HashingHelper;
+import util.HybridLogicalClockComparator;
+
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class DatabaseNode implements ElevatedDatabaseNodeAccess {
     private final String databaseNodeName;
-    private final HashMap<String, Value> data;
+    private final ConcurrentHashMap<String, Value> data;
+    // Live keys by the position in the consistent hashing ring, for reading the data of a range without going over
+    // every key
+    private final List<Set<String>> keysOfPositionInConsistentHashingRing;
+    // Hashes of the data by ranges of the ring, compared with the leader to find the ranges which differ
+    private final MerkleTreeOfConsistentHashingRing merkleTree;
+    // Replaced while holding the lock exclusively, null when it is disabled
+    private volatile BloomFilterOfKeys bloomFilterOfKeys;
     private final WriteAheadLog writeAheadLog;
-    private DatabaseNodeType databaseNodeType;
-    private TemporaryLog temporaryLog;
-    private final Object lock = new Object();
-    private boolean isActive;
-    private Thread updatingFollowerDatabaseNodesThread;
+    private volatile DatabaseNodeType databaseNodeType;
+    private volatile ReplicationBuffer replicationBuffer;
+    // The writers share the lock and resolve the hybrid logical clock of a key under the lock of the key. The reads of
+    // ranges and snapshots share it too, the values are immutable and the write ahead log indexes its logs by position,
+    // so they only keep out a checkpoint. Checkpointing and changing the state of the node take the lock exclusively.
+    // Reads of a single key take no lock at all.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object[] locksOfKeys;
+    private volatile boolean isActive;
     private final ElevatedRootNodeAccess rootNode;
-    private Thread updatingHeartBeatThread;
-    private Thread replicationOFDataUsingNeighbourDatabaseNodes;
+    private final PeriodicTaskScheduler periodicTaskScheduler = PeriodicTaskScheduler.getPeriodicTaskScheduler();
+    // Scheduled while this database node is the leader
+    private PeriodicTask updatingFollowerDatabaseNodesTask;
+    private PeriodicTask updatingHeartBeatTask;
+    private PeriodicTask replicationOfDataUsingNeighbourDatabaseNodesTask;
+    private PeriodicTask checkpointingWriteAheadLogTask;
 
     public DatabaseNode(int rootNodeId, int databaseNodeId, DatabaseNodeType databaseNodeType,
                         ElevatedRootNodeAccess rootNode) {
         this.databaseNodeName = String.format("Database Node-%d.%d", rootNodeId, databaseNodeId);
         this.isActive = true;
-        this.data = new HashMap<>();
-        this.writeAheadLog = new WriteAheadLog();
+        this.data = new ConcurrentHashMap<>();
+        this.keysOfPositionInConsistentHashingRing = new ArrayList<>(ProxyServerConfig.positionsInTheConsistentHashingRing);
+        for (int i = 0; i < ProxyServerConfig.positionsInTheConsistentHashingRing; i++) {
+            keysOfPositionInConsistentHashingRing.add(ConcurrentHashMap.newKeySet());
+        }
+        this.merkleTree = new MerkleTreeOfConsistentHashingRing();
+        this.locksOfKeys = new Object[DatabaseNodeConfig.numberOfLocksOfKeys];
+        for (int i = 0; i < locksOfKeys.length; i++) {
+            locksOfKeys[i] = new Object();
+        }
+        this.writeAheadLog = createWriteAheadLog();
+        this.bloomFilterOfKeys = createBloomFilterOfKeys();
+        // Rebuilding the data from the write ahead log recovered from the disk
+        recoverDataFromWriteAheadLog();
+        if (bloomFilterOfKeys != null && bloomFilterOfKeys.isFull()) {
+            bloomFilterOfKeys = createBloomFilterOfKeys();
+        }
         this.databaseNodeType = databaseNodeType;
         this.rootNode = rootNode;
 
-        updatingFollowerDatabaseNodesThread = new Thread(() -> {
-            System.out.printf("[%s]: Starting a thread to update the follower database nodes with the latest data\n",
-                    this.databaseNodeName);
-            while (true) {
-                try {
-                    Thread.sleep(DatabaseNodeConfig.cooldownTimeForUpdatingDataInFollowerDatabaseNodes);
-                } catch (InterruptedException e) {
-                    System.out.printf("[%s]: Updating the follower database node thread is stopped\n", this.databaseNodeName);
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-                HashMap<HybridLogicalClock, OperationDetails> temporaryLogData = new HashMap<>(temporaryLog.getTemporaryLog());
-                temporaryLog.clearTemporaryLog();
-                try {
-                    this.rootNode.replicationOfData(temporaryLogData);
-                } catch (DatabaseNodeInActiveException e) {
-                    System.out.printf("[%s]: Exception while doing periodic replication of data: %s\n",
-                            this.databaseNodeName, e.getMessage());
-                }
-            }
-        });
+        if (databaseNodeType == DatabaseNodeType.LEADER) {
+            this.replicationBuffer = new ReplicationBuffer();
+            // start the updating follower database nodes, only if this database node is a LEADER
+            scheduleUpdatingFollowerDatabaseNodes();
+        }
+        // Scheduling the heart beat to the root node, the periodic request to the root node for getting the most recent
+        // data from the neighbour database nodes and the checkpoints of the write ahead log
+        schedulePeriodicTasks();
+    }
 
-        updatingHeartBeatThread = new Thread(() -> {
-            System.out.printf("[%s]: Starting a thread to send heart beat requests to the root node\n", this.databaseNodeName);
-            while (true) {
-                try {
-                    Thread.sleep(DatabaseNodeConfig.cooldownTimeForUpdatingHeartBeat);
-                } catch (InterruptedException e) {
-                    System.out.printf("[%s]: Updating the heart beat thread is stopped\n", this.databaseNodeName);
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-                rootNode.updateHeartBeat(this);
-            }
-        });
+    @Override
+    public HybridLogicalClock write(HybridLogicalClock hybridLogicalClock, String key, String value) throws DatabaseNodeInActiveException, NotLeaderException {
+        return getHybridLogicalClockOfWrite(tryWrite(hybridLogicalClock, key, value));
+    }
 
-        replicationOFDataUsingNeighbourDatabaseNodes = new Thread(() -> {
-            if (LogsConfig.isExtraLoggingEnabled) {
-                System.out.printf("[%s]: Starting a thread for periodically requesting the root node for replication of data " +
-                        "using the neighbour database nodes\n", this.databaseNodeName);
+    @Override
+    public OperationResult tryWrite(HybridLogicalClock hybridLogicalClock, String key, String value) {
+        long sequenceNumber;
+        HybridLogicalClock committedHybridLogicalClock;
+        lock.readLock().lock();
+        try {
+            if (!isActive) {
+                return new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE);
             }
-            while (true) {
-                try {
-                    Thread.sleep(DatabaseNodeConfig.cooldownTimeForReplicationOfDataUsingNeighbourDatabaseNodes);
-                } catch (InterruptedException e) {
-                    if (LogsConfig.isExtraLoggingEnabled) {
-                        System.out.printf("[%s]: Replication of data using the neighbour database nodes is stopped\n",
-                                this.databaseNodeName);
-                    }
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-                try {
-                    if (LogsConfig.isExtraLoggingEnabled) {
-                        System.out.printf("[%s]: Starting replication of data using the neighbour database nodes\n",
-                                this.databaseNodeName);
+            if (databaseNodeType != DatabaseNodeType.LEADER) {
+                return new OperationResult(OperationStatus.NOT_LEADER);
+            }
+            synchronized (getLockOfKey(key)) {
+                Value valueObject = data.get(key);
+                if (valueObject != null) {
+                    HybridLogicalClock currentHybridLogicalClock = valueObject.getHybridLogicalClock();
+
+                    HybridLogicalClock newHybridLogicalClock = getHybridLogicalClock(
+                            hybridLogicalClock, currentHybridLogicalClock);
+                    if (newHybridLogicalClock == null) {
+                        if (LogsConfig.isExtraLoggingEnabled) {
+                            System.out.printf("[%s]: The write request timestamp is older than the records timestamp, so " +
+                                    "not performing the update request\n", this.databaseNodeName);
+                        }
+                        return new OperationResult(OperationStatus.SUCCESS, null, currentHybridLogicalClock);
                     }
-                    rootNode.replicationOfDataBetweenDatabaseNodes(this);
-                } catch (Exception e) {
                     if (LogsConfig.isExtraLoggingEnabled) {
-                        System.out.printf("[%s]: Exception thrown in replicaOFDataUsingNeighbourDatabaseNodes thread\n",
-                                this.databaseNodeName);
+                        System.out.printf("[%s]: Executing the write request\n", this.databaseNodeName);
                     }
+                    committedHybridLogicalClock = newHybridLogicalClock;
+                } else {
+                    committedHybridLogicalClock = hybridLogicalClock.incrementLogicalClockByOne();
                 }
+                sequenceNumber = updateCommit(committedHybridLogicalClock, key, value);
             }
-        });
-
-        if (databaseNodeType == DatabaseNodeType.LEADER) {
-            this.temporaryLog = new TemporaryLog();
-            // start the updating follower database nodes, only if this database node is a LEADER
-            updatingFollowerDatabaseNodesThread.start();
+        } finally {
+            lock.readLock().unlock();
         }
-        // Starting the thread to send heart beat to the root node frequently
-        updatingHeartBeatThread.start();
-        // Starting the thread to periodically send request to the root node, for getting the most recent data from the
-        // neighbour database nodes
-        replicationOFDataUsingNeighbourDatabaseNodes.start();
+        // Waiting for the write ahead log outside the lock, so that the concurrent writes can share a group commit
+        writeAheadLog.sync(sequenceNumber);
+        return new OperationResult(OperationStatus.SUCCESS, null, committedHybridLogicalClock);
     }
 
     @Override
-    public void write(HybridLogicalClock hybridLogicalClock, String key, String value) throws DatabaseNodeInActiveException, NotLeaderException {
-        synchronized (lock) {
+    public HybridLogicalClock delete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException, NotLeaderException {
+        return getHybridLogicalClockOfWrite(tryDelete(hybridLogicalClock, key));
+    }
+
+    @Override
+    public OperationResult tryDelete(HybridLogicalClock hybridLogicalClock, String key) {
+        long sequenceNumber = 0;
+        HybridLogicalClock committedHybridLogicalClock = hybridLogicalClock;
+        lock.readLock().lock();
+        try {
             if (!isActive) {
-                throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
+                return new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE);
             }
             if (databaseNodeType != DatabaseNodeType.LEADER) {
-                throw new NotLeaderException(String.format("[%s]: The database node is not a leader node.", this.databaseNodeName));
+                return new OperationResult(OperationStatus.NOT_LEADER);
             }
-            if (data.containsKey(key)) {
+            synchronized (getLockOfKey(key)) {
                 Value valueObject = data.get(key);
-                HybridLogicalClock currentHybridLogicalClock = valueObject.getHybridLogicalClock();
+                if (valueObject != null) {
+                    HybridLogicalClock currentHybridLogicalClock = valueObject.getHybridLogicalClock();
+
+                    HybridLogicalClock newHybridLogicalClock = getHybridLogicalClock(hybridLogicalClock, currentHybridLogicalClock);
 
-                HybridLogicalClock newHybridLogicalClock = getHybridLogicalClock(
-                        hybridLogicalClock, currentHybridLogicalClock);
-                if (newHybridLogicalClock == null) {
+                    if (newHybridLogicalClock == null) {
+                        if (LogsConfig.isExtraLoggingEnabled) {
+                            System.out.printf("[%s]: The delete request timestamp is older than the records timestamp, so " +
+                                    "not performing the delete request\n", this.databaseNodeName);
+                        }
+                        return new OperationResult(OperationStatus.SUCCESS, null, currentHybridLogicalClock);
+                    }
                     if (LogsConfig.isExtraLoggingEnabled) {
-                        System.out.printf("[%s]: The write request timestamp is older than the records timestamp, so " +
-                                "not performing the update request\n", this.databaseNodeName);
+                        System.out.printf("[%s]: Executing the delete request\n", this.databaseNodeName);
                     }
-                    return;
+                    committedHybridLogicalClock = newHybridLogicalClock;
+                    sequenceNumber = deleteCommit(newHybridLogicalClock, key);
                 }
-                if (LogsConfig.isExtraLoggingEnabled) {
-                    System.out.printf("[%s]: Executing the write request\n", this.databaseNodeName);
-                }
-                updateCommit(newHybridLogicalClock, key, value);
-            } else {
-                hybridLogicalClock.incrementLogicalClockByOne();
-                updateCommit(hybridLogicalClock, key, value);
             }
+        } finally {
+            lock.readLock().unlock();
         }
+        writeAheadLog.sync(sequenceNumber);
+        return new OperationResult(OperationStatus.SUCCESS, null, committedHybridLogicalClock);
     }
 
+    // Applies the updates and deletes of a batch under the locks of its keys and with a single append to the write ahead
+    // log. The lock is shared like for a single write, so the writers of other keys are not held up, and the locks of the
+    // keys are taken in the order of their index so that two batches cannot deadlock. The logs are applied in the order
+    // of their hybrid logical clocks, a log older than the record of its key is skipped like a single write.
     @Override
-    public void delete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException, NotLeaderException {
-        synchronized (lock) {
+    public void writeBatch(HashMap<HybridLogicalClock, OperationDetails> logs) throws DatabaseNodeInActiveException,
+            NotLeaderException {
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> sortedLogs = new ArrayList<>(logs.entrySet());
+        sortedLogs.sort(Map.Entry.comparingByKey(HybridLogicalClockComparator.getHybridLogicalClock()));
+        TreeSet<Integer> indexesOfLocksOfKeys = new TreeSet<>();
+        for (var entry : sortedLogs) {
+            indexesOfLocksOfKeys.add(getIndexOfLockOfKey(entry.getValue().getKey()));
+        }
+        long sequenceNumber;
+        lock.readLock().lock();
+        try {
             if (!isActive) {
                 throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
             }
             if (databaseNodeType != DatabaseNodeType.LEADER) {
                 throw new NotLeaderException(String.format("[%s]: The database node is not a leader node.", this.databaseNodeName));
             }
-            if (data.containsKey(key)) {
-                Value valueObject = data.get(key);
-                HybridLogicalClock currentHybridLogicalClock = valueObject.getHybridLogicalClock();
-
-                HybridLogicalClock newHybridLogicalClock = getHybridLogicalClock(hybridLogicalClock, currentHybridLogicalClock);
+            sequenceNumber = applyBatchUnderLocksOfKeys(sortedLogs,
+                    indexesOfLocksOfKeys.stream().mapToInt(Integer::intValue).toArray(), 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+        writeAheadLog.sync(sequenceNumber);
+    }
 
-                if (newHybridLogicalClock == null) {
-                    if (LogsConfig.isExtraLoggingEnabled) {
-                        System.out.printf("[%s]: The delete request timestamp is older than the records timestamp, so " +
-                                "not performing the delete request\n", this.databaseNodeName);
-                    }
-                    return;
-                }
-                if (LogsConfig.isExtraLoggingEnabled) {
-                    System.out.printf("[%s]: Executing the delete request\n", this.databaseNodeName);
-                }
-                deleteCommit(newHybridLogicalClock, key);
+    // Takes the lock of the next key and goes on with the rest, the batch is applied once every lock is held
+    private long applyBatchUnderLocksOfKeys(List<Map.Entry<HybridLogicalClock, OperationDetails>> sortedLogs,
+                                            int[] indexesOfLocksOfKeys, int index) {
+        if (index < indexesOfLocksOfKeys.length) {
+            synchronized (locksOfKeys[indexesOfLocksOfKeys[index]]) {
+                return applyBatchUnderLocksOfKeys(sortedLogs, indexesOfLocksOfKeys, index + 1);
+            }
+        }
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> appliedLogs = new ArrayList<>(sortedLogs.size());
+        for (var entry : sortedLogs) {
+            OperationDetails operationDetails = entry.getValue();
+            String key = operationDetails.getKey();
+            Value valueObject = data.get(key);
+            HybridLogicalClock newHybridLogicalClock;
+            if (valueObject != null) {
+                newHybridLogicalClock = getHybridLogicalClock(entry.getKey(), valueObject.getHybridLogicalClock());
+            } else if (operationDetails.getOperationType() == OperationType.UPDATE) {
+                newHybridLogicalClock = entry.getKey().incrementLogicalClockByOne();
+            } else {
+                newHybridLogicalClock = null;
+            }
+            if (newHybridLogicalClock == null) {
+                continue;
             }
+            if (operationDetails.getOperationType() == OperationType.UPDATE) {
+                putData(key, newHybridLogicalClock, ((UpdateOperationDetails) operationDetails).getValue());
+            } else {
+                removeData(key);
+            }
+            replicationBuffer.addLog(newHybridLogicalClock, operationDetails);
+            appliedLogs.add(new AbstractMap.SimpleImmutableEntry<>(newHybridLogicalClock, operationDetails));
+        }
+        if (LogsConfig.isExtraLoggingEnabled) {
+            System.out.printf("[%s]: Applied %d of the %d logs of the batch\n", this.databaseNodeName,
+                    appliedLogs.size(), sortedLogs.size());
         }
+        return writeAheadLog.addLogs(appliedLogs);
     }
 
     @Override
     public String get(String key) throws DatabaseNodeInActiveException, DataNotFoundException {
-        synchronized (lock) {
-            if (!isActive) {
-                throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
-            }
-            if (!data.containsKey(key)) {
-                throw new DataNotFoundException(String.format("[%s]: Data not found in database node.", this.databaseNodeName));
+        return getValue(key).getValue();
+    }
+
+    @Override
+    public Value getValue(String key) throws DatabaseNodeInActiveException, DataNotFoundException {
+        OperationResult operationResult = tryGet(key);
+        return switch (operationResult.getOperationStatus()) {
+            case SUCCESS -> new Value(operationResult.getHybridLogicalClock(), operationResult.getValue());
+            case DATA_NOT_FOUND -> throw new DataNotFoundException(String.format("[%s]: Data not found in database node.",
+                    this.databaseNodeName));
+            default -> throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.",
+                    this.databaseNodeName));
+        };
+    }
+
+    @Override
+    public OperationResult tryGet(String key) {
+        if (!isActive) {
+            return new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE);
+        }
+        // Reads take no lock, a value is only ever replaced as a whole
+        Value valueObject = getData(key);
+        if (valueObject == null) {
+            return new OperationResult(OperationStatus.DATA_NOT_FOUND);
+        }
+        return new OperationResult(OperationStatus.SUCCESS, valueObject.getValue(), valueObject.getHybridLogicalClock());
+    }
+
+    // The values of the keys which are found, the missing keys are left out
+    @Override
+    public HashMap<String, String> multiGet(List<String> keys) throws DatabaseNodeInActiveException {
+        if (!isActive) {
+            throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
+        }
+        HashMap<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            Value valueObject = getData(key);
+            if (valueObject != null) {
+                values.put(key, valueObject.getValue());
             }
-            return data.get(key).getValue();
         }
+        return values;
     }
 
     @Override
     public void elevateToLeaderDatabaseNode() {
-        synchronized (lock) {
+        lock.writeLock().lock();
+        try {
             this.databaseNodeType = DatabaseNodeType.LEADER;
-            this.temporaryLog = new TemporaryLog();
-            this.updatingFollowerDatabaseNodesThread = new Thread(this.updatingFollowerDatabaseNodesThread);
-            this.updatingFollowerDatabaseNodesThread.start();
+            this.replicationBuffer = new ReplicationBuffer();
+            scheduleUpdatingFollowerDatabaseNodes();
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
@@ -229,8 +346,9 @@ public class DatabaseNode implements ElevatedDatabaseNodeAccess {
         if (LogsConfig.isExtraLoggingEnabled) {
             System.out.printf("[%s]: Starting the replication of data\n", this.databaseNodeName);
         }
+        long sequenceNumber = 0;
         for (var entry : log.entrySet()) {
-             HybridLogicalClock hybridLogicalClock = entry.getKey();
+            HybridLogicalClock hybridLogicalClock = entry.getKey();
             OperationDetails operationDetails = entry.getValue();
             OperationType operationType = operationDetails.getOperationType();
             String key = operationDetails.getKey();
@@ -238,33 +356,101 @@ public class DatabaseNode implements ElevatedDatabaseNodeAccess {
             if (operationType == OperationType.UPDATE) {
                 String value = ((UpdateOperationDetails) operationDetails).getValue();
                 try {
-                    this.replicaWrite(hybridLogicalClock, key, value);
+                    sequenceNumber = Math.max(sequenceNumber, this.replicaWrite(hybridLogicalClock, key, value));
                 } catch (DatabaseNodeInActiveException e) {
                     throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is not active, " +
                                     "so replication of data is unsuccessful\n", this.databaseNodeName));
                 }
             } else {
                 try {
-                    this.replicaDelete(hybridLogicalClock, key);
+                    sequenceNumber = Math.max(sequenceNumber, this.replicaDelete(hybridLogicalClock, key));
                 } catch (DatabaseNodeInActiveException e) {
                     throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is not active, " +
                             "so replication of data is unsuccessful\n", this.databaseNodeName));
                 }
             }
         }
+        // A single sync for the whole batch of replicated logs
+        writeAheadLog.sync(sequenceNumber);
     }
 
     @Override
-    public HybridLogicalClock getMaximumHybridLogicalClock() {
-        synchronized (lock) {
-            return writeAheadLog.getMaximumHybridLogicalClock();
+    public void replicateSnapshotChunk(StateTransferChunk stateTransferChunk, int startingPositionInConsistentHashingRing,
+                                       int endingPositionInConsistentHashingRing) throws DatabaseNodeInActiveException {
+        HybridLogicalClock hybridLogicalClockOfChunk = stateTransferChunk.getHybridLogicalClock();
+        long sequenceNumber = 0;
+        lock.writeLock().lock();
+        try {
+            if (!isActive) {
+                throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
+            }
+            if (hybridLogicalClockOfChunk != null) {
+                // The chunk has every live key of its positions, so a key missing from it was deleted at the source,
+                // unless it was written here after the chunk was read
+                HashSet<String> keysOfChunk = new HashSet<>();
+                for (OperationDetails operationDetails : stateTransferChunk.getLogs().values()) {
+                    keysOfChunk.add(operationDetails.getKey());
+                }
+                Comparator<HybridLogicalClock> hybridLogicalClockComparator = HybridLogicalClockComparator.getHybridLogicalClock();
+                int start = Math.max(startingPositionInConsistentHashingRing, 0);
+                int end = Math.min(endingPositionInConsistentHashingRing, ProxyServerConfig.positionsInTheConsistentHashingRing - 1);
+                for (int positionInConsistentHashingRing = start; positionInConsistentHashingRing <= end; positionInConsistentHashingRing++) {
+                    Set<String> keysOfPosition = keysOfPositionInConsistentHashingRing.get(positionInConsistentHashingRing);
+                    for (String key : new ArrayList<>(keysOfPosition)) {
+                        if (!keysOfChunk.contains(key) && hybridLogicalClockComparator.compare(
+                                data.get(key).getHybridLogicalClock(), hybridLogicalClockOfChunk) < 0) {
+                            sequenceNumber = deleteReplicaCommit(hybridLogicalClockOfChunk, key);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
+        writeAheadLog.sync(sequenceNumber);
+        replicateData(stateTransferChunk.getLogs());
+    }
+
+    @Override
+    public HybridLogicalClock getMaximumHybridLogicalClock() {
+        return writeAheadLog.getMaximumHybridLogicalClock();
+    }
+
+    @Override
+    public boolean isReplicationBufferEmpty() {
+        ReplicationBuffer currentReplicationBuffer = replicationBuffer;
+        return currentReplicationBuffer != null && currentReplicationBuffer.getNumberOfLogsToShip() == 0;
+    }
+
+    @Override
+    public long getRootHashOfData() {
+        return merkleTree.getRootHash();
+    }
+
+    @Override
+    public long[] getHashesOfRangesOfData() {
+        return merkleTree.getHashesOfRanges();
     }
 
     @Override
     public HashMap<HybridLogicalClock, OperationDetails> getLogsAfterTheGivenTimestamp(HybridLogicalClock hybridLogicalClock) {
-        synchronized (lock) {
-            return writeAheadLog.getLogsAfterTheGivenTimestamp(hybridLogicalClock);
+        lock.readLock().lock();
+        try {
+            if (writeAheadLog.isRetainedAfter(hybridLogicalClock)) {
+                return writeAheadLog.getLogsAfterTheGivenTimestamp(hybridLogicalClock);
+            }
+            if (LogsConfig.isExtraLoggingEnabled) {
+                System.out.printf("[%s]: The logs after the given timestamp were truncated, sending the live keys instead\n",
+                        this.databaseNodeName);
+            }
+            LinkedHashMap<String, Map.Entry<HybridLogicalClock, OperationDetails>> logsOfKeys = new LinkedHashMap<>();
+            for (var entry : getLogsOfLiveKeys()) {
+                logsOfKeys.put(entry.getValue().getKey(), entry);
+            }
+            addLatestLogsOfKeys(logsOfKeys, writeAheadLog.getLogsAfterTheGivenTimestamp(hybridLogicalClock));
+            return getLogsKeyedByHybridLogicalClock(logsOfKeys.values());
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
@@ -272,17 +458,29 @@ public class DatabaseNode implements ElevatedDatabaseNodeAccess {
     public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
             int startingPositionInConsistentHashingRing, int endPositionInConsistentHashingRing
     ) throws DatabaseNodeInActiveException, NotLeaderException {
-        synchronized (lock) {
+        lock.readLock().lock();
+        try {
             if (!isActive) {
                 throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
             }
             if (databaseNodeType != DatabaseNodeType.LEADER) {
                 throw new NotLeaderException(String.format("[%s]: The database node is not a leader node.", this.databaseNodeName));
             }
-            return writeAheadLog.getLogsInRangeOfConsistentHashingPosition(
+            HashMap<HybridLogicalClock, OperationDetails> logsInRange = writeAheadLog.getLogsInRangeOfConsistentHashingPosition(
                     startingPositionInConsistentHashingRing,
                     endPositionInConsistentHashingRing
             );
+            if (writeAheadLog.isRetainedAfter(null)) {
+                return logsInRange;
+            }
+            // The live keys of the range, with the later logs retained after the checkpoint, like the deletes
+            LinkedHashMap<String, Map.Entry<HybridLogicalClock, OperationDetails>> logsOfKeysInRange = new LinkedHashMap<>();
+            addLogsOfLiveKeysInRange(logsOfKeysInRange, startingPositionInConsistentHashingRing,
+                    endPositionInConsistentHashingRing);
+            addLatestLogsOfKeys(logsOfKeysInRange, logsInRange);
+            return getLogsKeyedByHybridLogicalClock(logsOfKeysInRange.values());
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
@@ -291,212 +489,532 @@ public class DatabaseNode implements ElevatedDatabaseNodeAccess {
             int startingPositionInConsistentHashingRing, int intermediateEndingPositionInConsistentHashingRing,
             int intermediateStartingPositonInConsistentHashingRing, int endingPositionInConsistentHashingRing
     ) throws DatabaseNodeInActiveException, NotLeaderException {
-        synchronized (lock) {
+        lock.readLock().lock();
+        try {
             if (!isActive) {
                 throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
             }
             if (databaseNodeType != DatabaseNodeType.LEADER) {
                 throw new NotLeaderException(String.format("[%s]: The database node is not a leader node.", this.databaseNodeName));
             }
-            return writeAheadLog.getLogsInRangeOfConsistentHashingPosition(
+            HashMap<HybridLogicalClock, OperationDetails> logsInRange = writeAheadLog.getLogsInRangeOfConsistentHashingPosition(
                     startingPositionInConsistentHashingRing,
                     intermediateEndingPositionInConsistentHashingRing,
                     intermediateStartingPositonInConsistentHashingRing,
                     endingPositionInConsistentHashingRing
             );
+            if (writeAheadLog.isRetainedAfter(null)) {
+                return logsInRange;
+            }
+            LinkedHashMap<String, Map.Entry<HybridLogicalClock, OperationDetails>> logsOfKeysInRange = new LinkedHashMap<>();
+            addLogsOfLiveKeysInRange(logsOfKeysInRange, startingPositionInConsistentHashingRing,
+                    intermediateEndingPositionInConsistentHashingRing);
+            addLogsOfLiveKeysInRange(logsOfKeysInRange, intermediateStartingPositonInConsistentHashingRing,
+                    endingPositionInConsistentHashingRing);
+            addLatestLogsOfKeys(logsOfKeysInRange, logsInRange);
+            return getLogsKeyedByHybridLogicalClock(logsOfKeysInRange.values());
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
     @Override
-    public HashMap<HybridLogicalClock, OperationDetails> getLogs() throws DatabaseNodeInActiveException, NotLeaderException {
-        synchronized (lock) {
+    public StateTransferChunk getSnapshotChunkOfRange(int startingPositionInConsistentHashingRing,
+                                                      int endingPositionInConsistentHashingRing, int numberOfKeys)
+            throws DatabaseNodeInActiveException, NotLeaderException {
+        lock.readLock().lock();
+        try {
             if (!isActive) {
                 throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
             }
             if (databaseNodeType != DatabaseNodeType.LEADER) {
                 throw new NotLeaderException(String.format("[%s]: The database node is not a leader node.", this.databaseNodeName));
             }
-            return writeAheadLog.getLogs();
+            // Taken before the keys are read, so that a write landing on a position already read is in the logs after it
+            HybridLogicalClock hybridLogicalClockOfChunk = writeAheadLog.getMaximumHybridLogicalClock();
+            // Whole positions are added until the chunk has enough keys, so that the next chunk starts at a position
+            LinkedHashMap<String, Map.Entry<HybridLogicalClock, OperationDetails>> logsOfKeys = new LinkedHashMap<>();
+            int positionInConsistentHashingRing = Math.max(startingPositionInConsistentHashingRing, 0);
+            int endingPosition = Math.min(endingPositionInConsistentHashingRing,
+                    ProxyServerConfig.positionsInTheConsistentHashingRing - 1);
+            while (positionInConsistentHashingRing <= endingPosition && logsOfKeys.size() < numberOfKeys) {
+                addLogsOfLiveKeysInRange(logsOfKeys, positionInConsistentHashingRing, positionInConsistentHashingRing);
+                positionInConsistentHashingRing++;
+            }
+            return new StateTransferChunk(hybridLogicalClockOfChunk, getLogsKeyedByHybridLogicalClock(logsOfKeys.values()),
+                    positionInConsistentHashingRing <= endingPosition ? positionInConsistentHashingRing : -1);
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
     @Override
-    public void run() {
-        while (true) {
-            try {
-                Thread.sleep(10000L * RandomHelper.getRandomIntegerInRange(5, 11));
-                if (isActive) {
-                    cleaningUpBeforeScalingDown();
-                } else {
-                    startingUpAfterScalingUp();
-                }
-            } catch (InterruptedException e) {
-                throw new RuntimeException(String.format("[%s]: Interrupted exception from scaling up and down thread.",
-                        this.databaseNodeName));
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+            int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing,
+            HybridLogicalClock hybridLogicalClock
+    ) throws DatabaseNodeInActiveException, NotLeaderException {
+        lock.readLock().lock();
+        try {
+            if (!isActive) {
+                throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
+            }
+            if (databaseNodeType != DatabaseNodeType.LEADER) {
+                throw new NotLeaderException(String.format("[%s]: The database node is not a leader node.", this.databaseNodeName));
+            }
+            if (writeAheadLog.isRetainedAfter(hybridLogicalClock)) {
+                return writeAheadLog.getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+                        startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing, hybridLogicalClock);
             }
+            // The logs after the given timestamp were truncated by a checkpoint in the meantime, so the live keys of the
+            // range are sent again, followed by the retained logs
+            LinkedHashMap<String, Map.Entry<HybridLogicalClock, OperationDetails>> logsOfKeys = new LinkedHashMap<>();
+            addLogsOfLiveKeysInRange(logsOfKeys, startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing);
+            addLatestLogsOfKeys(logsOfKeys, writeAheadLog.getLogsInRangeOfConsistentHashingPosition(
+                    startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing));
+            return getLogsKeyedByHybridLogicalClock(logsOfKeys.values());
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
+    // Scales this database node down when it is active and up when it is not, the root node runs it periodically
+    @Override
+    public void run() {
+        if (isActive) {
+            cleaningUpBeforeScalingDown();
+        } else {
+            startingUpAfterScalingUp();
+        }
+    }
+
+    private HybridLogicalClock getHybridLogicalClockOfWrite(OperationResult operationResult) throws
+            DatabaseNodeInActiveException, NotLeaderException {
+        return switch (operationResult.getOperationStatus()) {
+            case SUCCESS -> operationResult.getHybridLogicalClock();
+            case NOT_LEADER -> throw new NotLeaderException(String.format("[%s]: The database node is not a leader node.",
+                    this.databaseNodeName));
+            default -> throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.",
+                    this.databaseNodeName));
+        };
+    }
+
     private HybridLogicalClock getHybridLogicalClock(HybridLogicalClock hybridLogicalClock,
                                                      HybridLogicalClock currentHybridLogicalClock) {
-        HybridLogicalClock newHybridLogicalClock;
-        if (hybridLogicalClock.getPhysicalClock().isAfter(currentHybridLogicalClock.getPhysicalClock())) {
-            newHybridLogicalClock = new HybridLogicalClock(
-                    hybridLogicalClock.getPhysicalClock(),
-                    hybridLogicalClock.getLogicalClock().add(BigInteger.ONE)
-            );
-        } else if (hybridLogicalClock.getPhysicalClock().isEqual(currentHybridLogicalClock.getPhysicalClock())) {
-            if (hybridLogicalClock.getLogicalClock().compareTo(currentHybridLogicalClock.getLogicalClock()) >= 0) {
-                newHybridLogicalClock = new HybridLogicalClock(
-                        hybridLogicalClock.getPhysicalClock(),
-                        Collections.max(Arrays.asList(hybridLogicalClock.getLogicalClock(),
-                                currentHybridLogicalClock.getLogicalClock())).add(BigInteger.ONE)
-                );
-            } else {
-                return null;
-            }
-        } else {
+        // The physical clock is in the upper bits, so a later or an equal physical clock with a logical clock which is not
+        // behind is a packed clock which is not smaller
+        if (hybridLogicalClock.compareTo(currentHybridLogicalClock) < 0) {
             return null;
         }
-        return newHybridLogicalClock;
+        return hybridLogicalClock.incrementLogicalClockByOne();
     }
 
-    private void replicaWrite(HybridLogicalClock hybridLogicalClock, String key, String value) throws DatabaseNodeInActiveException {
-        synchronized (lock) {
+    private long replicaWrite(HybridLogicalClock hybridLogicalClock, String key, String value) throws DatabaseNodeInActiveException {
+        lock.readLock().lock();
+        try {
             if (!isActive) {
                 throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
             }
-            if (data.containsKey(key)) {
+            synchronized (getLockOfKey(key)) {
                 Value valueObject = data.get(key);
-                HybridLogicalClock currentHybridLogicalClock = valueObject.getHybridLogicalClock();
+                if (valueObject != null) {
+                    HybridLogicalClock currentHybridLogicalClock = valueObject.getHybridLogicalClock();
 
-                HybridLogicalClock newHybridLogicalClock = getHybridLogicalClock(hybridLogicalClock, currentHybridLogicalClock);
+                    HybridLogicalClock newHybridLogicalClock = getHybridLogicalClock(hybridLogicalClock, currentHybridLogicalClock);
 
-                if (newHybridLogicalClock == null) {
+                    if (newHybridLogicalClock == null) {
+                        if (LogsConfig.isExtraLoggingEnabled) {
+                            System.out.printf("[%s]: The replica write request timestamp is older than the records timestamp, so " +
+                                    "not performing the replica write request\n", this.databaseNodeName);
+                        }
+                        return 0;
+                    }
                     if (LogsConfig.isExtraLoggingEnabled) {
-                        System.out.printf("[%s]: The replica write request timestamp is older than the records timestamp, so " +
-                                "not performing the replica write request\n", this.databaseNodeName);
+                        System.out.printf("[%s]: Executing the replica write request\n", this.databaseNodeName);
                     }
-                    return;
-                }
-                if (LogsConfig.isExtraLoggingEnabled) {
-                    System.out.printf("[%s]: Executing the replica write request\n", this.databaseNodeName);
+                    return updateReplicaCommit(newHybridLogicalClock, key, value);
+                } else {
+                    return updateReplicaCommit(hybridLogicalClock.incrementLogicalClockByOne(), key, value);
                 }
-                updateReplicaCommit(newHybridLogicalClock, key, value);
-            } else {
-                hybridLogicalClock.incrementLogicalClockByOne();
-                updateReplicaCommit(hybridLogicalClock, key, value);
             }
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
-    private void replicaDelete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException {
-        synchronized (lock) {
+    private long replicaDelete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException {
+        lock.readLock().lock();
+        try {
             if (!isActive) {
                 throw new DatabaseNodeInActiveException(String.format("[%s]: The database node is inactive.", this.databaseNodeName));
             }
-            if (data.containsKey(key)) {
+            synchronized (getLockOfKey(key)) {
                 Value valueObject = data.get(key);
-                HybridLogicalClock currentHybridLogicalClock = valueObject.getHybridLogicalClock();
-
-                HybridLogicalClock newHybridLogicalClock = getHybridLogicalClock(hybridLogicalClock, currentHybridLogicalClock);
-                if (newHybridLogicalClock == null) {
+                if (valueObject != null) {
+                    HybridLogicalClock currentHybridLogicalClock = valueObject.getHybridLogicalClock();
+
+                    HybridLogicalClock newHybridLogicalClock = getHybridLogicalClock(hybridLogicalClock, currentHybridLogicalClock);
+                    if (newHybridLogicalClock == null) {
+                        if (LogsConfig.isExtraLoggingEnabled) {
+                            System.out.printf("[%s]: The replica delete request timestamp is older than the records timestamp, so " +
+                                    "not performing the replica delete request\n", this.databaseNodeName);
+                        }
+                        return 0;
+                    }
                     if (LogsConfig.isExtraLoggingEnabled) {
-                        System.out.printf("[%s]: The replica delete request timestamp is older than the records timestamp, so " +
-                                "not performing the replica delete request\n", this.databaseNodeName);
+                        System.out.printf("[%s]: Executing the replica delete request\n", this.databaseNodeName);
                     }
-                    return;
+                    return deleteReplicaCommit(newHybridLogicalClock, key);
                 }
-                if (LogsConfig.isExtraLoggingEnabled) {
-                    System.out.printf("[%s]: Executing the replica delete request\n", this.databaseNodeName);
-                }
-                deleteReplicaCommit(newHybridLogicalClock, key);
+                return 0;
             }
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
     private void startingUpAfterScalingUp() {
-        synchronized (lock) {
+        lock.writeLock().lock();
+        try {
             if (isActive) {
                 return;
             }
             System.out.printf("[%s]: Starting up after scaling up this database node\n", this.databaseNodeName);
             scalingUp();
-            this.updatingHeartBeatThread = new Thread(this.updatingHeartBeatThread);
-            this.updatingHeartBeatThread.start();
-            this.replicationOFDataUsingNeighbourDatabaseNodes = new Thread(this.replicationOFDataUsingNeighbourDatabaseNodes);
-            this.replicationOFDataUsingNeighbourDatabaseNodes.start();
+            schedulePeriodicTasks();
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
     private void cleaningUpBeforeScalingDown() {
-        synchronized (lock) {
+        lock.writeLock().lock();
+        try {
             if (!isActive) {
                 return;
             }
             System.out.printf("[%s]: Cleaning up before scaling down this database node\n", this.databaseNodeName);
             scalingDown();
             if (databaseNodeType == DatabaseNodeType.LEADER) {
-                updatingFollowerDatabaseNodesThread.interrupt();
-                temporaryLog = null;
+                updatingFollowerDatabaseNodesTask.cancel();
+                updatingFollowerDatabaseNodesTask = null;
+                replicationBuffer = null;
                 databaseNodeType = DatabaseNodeType.FOLLOWER;
             }
-            updatingHeartBeatThread.interrupt();
-            replicationOFDataUsingNeighbourDatabaseNodes.interrupt();
+            cancelPeriodicTasks();
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
-    private void updateCommit(HybridLogicalClock hybridLogicalClock, String key, String value) {
-        synchronized (lock) {
-            temporaryLog.addUpdateLog(hybridLogicalClock, key, value);
-            writeAheadLog.addUpdateLog(hybridLogicalClock, key, value);
-            if (data.containsKey(key)) {
-                Value valueObject = data.get(key);
-                valueObject.setValue(value);
-                valueObject.setHybridLogicalClock(hybridLogicalClock);
-            } else {
-                data.put(key, new Value(hybridLogicalClock, value));
+    private void scheduleUpdatingFollowerDatabaseNodes() {
+        if (updatingFollowerDatabaseNodesTask != null) {
+            updatingFollowerDatabaseNodesTask.cancel();
+        }
+        System.out.printf("[%s]: Scheduling the updating of the follower database nodes with the latest data\n",
+                this.databaseNodeName);
+        updatingFollowerDatabaseNodesTask = periodicTaskScheduler.scheduleBlockingTaskWithFixedDelay(
+                String.format("%s: Updating the follower database nodes", this.databaseNodeName),
+                this::updateFollowerDatabaseNodes, DatabaseNodeConfig.cooldownTimeForUpdatingDataInFollowerDatabaseNodes);
+    }
+
+    private void schedulePeriodicTasks() {
+        System.out.printf("[%s]: Scheduling the heart beat requests to the root node\n", this.databaseNodeName);
+        updatingHeartBeatTask = periodicTaskScheduler.scheduleWithFixedDelay(
+                String.format("%s: Updating the heart beat", this.databaseNodeName),
+                () -> rootNode.updateHeartBeat(this), DatabaseNodeConfig.cooldownTimeForUpdatingHeartBeat);
+        replicationOfDataUsingNeighbourDatabaseNodesTask = periodicTaskScheduler.scheduleBlockingTaskWithFixedDelay(
+                String.format("%s: Replication of data using the neighbour database nodes", this.databaseNodeName),
+                this::replicateDataUsingNeighbourDatabaseNodes,
+                DatabaseNodeConfig.cooldownTimeForReplicationOfDataUsingNeighbourDatabaseNodes);
+        checkpointingWriteAheadLogTask = periodicTaskScheduler.scheduleBlockingTaskWithFixedDelay(
+                String.format("%s: Checkpointing the write ahead log", this.databaseNodeName),
+                this::checkpointWriteAheadLogAndRebuildBloomFilterOfKeys,
+                DatabaseNodeConfig.cooldownTimeForCheckpointingWriteAheadLog);
+    }
+
+    private void cancelPeriodicTasks() {
+        updatingHeartBeatTask.cancel();
+        replicationOfDataUsingNeighbourDatabaseNodesTask.cancel();
+        checkpointingWriteAheadLogTask.cancel();
+        System.out.printf("[%s]: Updating the heart beat is stopped\n", this.databaseNodeName);
+    }
+
+    private void updateFollowerDatabaseNodes() {
+        ReplicationBuffer currentReplicationBuffer = replicationBuffer;
+        if (currentReplicationBuffer == null) {
+            return;
+        }
+        // Shipping the logs in micro batches until the buffer is empty, a failed batch stays for the next time
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logs;
+        while (!(logs = currentReplicationBuffer.getLogsAfterCursor(
+                DatabaseNodeConfig.maximumNumberOfLogsPerReplicationBatch)).isEmpty()) {
+            try {
+                this.rootNode.replicationOfDataOfLeaderDatabaseNode(this, logs);
+                currentReplicationBuffer.acknowledgeLogsAfterCursor();
+            } catch (DatabaseNodeInActiveException e) {
+                System.out.printf("[%s]: Exception while doing periodic replication of data: %s\n",
+                        this.databaseNodeName, e.getMessage());
+                break;
             }
         }
     }
 
-    private void updateReplicaCommit(HybridLogicalClock hybridLogicalClock, String key, String value) {
-        synchronized (lock) {
-            writeAheadLog.addUpdateLog(hybridLogicalClock, key, value);
-            if (data.containsKey(key)) {
-                Value valueObject = data.get(key);
-                valueObject.setValue(value);
-                valueObject.setHybridLogicalClock(hybridLogicalClock);
-            } else {
-                data.put(key, new Value(hybridLogicalClock, value));
+    private void replicateDataUsingNeighbourDatabaseNodes() {
+        try {
+            if (LogsConfig.isExtraLoggingEnabled) {
+                System.out.printf("[%s]: Starting replication of data using the neighbour database nodes\n",
+                        this.databaseNodeName);
+            }
+            rootNode.replicationOfDataBetweenDatabaseNodes(this);
+        } catch (Exception e) {
+            if (LogsConfig.isExtraLoggingEnabled) {
+                System.out.printf("[%s]: Exception thrown in the replication of data using the neighbour database nodes\n",
+                        this.databaseNodeName);
+            }
+        }
+    }
+
+    private void checkpointWriteAheadLogAndRebuildBloomFilterOfKeys() {
+        try {
+            checkpointWriteAheadLog();
+            rebuildBloomFilterOfKeysIfFull();
+        } catch (Exception e) {
+            System.out.printf("[%s]: Exception while checkpointing the write ahead log: %s\n",
+                    this.databaseNodeName, e.getMessage());
+        }
+    }
+
+    private long updateCommit(HybridLogicalClock hybridLogicalClock, String key, String value) {
+        replicationBuffer.addUpdateLog(hybridLogicalClock, key, value);
+        long sequenceNumber = writeAheadLog.addUpdateLog(hybridLogicalClock, key, value);
+        putData(key, hybridLogicalClock, value);
+        return sequenceNumber;
+    }
+
+    private long updateReplicaCommit(HybridLogicalClock hybridLogicalClock, String key, String value) {
+        long sequenceNumber = writeAheadLog.addUpdateLog(hybridLogicalClock, key, value);
+        putData(key, hybridLogicalClock, value);
+        return sequenceNumber;
+    }
+
+    private long deleteCommit(HybridLogicalClock hybridLogicalClock, String key) {
+        replicationBuffer.addDeleteLog(hybridLogicalClock, key);
+        long sequenceNumber = writeAheadLog.addDeleteLog(hybridLogicalClock, key);
+        removeData(key);
+        return sequenceNumber;
+    }
+
+    private long deleteReplicaCommit(HybridLogicalClock hybridLogicalClock, String key) {
+        long sequenceNumber = writeAheadLog.addDeleteLog(hybridLogicalClock, key);
+        removeData(key);
+        return sequenceNumber;
+    }
+
+    private WriteAheadLog createWriteAheadLog() {
+        if (!WriteAheadLogConfig.isDurableWriteAheadLogEnabled) {
+            return new WriteAheadLog();
+        }
+        Path directory = Path.of(WriteAheadLogConfig.directory, this.databaseNodeName.replace(' ', '_'));
+        return new WriteAheadLog(new WriteAheadLogFile(directory, WriteAheadLogConfig.commitPolicy,
+                WriteAheadLogConfig.segmentSizeBytes, WriteAheadLogConfig.groupCommitWindowMicroseconds,
+                WriteAheadLogConfig.groupCommitMaxBytes));
+    }
+
+    private void recoverDataFromWriteAheadLog() {
+        // The live keys of the checkpoint first, then the logs written after it
+        writeAheadLog.replayRecoveredCheckpoint(this::applyRecoveredLog);
+        if (writeAheadLog.isEmpty() && data.isEmpty()) {
+            return;
+        }
+        writeAheadLog.forEach(this::applyRecoveredLog);
+        System.out.printf("[%s]: Recovered %d keys from the write ahead log\n", this.databaseNodeName, data.size());
+    }
+
+    private void applyRecoveredLog(HybridLogicalClock hybridLogicalClock, OperationDetails operationDetails) {
+        String key = operationDetails.getKey();
+        if (operationDetails.getOperationType() == OperationType.UPDATE) {
+            putData(key, hybridLogicalClock, ((UpdateOperationDetails) operationDetails).getValue());
+        } else {
+            removeData(key);
+        }
+    }
+
+    // Truncates the logs which every database node of the root node has received, after writing the live keys to the
+    // checkpoint of a durable write ahead log
+    private void checkpointWriteAheadLog() {
+        HybridLogicalClock acknowledgedHybridLogicalClock = rootNode.getAcknowledgedHybridLogicalClock();
+        WriteAheadLogCheckpoint checkpoint;
+        lock.writeLock().lock();
+        try {
+            if (!isActive || writeAheadLog.getNumberOfLogsAddedSinceCheckpoint() < WriteAheadLogConfig.numberOfLogsBetweenCheckpoints) {
+                return;
+            }
+            checkpoint = writeAheadLog.createCheckpoint(this::getLogsOfLiveKeys);
+            if (acknowledgedHybridLogicalClock != null) {
+                writeAheadLog.truncateBefore(acknowledgedHybridLogicalClock);
             }
+            // Dropping the keys deleted since the last rebuild
+            if (bloomFilterOfKeys != null) {
+                bloomFilterOfKeys = createBloomFilterOfKeys();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Writing the checkpoint outside the lock, the segments it covers stay until it is written
+        writeAheadLog.writeCheckpoint(checkpoint);
+        if (LogsConfig.isExtraLoggingEnabled) {
+            System.out.printf("[%s]: Checkpointed the write ahead log\n", this.databaseNodeName);
+        }
+    }
+
+    private void rebuildBloomFilterOfKeysIfFull() {
+        if (bloomFilterOfKeys == null || !bloomFilterOfKeys.isFull()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            bloomFilterOfKeys = createBloomFilterOfKeys();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (LogsConfig.isExtraLoggingEnabled) {
+            System.out.printf("[%s]: Rebuilt the bloom filter of %d keys\n", this.databaseNodeName, data.size());
         }
     }
 
-    private void deleteCommit(HybridLogicalClock hybridLogicalClock, String key) {
-        synchronized (lock) {
-            temporaryLog.addDeleteLog(hybridLogicalClock, key);
-            writeAheadLog.addDeleteLog(hybridLogicalClock, key);
-            data.remove(key);
+    // Sized for twice the live keys, so that it is not full again right away. Called with the lock held exclusively,
+    // or before the database node is started, so that no key is added while the live keys are read.
+    private BloomFilterOfKeys createBloomFilterOfKeys() {
+        if (!DatabaseNodeConfig.isBloomFilterOfKeysEnabled) {
+            return null;
+        }
+        BloomFilterOfKeys newBloomFilterOfKeys = new BloomFilterOfKeys(
+                Math.max(DatabaseNodeConfig.minimumNumberOfKeysInBloomFilter, 2 * data.size()),
+                DatabaseNodeConfig.falsePositiveRateOfBloomFilter);
+        for (String key : data.keySet()) {
+            newBloomFilterOfKeys.add(key);
         }
+        return newBloomFilterOfKeys;
     }
 
-    private void deleteReplicaCommit(HybridLogicalClock hybridLogicalClock, String key) {
-        synchronized (lock) {
-            writeAheadLog.addDeleteLog(hybridLogicalClock, key);
-            data.remove(key);
+    // A key the bloom filter has never seen is a miss without looking up the data
+    private Value getData(String key) {
+        BloomFilterOfKeys currentBloomFilterOfKeys = bloomFilterOfKeys;
+        if (currentBloomFilterOfKeys != null && !currentBloomFilterOfKeys.mightContain(key)) {
+            return null;
         }
+        return data.get(key);
+    }
+
+    // The live keys as update logs, in place of the logs truncated by a checkpoint. The logs are only truncated once
+    // every database node has acknowledged them, so the keys deleted before the checkpoint are not needed.
+    private List<Map.Entry<HybridLogicalClock, OperationDetails>> getLogsOfLiveKeys() {
+        List<Map.Entry<HybridLogicalClock, OperationDetails>> logsOfLiveKeys = new ArrayList<>(data.size());
+        for (Map.Entry<String, Value> entry : data.entrySet()) {
+            Value value = entry.getValue();
+            logsOfLiveKeys.add(new AbstractMap.SimpleImmutableEntry<>(value.getHybridLogicalClock(),
+                    new UpdateOperationDetails(OperationType.UPDATE, entry.getKey(), value.getValue())));
+        }
+        return logsOfLiveKeys;
+    }
+
+    // Keyed by the key, so that two keys which happen to share a hybrid logical clock are both kept
+    private void addLogsOfLiveKeysInRange(LinkedHashMap<String, Map.Entry<HybridLogicalClock, OperationDetails>> logsOfKeys,
+                                          int startingPositionInConsistentHashingRing,
+                                          int endingPositionInConsistentHashingRing) {
+        int start = Math.max(startingPositionInConsistentHashingRing, 0);
+        int end = Math.min(endingPositionInConsistentHashingRing, ProxyServerConfig.positionsInTheConsistentHashingRing - 1);
+        for (int positionInConsistentHashingRing = start; positionInConsistentHashingRing <= end; positionInConsistentHashingRing++) {
+            for (String key : keysOfPositionInConsistentHashingRing.get(positionInConsistentHashingRing)) {
+                Value value = data.get(key);
+                if (value == null) {
+                    // Deleted by a concurrent writer after the keys of the position were read
+                    continue;
+                }
+                logsOfKeys.put(key, new AbstractMap.SimpleImmutableEntry<>(value.getHybridLogicalClock(),
+                        new UpdateOperationDetails(OperationType.UPDATE, key, value.getValue())));
+            }
+        }
+    }
+
+    // The retained logs which are later than the live value of their key, like the deletes of the keys which are gone
+    private void addLatestLogsOfKeys(LinkedHashMap<String, Map.Entry<HybridLogicalClock, OperationDetails>> logsOfKeys,
+                                     HashMap<HybridLogicalClock, OperationDetails> logs) {
+        for (var entry : logs.entrySet()) {
+            Map.Entry<HybridLogicalClock, OperationDetails> logOfKey = logsOfKeys.get(entry.getValue().getKey());
+            if (logOfKey == null || entry.getKey().compareTo(logOfKey.getKey()) > 0) {
+                logsOfKeys.put(entry.getValue().getKey(), entry);
+            }
+        }
+    }
+
+    // The maps of logs compare the hybrid logical clocks by identity, a clock instance shared by two keys is copied so
+    // that both keys are kept
+    private LinkedHashMap<HybridLogicalClock, OperationDetails> getLogsKeyedByHybridLogicalClock(
+            Collection<Map.Entry<HybridLogicalClock, OperationDetails>> logsOfKeys) {
+        LinkedHashMap<HybridLogicalClock, OperationDetails> logs = new LinkedHashMap<>();
+        for (var entry : logsOfKeys) {
+            HybridLogicalClock hybridLogicalClock = entry.getKey();
+            if (logs.containsKey(hybridLogicalClock)) {
+                hybridLogicalClock = HybridLogicalClock.fromPackedClock(hybridLogicalClock.getPackedClock());
+            }
+            logs.put(hybridLogicalClock, entry.getValue());
+        }
+        return logs;
+    }
+
+    // Called under the lock of the key, or with the lock of the node held exclusively
+    private void putData(String key, HybridLogicalClock hybridLogicalClock, String value) {
+        Value previousValue = data.put(key, new Value(hybridLogicalClock, value));
+        if (previousValue != null && previousValue.getValue().equals(value)) {
+            return;
+        }
+        int positionInConsistentHashingRing = HashingHelper.hash(key);
+        if (previousValue == null) {
+            // The writers hold the lock shared, so the bloom filter is not replaced in between
+            BloomFilterOfKeys currentBloomFilterOfKeys = bloomFilterOfKeys;
+            if (currentBloomFilterOfKeys != null) {
+                currentBloomFilterOfKeys.add(key);
+            }
+            keysOfPositionInConsistentHashingRing.get(positionInConsistentHashingRing).add(key);
+        } else {
+            merkleTree.updateHash(positionInConsistentHashingRing, HashingHelper.hash(key, previousValue.getValue()));
+        }
+        merkleTree.updateHash(positionInConsistentHashingRing, HashingHelper.hash(key, value));
+    }
+
+    private void removeData(String key) {
+        Value previousValue = data.remove(key);
+        if (previousValue != null) {
+            int positionInConsistentHashingRing = HashingHelper.hash(key);
+            keysOfPositionInConsistentHashingRing.get(positionInConsistentHashingRing).remove(key);
+            merkleTree.updateHash(positionInConsistentHashingRing, HashingHelper.hash(key, previousValue.getValue()));
+        }
+    }
+
+    private Object getLockOfKey(String key) {
+        return locksOfKeys[getIndexOfLockOfKey(key)];
+    }
+
+    private int getIndexOfLockOfKey(String key) {
+        return Math.floorMod(key.hashCode(), locksOfKeys.length);
     }
 
     private void scalingDown() {
-        synchronized (lock) {
+        lock.writeLock().lock();
+        try {
             this.isActive = false;
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
     private void scalingUp() {
-        synchronized (lock) {
+        lock.writeLock().lock();
+        try {
             this.isActive = true;
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 }
@@ -1,11 +1,18 @@
 package node.impl;
 
 import config.LogsConfig;
+import config.ProxyServerConfig;
 import config.RootNodeConfig;
 import data.DatabaseNodeType;
 import data.HybridLogicalClock;
+import data.MerkleTreeOfConsistentHashingRing;
+import data.OperationResult;
+import data.OperationStatus;
+import data.StateTransferChunk;
+import data.Value;
 import data.operationDetails.OperationDetails;
 import exception.*;
+import node.databaseNode.DatabaseNodeAccess;
 import node.databaseNode.ElevatedDatabaseNodeAccess;
 import node.databaseNode.FollowerDatabaseNodeAccess;
 import node.databaseNode.LeaderDatabaseNodeAccess;
@@ -13,13 +20,20 @@ import node.rootNode.BasicRootNodeAccess;
 import node.rootNode.ElevatedRootNodeAccess;
 import server.ElevatedProxyServer;
 import service.AsyncReplicationService;
+import service.FollowerReplicationStream;
+import service.HedgedReadExecutor;
+import service.PeriodicTask;
+import service.PeriodicTaskScheduler;
 import util.HybridLogicalClockComparator;
 import util.RandomHelper;
+import util.followerSelector.FollowerSelector;
+import util.followerSelector.PowerOfTwoChoicesFollowerSelector;
+import util.followerSelector.RoundRobinFollowerSelector;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
     private final int rootNodeId;
@@ -27,14 +41,20 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
     private final HashMap<ElevatedDatabaseNodeAccess, LocalDateTime> databaseNodesHeartBeat;
     private final HashMap<ElevatedDatabaseNodeAccess, Boolean> databaseNodesStatus;
     private final HashMap<ElevatedDatabaseNodeAccess, HybridLogicalClock> maximumHybridLogicalTimestampOfDatabaseNodes;
-    private LeaderDatabaseNodeAccess leaderDatabaseNode;
+    private volatile LeaderDatabaseNodeAccess leaderDatabaseNode;
     private final List<FollowerDatabaseNodeAccess> followerDatabaseNodes;
     private boolean isActive;
-    private Thread cleaningInactiveDatabaseNodes;
+    private final PeriodicTaskScheduler periodicTaskScheduler = PeriodicTaskScheduler.getPeriodicTaskScheduler();
+    private PeriodicTask cleaningInactiveDatabaseNodesTask;
     private final Object lock = new Object();
-    private final AtomicInteger index = new AtomicInteger(0);
+    private final FollowerSelector followerSelector;
+    // Null unless hedged reads are enabled
+    private final HedgedReadExecutor hedgedReadExecutor;
     private final AsyncReplicationService asyncReplicationService;
-    private Thread updateHeartBeatProxyServer;
+    // A replication stream for every database node, including the leader which acknowledges its own batches
+    private final List<FollowerReplicationStream> replicationStreams;
+    private PeriodicTask updatingHeartBeatProxyServerTask;
+    private final List<PeriodicTask> scalingOfDatabaseNodesTasks;
     private final ElevatedProxyServer proxyServer;
     private final Object dataLock = new Object();
 
@@ -47,171 +67,251 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
         this.followerDatabaseNodes = new ArrayList<>();
         this.isActive = true;
         this.proxyServer = proxyServer;
-        this.asyncReplicationService = new AsyncReplicationService();
-        Thread asyncReplicationServiceThread = new Thread(this.asyncReplicationService);
-        asyncReplicationServiceThread.start();
+        this.replicationStreams = new ArrayList<>();
+        this.scalingOfDatabaseNodesTasks = new ArrayList<>();
+        this.followerSelector = switch (RootNodeConfig.followerSelectionPolicy) {
+            case ROUND_ROBIN -> new RoundRobinFollowerSelector();
+            case POWER_OF_TWO_CHOICES -> new PowerOfTwoChoicesFollowerSelector();
+        };
+        this.hedgedReadExecutor = RootNodeConfig.isHedgedReadEnabled ? new HedgedReadExecutor() : null;
+        this.asyncReplicationService = new AsyncReplicationService(this.rootNodeName);
 
         this.leaderDatabaseNode = getAndStartLeaderDatabaseNode();
         startFollowerDatabaseNode(numberOfDatabaseNodes - 1);
 
-        this.cleaningInactiveDatabaseNodes = new Thread(() -> {
-            while (true) {
-                try {
-                    Thread.sleep(RootNodeConfig.cooldownTimeForCheckingHeartBeat);
-                } catch (InterruptedException e) {
-                    System.out.printf("[%s]: Cleaning Inactive database node thread is stopped\n", this.rootNodeName);
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-
-                if (LogsConfig.isLeaderRootNodeCleaningInactiveDatabaseNodesLoggingEnabled) {
-                    System.out.printf("[%s]: Leader Node data size: %d\n", rootNodeName, leaderDatabaseNode.getDataSize());
-                }
-
-                if (LogsConfig.isCleaningInactiveDatabaseNodesLoggingEnabled) {
-                    System.out.printf("[%s]: Checking if any database is inactive, using the last heart beat\n", this.rootNodeName);
-                }
-                // Checking heart beat for all the follower database nodes
-                List<FollowerDatabaseNodeAccess> followerDatabaseNodesToRemove = new ArrayList<>();
-                // Creating a consistent view of the follower database nodes
-                List<FollowerDatabaseNodeAccess> followerDatabaseNodesCopy;
-                synchronized (dataLock) {
-                    followerDatabaseNodesCopy = new ArrayList<>(followerDatabaseNodes);
-                }
+        schedulePeriodicTasks();
+    }
 
-                for (var databaseNode : followerDatabaseNodesCopy) {
-                    long timeDifference = Duration.between(databaseNodesHeartBeat.get((ElevatedDatabaseNodeAccess) databaseNode),
-                            LocalDateTime.now()).getSeconds();
-                    if (LogsConfig.isCleaningInactiveDatabaseNodesLoggingEnabled) {
-                        System.out.printf("[%s]: %s %d %d ; %d\n", this.rootNodeName, databaseNode.getDatabaseNodeName(),
-                                timeDifference, RootNodeConfig.heartBeatTimeoutSeconds, databaseNode.getDataSize());
-                    }
-                    if (timeDifference > RootNodeConfig.heartBeatTimeoutSeconds) {
-                        followerDatabaseNodesToRemove.add(databaseNode);
-                        databaseNodesStatus.put((ElevatedDatabaseNodeAccess) databaseNode, false);
-                    }
-                }
+    @Override
+    public String get(String key) throws DatabaseNodeInActiveException, DataNotFoundException, RootNodeDownException {
+        return getValue(key).getValue();
+    }
 
-                synchronized (dataLock) {
-                    followerDatabaseNodes.removeAll(followerDatabaseNodesToRemove);
-                }
+    @Override
+    public Value getValue(String key) throws DatabaseNodeInActiveException, DataNotFoundException, RootNodeDownException {
+        OperationResult operationResult = tryGet(key);
+        throwExceptionOfFailedRead(operationResult, key);
+        return new Value(operationResult.getHybridLogicalClock(), operationResult.getValue());
+    }
 
-                // Checking heart beat for the leader database node
-                long timeDifference = Duration.between(databaseNodesHeartBeat.get((ElevatedDatabaseNodeAccess) leaderDatabaseNode),
-                        LocalDateTime.now()).getSeconds();
-                if (LogsConfig.isCleaningInactiveDatabaseNodesLoggingEnabled) {
-                    System.out.printf("[%s]: %s %d %d\n", this.rootNodeName, leaderDatabaseNode.getDatabaseNodeName(),
-                            timeDifference, RootNodeConfig.heartBeatTimeoutSeconds);
-                }
-                if (timeDifference > RootNodeConfig.heartBeatTimeoutSeconds) {
-                    databaseNodesStatus.put((ElevatedDatabaseNodeAccess) leaderDatabaseNode, false);
-                    leaderElection();
-                }
+    @Override
+    public OperationResult tryGet(String key) {
+        if (LogsConfig.isGetOperationRootNodeLoggingEnabled) {
+            System.out.printf("[%s]: Get request for key: %s\n", this.rootNodeName, key);
+        }
+        List<FollowerDatabaseNodeAccess> followerDatabaseNodeCopy;
+        synchronized (dataLock) {
+            followerDatabaseNodeCopy = new ArrayList<>(followerDatabaseNodes);
+        }
 
-                if (checkIfAllTheFollowerDatabaseNodesAreDown()) {
-                    allDatabaseNodesAreDown();
+        if (followerDatabaseNodeCopy.isEmpty()) {
+            allDatabaseNodesAreDown();
+            return new OperationResult(OperationStatus.ROOT_NODE_DOWN);
+        }
+        // Every follower database node is tried at most once, a hedged read may also go to the next one
+        while (!followerDatabaseNodeCopy.isEmpty()) {
+            FollowerDatabaseNodeAccess followerDatabaseNode = followerSelector.select(followerDatabaseNodeCopy);
+            followerDatabaseNodeCopy.remove(followerDatabaseNode);
+            OperationResult operationResult;
+            if (hedgedReadExecutor == null || followerDatabaseNodeCopy.isEmpty()) {
+                operationResult = getFromFollowerDatabaseNode(followerDatabaseNode, key);
+            } else {
+                FollowerDatabaseNodeAccess hedgedFollowerDatabaseNode = followerSelector.select(followerDatabaseNodeCopy);
+                AtomicBoolean isHedgedReadSent = new AtomicBoolean();
+                operationResult = hedgedReadExecutor.read(() -> getFromFollowerDatabaseNode(followerDatabaseNode, key),
+                        () -> {
+                            isHedgedReadSent.set(true);
+                            return getFromFollowerDatabaseNode(hedgedFollowerDatabaseNode, key);
+                        });
+                // A hedged read which was sent has been tried as well, so the retry goes to another one
+                if (isHedgedReadSent.get()) {
+                    followerDatabaseNodeCopy.remove(hedgedFollowerDatabaseNode);
                 }
             }
-        });
-
-        this.updateHeartBeatProxyServer = new Thread(() -> {
-            System.out.printf("[%s]: Starting a thread to update the heart beat in proxy server\n", this.rootNodeName);
-            while (true) {
-                try {
-                    Thread.sleep(RootNodeConfig.cooldownTimeForUpdatingHeartBeat);
-                } catch (InterruptedException e) {
-                    System.out.printf("[%s]: Updating the heart beat thread is stopped\n", this.rootNodeName);
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-                this.proxyServer.updateHeartBeat(this);
+            if (operationResult.getOperationStatus() != OperationStatus.DATABASE_NODE_INACTIVE) {
+                return operationResult;
             }
-        });
+            if (LogsConfig.isExtraLoggingEnabled) {
+                System.out.printf("[%s]: The follower database node is down, retrying with other follower database node\n",
+                        this.rootNodeName);
+            }
+        }
+        if (LogsConfig.isExtraLoggingEnabled) {
+            System.out.printf("[%s]: Did not get the data after a number of retries\n", this.rootNodeName);
+        }
+        return new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE);
+    }
 
-        this.cleaningInactiveDatabaseNodes.start();
-        this.updateHeartBeatProxyServer.start();
+    @Override
+    public String get(String key, HybridLogicalClock hybridLogicalClock) throws DatabaseNodeInActiveException,
+            DataNotFoundException, RootNodeDownException {
+        OperationResult operationResult = tryGet(key, hybridLogicalClock);
+        throwExceptionOfFailedRead(operationResult, key);
+        return operationResult.getValue();
     }
 
+    // Reads the key from a follower database node which has applied the writes of the session, so a client reading with
+    // the hybrid logical clock returned by its last write sees that write. A follower database node qualifies once its
+    // replication stream has delivered every log of the leader, or when it holds the key at the given clock or later.
+    // The read goes to the leader when none of the follower database nodes qualify.
     @Override
-    public String get(String key) throws DatabaseNodeInActiveException, DataNotFoundException, RootNodeDownException {
+    public OperationResult tryGet(String key, HybridLogicalClock hybridLogicalClock) {
+        if (hybridLogicalClock == null) {
+            return tryGet(key);
+        }
         if (LogsConfig.isGetOperationRootNodeLoggingEnabled) {
-            System.out.printf("[%s]: Get request for key: %s\n", this.rootNodeName, key);
+            System.out.printf("[%s]: Get request for key: %s after the hybrid logical clock: %d\n", this.rootNodeName, key,
+                    hybridLogicalClock.getPackedClock());
         }
         List<FollowerDatabaseNodeAccess> followerDatabaseNodeCopy;
         synchronized (dataLock) {
             followerDatabaseNodeCopy = new ArrayList<>(followerDatabaseNodes);
         }
-
-        if (followerDatabaseNodeCopy.isEmpty()) {
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = leaderDatabaseNode;
+        if (followerDatabaseNodeCopy.isEmpty() || leaderDatabaseNodeCopy == null) {
             allDatabaseNodesAreDown();
-            throw new RootNodeDownException(String.format("[%s]: Root node is down", this.rootNodeName));
+            return new OperationResult(OperationStatus.ROOT_NODE_DOWN);
         }
-        int numberOfFollowerDatabaseNodes = followerDatabaseNodeCopy.size();
-        int totalNumberOfFollowerDatabaseNodes = followerDatabaseNodeCopy.size();
-
-        while (numberOfFollowerDatabaseNodes-- > 0) {
-            int followerDatabaseNodeIndex = index.getAndIncrement() % totalNumberOfFollowerDatabaseNodes;
-            FollowerDatabaseNodeAccess followerDatabaseNode = followerDatabaseNodeCopy.get(followerDatabaseNodeIndex);
-            try {
-                return followerDatabaseNode.get(key);
-            } catch (DatabaseNodeInActiveException e) {
+        // Checked before the streams, a log which has left the buffer is already in the stream of every database node
+        boolean isReplicationBufferEmpty = leaderDatabaseNodeCopy.isReplicationBufferEmpty();
+
+        while (!followerDatabaseNodeCopy.isEmpty()) {
+            FollowerDatabaseNodeAccess followerDatabaseNode = followerSelector.select(followerDatabaseNodeCopy);
+            followerDatabaseNodeCopy.remove(followerDatabaseNode);
+            long startTimeNanoseconds = followerSelector.startRead(followerDatabaseNode);
+            OperationResult operationResult = followerDatabaseNode.tryGet(key);
+            if (operationResult.getOperationStatus() == OperationStatus.DATABASE_NODE_INACTIVE) {
+                followerSelector.failRead(followerDatabaseNode);
                 if (LogsConfig.isExtraLoggingEnabled) {
                     System.out.printf("[%s]: The follower database node is down, retrying with other follower database node\n",
                             this.rootNodeName);
                 }
                 removeDatabaseNode(followerDatabaseNode);
-            } catch (DataNotFoundException e) {
-                throw new DataNotFoundException(String.format("[%s]: Data not found in the database for the given key: %s",
-                        this.rootNodeName, key));
+                continue;
+            }
+            followerSelector.finishRead(followerDatabaseNode, startTimeNanoseconds);
+            if (followerDatabaseNode == leaderDatabaseNodeCopy ||
+                    (isReplicationBufferEmpty && isReplicationStreamCaughtUp(followerDatabaseNode))) {
+                return operationResult;
+            }
+            // This database node may not have received the write of the given hybrid logical clock yet
+            if (operationResult.isSuccess() &&
+                    operationResult.getHybridLogicalClock().compareTo(hybridLogicalClock) >= 0) {
+                return operationResult;
             }
         }
         if (LogsConfig.isExtraLoggingEnabled) {
-            System.out.printf("[%s]: Did not get the data after a number of retries\n", this.rootNodeName);
+            System.out.printf("[%s]: The follower database nodes are behind the hybrid logical clock, reading from the leader\n",
+                    this.rootNodeName);
         }
-        throw new DatabaseNodeInActiveException(String.format("[%s]: The follower database nodes are down, " +
-                "try again after some time", this.rootNodeName));
+        return ((FollowerDatabaseNodeAccess) leaderDatabaseNodeCopy).tryGet(key);
     }
 
     @Override
-    public void write(HybridLogicalClock hybridLogicalClock, String key, String value) throws
+    public HybridLogicalClock write(HybridLogicalClock hybridLogicalClock, String key, String value) throws
             DatabaseNodeInActiveException, NotLeaderException, RootNodeDownException {
+        OperationResult operationResult = tryWrite(hybridLogicalClock, key, value);
+        throwExceptionOfFailedWrite(operationResult, "writing data to");
+        return operationResult.getHybridLogicalClock();
+    }
+
+    @Override
+    public OperationResult tryWrite(HybridLogicalClock hybridLogicalClock, String key, String value) {
         if (LogsConfig.isWriteOperationRootNodeLoggingEnabled) {
             System.out.printf("[%s]: Write request for key: %s, value : %s\n", this.rootNodeName, key, value);
         }
-        try {
-            leaderDatabaseNode.write(hybridLogicalClock, key, value);
-        } catch (DatabaseNodeInActiveException e) {
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = leaderDatabaseNode;
+        if (leaderDatabaseNodeCopy == null) {
+            return new OperationResult(OperationStatus.ROOT_NODE_DOWN);
+        }
+        OperationResult operationResult = leaderDatabaseNodeCopy.tryWrite(hybridLogicalClock, key, value);
+        if (operationResult.getOperationStatus() == OperationStatus.DATABASE_NODE_INACTIVE) {
             // start leader election
             leaderElection();
-            throw new DatabaseNodeInActiveException(String.format("[%s]: The leader node is inactive. Try again after some time.", this.rootNodeName));
-        } catch (NotLeaderException e) {
-            throw new NotLeaderException(String.format("[%s]: There is some error while writing data to the leader node, " +
-                    "try again after some time.", this.rootNodeName));
-        } catch (NullPointerException e) {
-            throw new RootNodeDownException(String.format("[%s]: Root Node down exception", this.rootNodeName));
         }
+        return operationResult;
     }
 
     @Override
-    public void delete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException,
+    public HybridLogicalClock delete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException,
             NotLeaderException, RootNodeDownException {
+        OperationResult operationResult = tryDelete(hybridLogicalClock, key);
+        throwExceptionOfFailedWrite(operationResult, "deleting data from");
+        return operationResult.getHybridLogicalClock();
+    }
+
+    @Override
+    public OperationResult tryDelete(HybridLogicalClock hybridLogicalClock, String key) {
         if (LogsConfig.isDeleteOperationRootNodeLoggingEnabled) {
             System.out.printf("[%s]: Delete request for key: %s\n", this.rootNodeName, key);
         }
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = leaderDatabaseNode;
+        if (leaderDatabaseNodeCopy == null) {
+            return new OperationResult(OperationStatus.ROOT_NODE_DOWN);
+        }
+        OperationResult operationResult = leaderDatabaseNodeCopy.tryDelete(hybridLogicalClock, key);
+        if (operationResult.getOperationStatus() == OperationStatus.DATABASE_NODE_INACTIVE) {
+            // start leader election
+            leaderElection();
+        }
+        return operationResult;
+    }
+
+    @Override
+    public void writeBatch(HashMap<HybridLogicalClock, OperationDetails> logs) throws DatabaseNodeInActiveException,
+            NotLeaderException, RootNodeDownException {
+        if (LogsConfig.isWriteOperationRootNodeLoggingEnabled) {
+            System.out.printf("[%s]: Batch write request for %d keys\n", this.rootNodeName, logs.size());
+        }
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = getLeaderDatabaseNodeOrThrowRootNodeDown();
         try {
-            leaderDatabaseNode.delete(hybridLogicalClock, key);
+            leaderDatabaseNodeCopy.writeBatch(logs);
         } catch (DatabaseNodeInActiveException e) {
             // start leader election
             leaderElection();
             throw new DatabaseNodeInActiveException(String.format("[%s]: The leader node is inactive. Try again after some time.", this.rootNodeName));
         } catch (NotLeaderException e) {
-            throw new NotLeaderException(String.format("[%s]: There is some error while deleting data from the leader node, " +
+            throw new NotLeaderException(String.format("[%s]: There is some error while writing the batch to the leader node, " +
                     "try again after some time.", this.rootNodeName));
-        } catch (NullPointerException e) {
-            throw new RootNodeDownException(String.format("[%s]: Root Node down exception", this.rootNodeName));
         }
     }
 
+    // Reads every key from the same follower database node, the keys which are not found are left out
+    @Override
+    public HashMap<String, String> multiGet(List<String> keys) throws DatabaseNodeInActiveException, RootNodeDownException {
+        if (LogsConfig.isGetOperationRootNodeLoggingEnabled) {
+            System.out.printf("[%s]: Multi get request for %d keys\n", this.rootNodeName, keys.size());
+        }
+        List<FollowerDatabaseNodeAccess> followerDatabaseNodeCopy;
+        synchronized (dataLock) {
+            followerDatabaseNodeCopy = new ArrayList<>(followerDatabaseNodes);
+        }
+
+        if (followerDatabaseNodeCopy.isEmpty()) {
+            allDatabaseNodesAreDown();
+            throw new RootNodeDownException(String.format("[%s]: Root node is down", this.rootNodeName));
+        }
+        while (!followerDatabaseNodeCopy.isEmpty()) {
+            FollowerDatabaseNodeAccess followerDatabaseNode = followerSelector.select(followerDatabaseNodeCopy);
+            followerDatabaseNodeCopy.remove(followerDatabaseNode);
+            long startTimeNanoseconds = followerSelector.startRead(followerDatabaseNode);
+            try {
+                HashMap<String, String> values = followerDatabaseNode.multiGet(keys);
+                followerSelector.finishRead(followerDatabaseNode, startTimeNanoseconds);
+                return values;
+            } catch (DatabaseNodeInActiveException e) {
+                followerSelector.failRead(followerDatabaseNode);
+                if (LogsConfig.isExtraLoggingEnabled) {
+                    System.out.printf("[%s]: The follower database node is down, retrying with other follower database node\n",
+                            this.rootNodeName);
+                }
+                removeDatabaseNode(followerDatabaseNode);
+            }
+        }
+        throw new DatabaseNodeInActiveException(String.format("[%s]: The follower database nodes are down, " +
+                "try again after some time", this.rootNodeName));
+    }
+
     @Override
     public void updateHeartBeat(ElevatedDatabaseNodeAccess databaseNode) {
         if (LogsConfig.isUpdatedHeartBeatLoggingEnabled) {
@@ -234,24 +334,36 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
         }
     }
 
+    // The logs from outside the root node, like the logs of a range transferred from a neighbouring root node, are
+    // applied by every database node including the leader
+    @Override
+    public void replicationOfData(HashMap<HybridLogicalClock, OperationDetails> logs) {
+        enqueueToReplicationStreams(logs, null);
+    }
+
     @Override
-    public void replicationOfData(HashMap<HybridLogicalClock, OperationDetails> temporaryLogData) {
+    public void replicationOfDataOfLeaderDatabaseNode(ElevatedDatabaseNodeAccess leaderDatabaseNode,
+                                                      HashMap<HybridLogicalClock, OperationDetails> logs) {
+        enqueueToReplicationStreams(logs, leaderDatabaseNode);
+    }
+
+    @Override
+    public void replicationOfSnapshotChunk(StateTransferChunk stateTransferChunk, int startingPositionInConsistentHashingRing,
+                                           int endingPositionInConsistentHashingRing) {
         if (LogsConfig.isExtraLoggingEnabled) {
-            System.out.printf("[%s]: Replicating data across all the database nodes\n", this.rootNodeName);
+            System.out.printf("[%s]: Replicating a snapshot chunk of the range: %d %d across all the database nodes\n",
+                    this.rootNodeName, startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing);
         }
-        List<FollowerDatabaseNodeAccess> followerDatabaseNodesCopy;
-        synchronized (dataLock) {
-            followerDatabaseNodesCopy = new ArrayList<>(followerDatabaseNodes);
+        // With no database node up, none of them would have the chunk to catch up from, so the transfer is retried
+        if (checkIfAllTheFollowerDatabaseNodesAreDown()) {
+            throw new DatabaseNodeInActiveException(String.format("[%s]: All the database nodes are down, try again " +
+                    "after some time.", this.rootNodeName));
         }
-        for (var followerDatabaseNode : followerDatabaseNodesCopy) {
-            try {
-                ((ElevatedDatabaseNodeAccess) followerDatabaseNode).replicateData(temporaryLogData);
-            } catch (DatabaseNodeInActiveException e) {
-                if (LogsConfig.isExtraLoggingEnabled) {
-                    System.out.printf("[%s]: Exception while performing replication -> %s", this.rootNodeName, e.getMessage());
-                }
-                throw new DatabaseNodeInActiveException(e.getMessage());
-            }
+        // Every stream delivers the chunk on its own and in order with the logs, a database node which is down catches
+        // up from the leader
+        for (var replicationStream : replicationStreams) {
+            replicationStream.enqueueSnapshotChunk(stateTransferChunk, startingPositionInConsistentHashingRing,
+                    endingPositionInConsistentHashingRing);
         }
     }
 
@@ -277,16 +389,15 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
             // Getting the maximum hybrid  logical timestamp
             HybridLogicalClock maximumHybridLogicalClockBeforeLeaderElection =
                     maximumHybridLogicalTimestampOfDatabaseNodes.get(databaseNode);
-            HybridLogicalClock currentMaximumHybridLogicalClock = databaseNode.getMaximumHybridLogicalClock();
-            HybridLogicalClock maximumHybridLogicalClock;
-
             if (maximumHybridLogicalClockBeforeLeaderElection == null) {
-                maximumHybridLogicalClock = currentMaximumHybridLogicalClock;
-            } else {
-                maximumHybridLogicalClock = Collections.min(
-                        Arrays.asList(maximumHybridLogicalClockBeforeLeaderElection, currentMaximumHybridLogicalClock),
-                        HybridLogicalClockComparator.getHybridLogicalClock());
+                // Outside of a leader election only the ranges where the data differs from the leader are sent
+                replicationOfRangesWhichDifferFromLeaderDatabaseNode(databaseNode);
+                return;
             }
+            HybridLogicalClock currentMaximumHybridLogicalClock = databaseNode.getMaximumHybridLogicalClock();
+            HybridLogicalClock maximumHybridLogicalClock = Collections.min(
+                    Arrays.asList(maximumHybridLogicalClockBeforeLeaderElection, currentMaximumHybridLogicalClock),
+                    HybridLogicalClockComparator.getHybridLogicalClock());
 
             if (maximumHybridLogicalClock == null) {
                 if (LogsConfig.isExtraLoggingEnabled) {
@@ -345,6 +456,29 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
         asyncReplicationService.addTask(runnable);
     }
 
+    public long getNumberOfHedgedReads() {
+        return hedgedReadExecutor == null ? 0 : hedgedReadExecutor.getNumberOfHedgedReads();
+    }
+
+    public long getNumberOfHedgedReadsWon() {
+        return hedgedReadExecutor == null ? 0 : hedgedReadExecutor.getNumberOfHedgedReadsWon();
+    }
+
+    // Stops scaling the database nodes up and down, scales down the active ones and then stops the root node
+    @Override
+    public void shutdown() {
+        System.out.printf("[%s]: Shutting down the root node\n", this.rootNodeName);
+        for (var scalingOfDatabaseNodeTask : scalingOfDatabaseNodesTasks) {
+            scalingOfDatabaseNodeTask.cancel();
+        }
+        for (var databaseNode : new ArrayList<>(databaseNodesHeartBeat.keySet())) {
+            if (databaseNode.getIsActive()) {
+                databaseNode.run();
+            }
+        }
+        allDatabaseNodesAreDown();
+    }
+
     @Override
     public String getRootNodeName() {
         return this.rootNodeName;
@@ -358,8 +492,9 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
             System.out.printf("[%s]: Getting the logs from the write ahead log for all the keys which are in the given " +
                     "range\n", this.rootNodeName);
         }
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = getLeaderDatabaseNodeOrThrowRootNodeDown();
         try {
-            return leaderDatabaseNode.getLogsInRangeOfConsistentHashingPosition(startingPositionInConsistentHashingRing,
+            return leaderDatabaseNodeCopy.getLogsInRangeOfConsistentHashingPosition(startingPositionInConsistentHashingRing,
                     endingPositionInConsistentHashingRing);
         } catch (DatabaseNodeInActiveException e) {
             // start leader election
@@ -369,8 +504,6 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
         } catch (NotLeaderException e) {
             throw new NotLeaderException(String.format("[%s]: There is some error while getting log from the root node",
                     this.rootNodeName));
-        } catch (NullPointerException e) {
-            throw new RootNodeDownException(String.format("[%s]: Root Node down exception", this.rootNodeName));
         }
     }
 
@@ -383,8 +516,9 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
             System.out.printf("[%s]: Getting the logs from the write ahead log for all the keys which are in the given " +
                     "range\n", this.rootNodeName);
         }
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = getLeaderDatabaseNodeOrThrowRootNodeDown();
         try {
-            return leaderDatabaseNode.getLogsInRangeOfConsistentHashingPosition(
+            return leaderDatabaseNodeCopy.getLogsInRangeOfConsistentHashingPosition(
                     startingPositionInConsistentHashingRing,
                     intermediateEndingPositionInConsistentHashingRing,
                     intermediateStartingPositionInConsistentHashingRing,
@@ -398,19 +532,45 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
         } catch (NotLeaderException e) {
             throw new NotLeaderException(String.format("[%s]: There is some error while getting log from the root node",
                     this.rootNodeName));
-        } catch (NullPointerException e) {
-            throw new RootNodeDownException(String.format("[%s]: Root Node down exception", this.rootNodeName));
         }
     }
 
     @Override
-    public HashMap<HybridLogicalClock, OperationDetails> getLogs() throws DatabaseNodeInActiveException, NotLeaderException,
-            RootNodeDownException {
+    public StateTransferChunk getSnapshotChunkOfRange(int startingPositionInConsistentHashingRing,
+                                                      int endingPositionInConsistentHashingRing, int numberOfKeys)
+            throws DatabaseNodeInActiveException, NotLeaderException, RootNodeDownException {
         if (LogsConfig.isExtraLoggingEnabled) {
-            System.out.printf("[%s]: Getting all the logs\n", this.rootNodeName);
+            System.out.printf("[%s]: Getting a chunk of the live keys in the range: %d %d\n", this.rootNodeName,
+                    startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing);
         }
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = getLeaderDatabaseNodeOrThrowRootNodeDown();
         try {
-            return leaderDatabaseNode.getLogs();
+            return leaderDatabaseNodeCopy.getSnapshotChunkOfRange(startingPositionInConsistentHashingRing,
+                    endingPositionInConsistentHashingRing, numberOfKeys);
+        } catch (DatabaseNodeInActiveException e) {
+            // start leader election
+            leaderElection();
+            throw new DatabaseNodeInActiveException(String.format("[%s]: The leader node is inactive. Try again after some time.",
+                    this.rootNodeName));
+        } catch (NotLeaderException e) {
+            throw new NotLeaderException(String.format("[%s]: There is some error while getting the live keys from the root node",
+                    this.rootNodeName));
+        }
+    }
+
+    @Override
+    public HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+            int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing,
+            HybridLogicalClock hybridLogicalClock
+    ) throws DatabaseNodeInActiveException, NotLeaderException, RootNodeDownException {
+        if (LogsConfig.isExtraLoggingEnabled) {
+            System.out.printf("[%s]: Getting the logs in the range: %d %d after the given timestamp\n", this.rootNodeName,
+                    startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing);
+        }
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = getLeaderDatabaseNodeOrThrowRootNodeDown();
+        try {
+            return leaderDatabaseNodeCopy.getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+                    startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing, hybridLogicalClock);
         } catch (DatabaseNodeInActiveException e) {
             // start leader election
             leaderElection();
@@ -419,9 +579,270 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
         } catch (NotLeaderException e) {
             throw new NotLeaderException(String.format("[%s]: There is some error while getting log from the root node",
                     this.rootNodeName));
-        } catch (NullPointerException e) {
+        }
+    }
+
+    @Override
+    public HybridLogicalClock getAcknowledgedHybridLogicalClock() {
+        // The minimum of the maximum hybrid logical clock of the leader and the follower database nodes. A database node
+        // which is yet to catch up after a leader election is counted with the clock it had before the election.
+        List<ElevatedDatabaseNodeAccess> databaseNodes = new ArrayList<>();
+        synchronized (dataLock) {
+            for (var followerDatabaseNode : followerDatabaseNodes) {
+                databaseNodes.add((ElevatedDatabaseNodeAccess) followerDatabaseNode);
+            }
+        }
+        if (leaderDatabaseNode != null) {
+            databaseNodes.add((ElevatedDatabaseNodeAccess) leaderDatabaseNode);
+        }
+
+        Comparator<HybridLogicalClock> hybridLogicalClockComparator = HybridLogicalClockComparator.getHybridLogicalClock();
+        HybridLogicalClock acknowledgedHybridLogicalClock = null;
+        for (var databaseNode : databaseNodes) {
+            HybridLogicalClock maximumHybridLogicalClock = databaseNode.getMaximumHybridLogicalClock();
+            HybridLogicalClock maximumHybridLogicalClockBeforeLeaderElection =
+                    maximumHybridLogicalTimestampOfDatabaseNodes.get(databaseNode);
+            if (maximumHybridLogicalClockBeforeLeaderElection != null && (maximumHybridLogicalClock == null ||
+                    hybridLogicalClockComparator.compare(maximumHybridLogicalClockBeforeLeaderElection, maximumHybridLogicalClock) < 0)) {
+                maximumHybridLogicalClock = maximumHybridLogicalClockBeforeLeaderElection;
+            }
+            if (maximumHybridLogicalClock == null) {
+                return null;
+            }
+            if (acknowledgedHybridLogicalClock == null ||
+                    hybridLogicalClockComparator.compare(maximumHybridLogicalClock, acknowledgedHybridLogicalClock) < 0) {
+                acknowledgedHybridLogicalClock = maximumHybridLogicalClock;
+            }
+        }
+        // The maximum clock of a database node does not prove that it has every earlier log, so the logs are only
+        // truncated up to what every replication stream has delivered in order. The logs a stream has not delivered yet
+        // are kept, a database node which is down catches up from them, deletes included. A stream which has not
+        // delivered anything keeps every log.
+        for (var replicationStream : replicationStreams) {
+            HybridLogicalClock earliestUnacknowledgedHybridLogicalClock =
+                    replicationStream.getEarliestUnacknowledgedHybridLogicalClock();
+            HybridLogicalClock acknowledgedHybridLogicalClockOfStream = earliestUnacknowledgedHybridLogicalClock != null
+                    ? earliestUnacknowledgedHybridLogicalClock
+                    : replicationStream.getAcknowledgedHybridLogicalClock();
+            if (acknowledgedHybridLogicalClockOfStream == null) {
+                return null;
+            }
+            if (acknowledgedHybridLogicalClock == null ||
+                    hybridLogicalClockComparator.compare(acknowledgedHybridLogicalClockOfStream, acknowledgedHybridLogicalClock) < 0) {
+                acknowledgedHybridLogicalClock = acknowledgedHybridLogicalClockOfStream;
+            }
+        }
+        return acknowledgedHybridLogicalClock;
+    }
+
+    private LinkedHashMap<HybridLogicalClock, OperationDetails> getLogsOrderedByHybridLogicalClock(
+            HashMap<HybridLogicalClock, OperationDetails> logs) {
+        List<HybridLogicalClock> hybridLogicalClocks = new ArrayList<>(logs.keySet());
+        hybridLogicalClocks.sort(HybridLogicalClockComparator.getHybridLogicalClock());
+        LinkedHashMap<HybridLogicalClock, OperationDetails> orderedLogs = new LinkedHashMap<>();
+        for (var hybridLogicalClock : hybridLogicalClocks) {
+            orderedLogs.put(hybridLogicalClock, logs.get(hybridLogicalClock));
+        }
+        return orderedLogs;
+    }
+
+    private OperationResult getFromFollowerDatabaseNode(FollowerDatabaseNodeAccess followerDatabaseNode, String key) {
+        long startTimeNanoseconds = followerSelector.startRead(followerDatabaseNode);
+        OperationResult operationResult = followerDatabaseNode.tryGet(key);
+        if (operationResult.getOperationStatus() == OperationStatus.DATABASE_NODE_INACTIVE) {
+            followerSelector.failRead(followerDatabaseNode);
+            removeDatabaseNode(followerDatabaseNode);
+        } else {
+            followerSelector.finishRead(followerDatabaseNode, startTimeNanoseconds);
+        }
+        return operationResult;
+    }
+
+    // The exceptions of the throwing reads, which wrap the reads returning the outcome
+    private void throwExceptionOfFailedRead(OperationResult operationResult, String key) throws DatabaseNodeInActiveException,
+            DataNotFoundException, RootNodeDownException {
+        switch (operationResult.getOperationStatus()) {
+            case SUCCESS -> {
+            }
+            case DATA_NOT_FOUND -> throw new DataNotFoundException(String.format(
+                    "[%s]: Data not found in the database for the given key: %s", this.rootNodeName, key));
+            case ROOT_NODE_DOWN -> throw new RootNodeDownException(String.format("[%s]: Root node is down", this.rootNodeName));
+            default -> throw new DatabaseNodeInActiveException(String.format("[%s]: The follower database nodes are down, " +
+                    "try again after some time", this.rootNodeName));
+        }
+    }
+
+    private void throwExceptionOfFailedWrite(OperationResult operationResult, String operation) throws
+            DatabaseNodeInActiveException, NotLeaderException, RootNodeDownException {
+        switch (operationResult.getOperationStatus()) {
+            case SUCCESS -> {
+            }
+            case NOT_LEADER -> throw new NotLeaderException(String.format("[%s]: There is some error while %s the leader " +
+                    "node, try again after some time.", this.rootNodeName, operation));
+            case ROOT_NODE_DOWN -> throw new RootNodeDownException(String.format("[%s]: Root Node down exception",
+                    this.rootNodeName));
+            default -> throw new DatabaseNodeInActiveException(String.format("[%s]: The leader node is inactive. Try again " +
+                    "after some time.", this.rootNodeName));
+        }
+    }
+
+    private void enqueueToReplicationStreams(HashMap<HybridLogicalClock, OperationDetails> logs,
+                                             ElevatedDatabaseNodeAccess appliedDatabaseNode) {
+        if (LogsConfig.isExtraLoggingEnabled) {
+            System.out.printf("[%s]: Replicating data across all the database nodes\n", this.rootNodeName);
+        }
+        // Every stream delivers the batch on its own, a database node which is down only falls behind on its own stream
+        LinkedHashMap<HybridLogicalClock, OperationDetails> orderedLogs =
+                logs instanceof LinkedHashMap<HybridLogicalClock, OperationDetails> linkedLogs
+                        ? linkedLogs
+                        : getLogsOrderedByHybridLogicalClock(logs);
+        for (var replicationStream : replicationStreams) {
+            replicationStream.enqueue(orderedLogs, appliedDatabaseNode);
+        }
+    }
+
+    // The leader is null while every database node of the root node is down
+    private LeaderDatabaseNodeAccess getLeaderDatabaseNodeOrThrowRootNodeDown() throws RootNodeDownException {
+        LeaderDatabaseNodeAccess leaderDatabaseNodeCopy = leaderDatabaseNode;
+        if (leaderDatabaseNodeCopy == null) {
             throw new RootNodeDownException(String.format("[%s]: Root Node down exception", this.rootNodeName));
         }
+        return leaderDatabaseNodeCopy;
+    }
+
+    private boolean isReplicationStreamCaughtUp(FollowerDatabaseNodeAccess databaseNode) {
+        for (var replicationStream : replicationStreams) {
+            if (replicationStream.getDatabaseNode() == databaseNode) {
+                return replicationStream.isCaughtUp();
+            }
+        }
+        return false;
+    }
+
+    private void startReplicationStream(ElevatedDatabaseNodeAccess databaseNode) {
+        FollowerReplicationStream replicationStream = new FollowerReplicationStream(databaseNode,
+                () -> (ElevatedDatabaseNodeAccess) leaderDatabaseNode);
+        replicationStreams.add(replicationStream);
+    }
+
+    // Anti-entropy with the leader: the root hashes are compared first, so replicas which agree exchange a single hash.
+    // Otherwise the live keys of every range with a different hash are sent from the leader in chunks, which also
+    // removes the keys the leader no longer has.
+    private void replicationOfRangesWhichDifferFromLeaderDatabaseNode(ElevatedDatabaseNodeAccess databaseNode) {
+        ElevatedDatabaseNodeAccess leaderDatabaseNodeCopy = (ElevatedDatabaseNodeAccess) leaderDatabaseNode;
+        if (leaderDatabaseNodeCopy == null || leaderDatabaseNodeCopy == databaseNode) {
+            return;
+        }
+        if (leaderDatabaseNodeCopy.getRootHashOfData() == databaseNode.getRootHashOfData()) {
+            if (LogsConfig.isExtraLoggingEnabled) {
+                System.out.printf("[%s]: %s -> The data is the same as the leader, there is no data to replicate\n",
+                        this.rootNodeName, databaseNode.getDatabaseNodeName());
+            }
+            return;
+        }
+        long[] hashesOfRangesOfLeader = leaderDatabaseNodeCopy.getHashesOfRangesOfData();
+        long[] hashesOfRanges = databaseNode.getHashesOfRangesOfData();
+        int numberOfReplicatedRanges = 0;
+        try {
+            for (int range = 0; range < hashesOfRanges.length; range++) {
+                if (hashesOfRangesOfLeader[range] == hashesOfRanges[range]) {
+                    continue;
+                }
+                int endingPositionInConsistentHashingRing = MerkleTreeOfConsistentHashingRing.getEndingPositionOfRange(range);
+                int nextPositionInConsistentHashingRing = MerkleTreeOfConsistentHashingRing.getStartingPositionOfRange(range);
+                while (nextPositionInConsistentHashingRing != -1) {
+                    StateTransferChunk stateTransferChunk = leaderDatabaseNodeCopy.getSnapshotChunkOfRange(
+                            nextPositionInConsistentHashingRing, endingPositionInConsistentHashingRing,
+                            ProxyServerConfig.numberOfKeysPerStateTransferChunk);
+                    int followingPositionInConsistentHashingRing = stateTransferChunk.getNextPositionInConsistentHashingRing();
+                    databaseNode.replicateSnapshotChunk(stateTransferChunk, nextPositionInConsistentHashingRing,
+                            followingPositionInConsistentHashingRing == -1
+                                    ? endingPositionInConsistentHashingRing
+                                    : followingPositionInConsistentHashingRing - 1);
+                    nextPositionInConsistentHashingRing = followingPositionInConsistentHashingRing;
+                }
+                numberOfReplicatedRanges++;
+            }
+        } catch (DatabaseNodeInActiveException | NotLeaderException e) {
+            // The next round of anti-entropy compares the hashes again
+            if (LogsConfig.isExtraLoggingEnabled) {
+                System.out.printf("[%s]: Exception replication of data between database nodes -> %s\n",
+                        this.rootNodeName, e.getMessage());
+            }
+            return;
+        }
+        if (LogsConfig.isExtraLoggingEnabled) {
+            System.out.printf("[%s]: %s -> Replicated %d of %d ranges from the leader\n", this.rootNodeName,
+                    databaseNode.getDatabaseNodeName(), numberOfReplicatedRanges, hashesOfRanges.length);
+        }
+    }
+
+    private void schedulePeriodicTasks() {
+        System.out.printf("[%s]: Scheduling the heart beat requests to the proxy server\n", this.rootNodeName);
+        cleaningInactiveDatabaseNodesTask = periodicTaskScheduler.scheduleWithFixedDelay(
+                String.format("%s: Cleaning inactive database nodes", this.rootNodeName),
+                this::cleanInactiveDatabaseNodes, RootNodeConfig.cooldownTimeForCheckingHeartBeat);
+        updatingHeartBeatProxyServerTask = periodicTaskScheduler.scheduleWithFixedDelay(
+                String.format("%s: Updating the heart beat", this.rootNodeName),
+                () -> this.proxyServer.updateHeartBeat(this), RootNodeConfig.cooldownTimeForUpdatingHeartBeat);
+        for (var replicationStream : replicationStreams) {
+            replicationStream.scheduleCatchingUp();
+        }
+    }
+
+    private void cleanInactiveDatabaseNodes() {
+        if (LogsConfig.isLeaderRootNodeCleaningInactiveDatabaseNodesLoggingEnabled) {
+            System.out.printf("[%s]: Leader Node data size: %d\n", rootNodeName, leaderDatabaseNode.getDataSize());
+        }
+        if (LogsConfig.isHedgedReadsLoggingEnabled && hedgedReadExecutor != null) {
+            System.out.printf("[%s]: Hedged reads: %d, won by the hedged read: %d, delay: %d us\n", rootNodeName,
+                    hedgedReadExecutor.getNumberOfHedgedReads(), hedgedReadExecutor.getNumberOfHedgedReadsWon(),
+                    hedgedReadExecutor.getHedgedReadDelayNanoseconds() / 1000);
+        }
+
+        if (LogsConfig.isCleaningInactiveDatabaseNodesLoggingEnabled) {
+            System.out.printf("[%s]: Checking if any database is inactive, using the last heart beat\n", this.rootNodeName);
+        }
+        // Checking heart beat for all the follower database nodes
+        List<FollowerDatabaseNodeAccess> followerDatabaseNodesToRemove = new ArrayList<>();
+        // Creating a consistent view of the follower database nodes
+        List<FollowerDatabaseNodeAccess> followerDatabaseNodesCopy;
+        synchronized (dataLock) {
+            followerDatabaseNodesCopy = new ArrayList<>(followerDatabaseNodes);
+        }
+
+        for (var databaseNode : followerDatabaseNodesCopy) {
+            long timeDifference = Duration.between(databaseNodesHeartBeat.get((ElevatedDatabaseNodeAccess) databaseNode),
+                    LocalDateTime.now()).getSeconds();
+            if (LogsConfig.isCleaningInactiveDatabaseNodesLoggingEnabled) {
+                System.out.printf("[%s]: %s %d %d ; %d\n", this.rootNodeName, databaseNode.getDatabaseNodeName(),
+                        timeDifference, RootNodeConfig.heartBeatTimeoutSeconds, databaseNode.getDataSize());
+            }
+            if (timeDifference > RootNodeConfig.heartBeatTimeoutSeconds) {
+                followerDatabaseNodesToRemove.add(databaseNode);
+                databaseNodesStatus.put((ElevatedDatabaseNodeAccess) databaseNode, false);
+            }
+        }
+
+        synchronized (dataLock) {
+            followerDatabaseNodes.removeAll(followerDatabaseNodesToRemove);
+        }
+
+        // Checking heart beat for the leader database node
+        long timeDifference = Duration.between(databaseNodesHeartBeat.get((ElevatedDatabaseNodeAccess) leaderDatabaseNode),
+                LocalDateTime.now()).getSeconds();
+        if (LogsConfig.isCleaningInactiveDatabaseNodesLoggingEnabled) {
+            System.out.printf("[%s]: %s %d %d\n", this.rootNodeName, leaderDatabaseNode.getDatabaseNodeName(),
+                    timeDifference, RootNodeConfig.heartBeatTimeoutSeconds);
+        }
+        if (timeDifference > RootNodeConfig.heartBeatTimeoutSeconds) {
+            databaseNodesStatus.put((ElevatedDatabaseNodeAccess) leaderDatabaseNode, false);
+            leaderElection();
+        }
+
+        if (checkIfAllTheFollowerDatabaseNodesAreDown()) {
+            allDatabaseNodesAreDown();
+        }
     }
 
     private void clearMaximumHybridLogicalTimestamp(ElevatedDatabaseNodeAccess databaseNode) {
@@ -435,10 +856,7 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
             }
             System.out.printf("[%s]: Starting the root node, since at-least one database node has become active\n", this.rootNodeName);
             isActive = true;
-            cleaningInactiveDatabaseNodes = new Thread(cleaningInactiveDatabaseNodes);
-            cleaningInactiveDatabaseNodes.start();
-            updateHeartBeatProxyServer = new Thread(updateHeartBeatProxyServer);
-            updateHeartBeatProxyServer.start();
+            schedulePeriodicTasks();
             leaderElection();
         }
     }
@@ -513,8 +931,13 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
             System.out.printf("[%s]: All the database nodes are down. So the RootNode is inactive\n", this.rootNodeName);
             isActive = false;
             leaderDatabaseNode = null;
-            cleaningInactiveDatabaseNodes.interrupt();
-            updateHeartBeatProxyServer.interrupt();
+            cleaningInactiveDatabaseNodesTask.cancel();
+            updatingHeartBeatProxyServerTask.cancel();
+            for (var replicationStream : replicationStreams) {
+                replicationStream.cancelCatchingUp();
+            }
+            System.out.printf("[%s]: Cleaning inactive database nodes, updating the heart beat and catching up the " +
+                    "database nodes are stopped\n", this.rootNodeName);
         }
     }
 
@@ -535,15 +958,22 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
         }
     }
 
+    // The database node is scaled down or up again after a random time
+    private void scheduleScalingOfDatabaseNode(DatabaseNodeAccess databaseNode) {
+        scalingOfDatabaseNodesTasks.add(periodicTaskScheduler.scheduleBlockingTaskWithFixedDelay(
+                String.format("%s: Scaling up and down", databaseNode.getDatabaseNodeName()), databaseNode,
+                () -> 10000L * RandomHelper.getRandomIntegerInRange(5, 11)));
+    }
+
     private LeaderDatabaseNodeAccess getAndStartLeaderDatabaseNode() {
         LeaderDatabaseNodeAccess leaderDatabaseNode = new DatabaseNode(rootNodeId, 1,
                 DatabaseNodeType.LEADER, this);
-        Thread leaderDatabaseNodeThread = new Thread(leaderDatabaseNode);
-        leaderDatabaseNodeThread.start();
+        scheduleScalingOfDatabaseNode(leaderDatabaseNode);
         databaseNodesHeartBeat.put((ElevatedDatabaseNodeAccess) leaderDatabaseNode, LocalDateTime.now());
         databaseNodesStatus.put((ElevatedDatabaseNodeAccess) leaderDatabaseNode, true);
         maximumHybridLogicalTimestampOfDatabaseNodes.put((ElevatedDatabaseNodeAccess) leaderDatabaseNode, null);
         followerDatabaseNodes.add((FollowerDatabaseNodeAccess) leaderDatabaseNode);
+        startReplicationStream((ElevatedDatabaseNodeAccess) leaderDatabaseNode);
         return leaderDatabaseNode;
     }
 
@@ -551,12 +981,12 @@ public class RootNode implements ElevatedRootNodeAccess, BasicRootNodeAccess {
         for (int i = 0; i < numberOfFollowerNodes; i++) {
             FollowerDatabaseNodeAccess followerDatabaseNode = new DatabaseNode(rootNodeId, i + 2,
                     DatabaseNodeType.FOLLOWER, this);
-            Thread followerDatabaseNodeThread = new Thread(followerDatabaseNode);
-            followerDatabaseNodeThread.start();
+            scheduleScalingOfDatabaseNode(followerDatabaseNode);
             databaseNodesHeartBeat.put((ElevatedDatabaseNodeAccess) followerDatabaseNode, LocalDateTime.now());
             databaseNodesStatus.put((ElevatedDatabaseNodeAccess) followerDatabaseNode, true);
             maximumHybridLogicalTimestampOfDatabaseNodes.put((ElevatedDatabaseNodeAccess) followerDatabaseNode, null);
             followerDatabaseNodes.add(followerDatabaseNode);
+            startReplicationStream((ElevatedDatabaseNodeAccess) followerDatabaseNode);
         }
     }
 }
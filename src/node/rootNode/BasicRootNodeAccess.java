@@ -1,6 +1,9 @@
 package node.rootNode;
 
 import data.HybridLogicalClock;
+import data.OperationResult;
+import data.StateTransferChunk;
+import data.Value;
 import data.operationDetails.OperationDetails;
 import exception.DataNotFoundException;
 import exception.DatabaseNodeInActiveException;
@@ -8,21 +11,46 @@ import exception.NotLeaderException;
 import exception.RootNodeDownException;
 
 import java.util.HashMap;
+import java.util.List;
 
 public interface BasicRootNodeAccess extends RootNodeAccess {
     String get(String key) throws DatabaseNodeInActiveException, DataNotFoundException, RootNodeDownException;
-    void write(HybridLogicalClock hybridLogicalClock, String key, String value) throws DatabaseNodeInActiveException,
+    // The value together with its hybrid logical clock, for comparing the answers of different root nodes
+    Value getValue(String key) throws DatabaseNodeInActiveException, DataNotFoundException, RootNodeDownException;
+    // Sees every write which returned a hybrid logical clock up to the given one
+    String get(String key, HybridLogicalClock hybridLogicalClock) throws DatabaseNodeInActiveException,
+            DataNotFoundException, RootNodeDownException;
+    HybridLogicalClock write(HybridLogicalClock hybridLogicalClock, String key, String value) throws DatabaseNodeInActiveException,
             NotLeaderException, RootNodeDownException;
-    void delete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException,
+    HybridLogicalClock delete(HybridLogicalClock hybridLogicalClock, String key) throws DatabaseNodeInActiveException,
             NotLeaderException, RootNodeDownException;
+    // Same as above without throwing for the expected outcomes. A read is SUCCESS with the value and its hybrid logical
+    // clock, DATA_NOT_FOUND, DATABASE_NODE_INACTIVE or ROOT_NODE_DOWN, a write or a delete is SUCCESS with the hybrid
+    // logical clock, DATABASE_NODE_INACTIVE, NOT_LEADER or ROOT_NODE_DOWN.
+    OperationResult tryGet(String key);
+    OperationResult tryGet(String key, HybridLogicalClock hybridLogicalClock);
+    OperationResult tryWrite(HybridLogicalClock hybridLogicalClock, String key, String value);
+    OperationResult tryDelete(HybridLogicalClock hybridLogicalClock, String key);
+    void writeBatch(HashMap<HybridLogicalClock, OperationDetails> logs) throws DatabaseNodeInActiveException,
+            NotLeaderException, RootNodeDownException;
+    HashMap<String, String> multiGet(List<String> keys) throws DatabaseNodeInActiveException, RootNodeDownException;
     String getRootNodeName();
+    // Stops the database nodes and the periodic tasks of the root node
+    void shutdown();
     HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
             int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing
     ) throws DatabaseNodeInActiveException, NotLeaderException, RootNodeDownException;
-    HashMap<HybridLogicalClock, OperationDetails> getLogs() throws DatabaseNodeInActiveException, NotLeaderException,
-            RootNodeDownException;
     HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPosition(
             int startingPositionInConsistentHashingRing, int intermediateEndingPositionInConsistentHashingRing,
             int intermediateStartingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing
     ) throws DatabaseNodeInActiveException, NotLeaderException, RootNodeDownException;
+    StateTransferChunk getSnapshotChunkOfRange(int startingPositionInConsistentHashingRing,
+                                               int endingPositionInConsistentHashingRing, int numberOfKeys) throws
+            DatabaseNodeInActiveException, NotLeaderException, RootNodeDownException;
+    HashMap<HybridLogicalClock, OperationDetails> getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+            int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing,
+            HybridLogicalClock hybridLogicalClock) throws DatabaseNodeInActiveException, NotLeaderException,
+            RootNodeDownException;
+    void replicationOfSnapshotChunk(StateTransferChunk stateTransferChunk, int startingPositionInConsistentHashingRing,
+                                    int endingPositionInConsistentHashingRing) throws DatabaseNodeInActiveException;
 }
@@ -1,8 +1,16 @@
 package node.rootNode;
 
+import data.HybridLogicalClock;
+import data.operationDetails.OperationDetails;
 import node.databaseNode.ElevatedDatabaseNodeAccess;
 
+import java.util.HashMap;
+
 public interface ElevatedRootNodeAccess extends RootNodeAccess {
     void updateHeartBeat(ElevatedDatabaseNodeAccess databaseNode);
     void replicationOfDataBetweenDatabaseNodes(ElevatedDatabaseNodeAccess databaseNode);
+    HybridLogicalClock getAcknowledgedHybridLogicalClock();
+    // The logs of the replication buffer of the leader, which the leader has already applied
+    void replicationOfDataOfLeaderDatabaseNode(ElevatedDatabaseNodeAccess leaderDatabaseNode,
+                                               HashMap<HybridLogicalClock, OperationDetails> logs);
 }
@@ -6,5 +6,5 @@ import data.operationDetails.OperationDetails;
 import java.util.HashMap;
 
 public interface RootNodeAccess {
-    void replicationOfData(HashMap<HybridLogicalClock, OperationDetails> temporaryLogData);
+    void replicationOfData(HashMap<HybridLogicalClock, OperationDetails> logs);
 }
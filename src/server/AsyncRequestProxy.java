@@ -0,0 +1,29 @@
+package server;
+
+import data.HybridLogicalClock;
+import data.OperationResult;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Same operations as the request proxy without blocking the caller. A future completes exceptionally with the exception
+// of the request proxy, with a TimeoutException once the request takes longer than the timeout, or with a
+// RequestLimitExceededException when too many requests are already in flight.
+public interface AsyncRequestProxy {
+    CompletableFuture<HybridLogicalClock> write(LocalDateTime physicalTimestamp, String key, String value);
+    CompletableFuture<HybridLogicalClock> delete(LocalDateTime physicalTimestamp, String key);
+    CompletableFuture<String> get(String key);
+    CompletableFuture<String> get(String key, HybridLogicalClock hybridLogicalClock);
+    // Complete with the outcome of the request in place of the expected exceptions of the request proxy
+    CompletableFuture<OperationResult> tryWrite(LocalDateTime physicalTimestamp, String key, String value);
+    CompletableFuture<OperationResult> tryDelete(LocalDateTime physicalTimestamp, String key);
+    CompletableFuture<OperationResult> tryGet(String key);
+    CompletableFuture<OperationResult> tryGet(String key, HybridLogicalClock hybridLogicalClock);
+    CompletableFuture<HashMap<String, OperationResult>> writeBatch(LocalDateTime physicalTimestamp,
+                                                                   Map<String, String> keysAndValues);
+    CompletableFuture<HashMap<String, OperationResult>> deleteBatch(LocalDateTime physicalTimestamp, List<String> keys);
+    CompletableFuture<HashMap<String, OperationResult>> multiGet(List<String> keys);
+}
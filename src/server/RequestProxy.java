@@ -1,13 +1,32 @@
 package server;
 
+import data.HybridLogicalClock;
+import data.OperationResult;
 import exception.*;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public interface RequestProxy {
-    void write(LocalDateTime physicalTimestamp, String key, String value) throws AllShardsUnavailableException,
+    // The writes return a session token, passing the largest token of the session to get reads the writes of the session
+    HybridLogicalClock write(LocalDateTime physicalTimestamp, String key, String value) throws AllShardsUnavailableException,
             DatabaseNodeInActiveException, NotLeaderException, RootNodeDownException;
-    void delete(LocalDateTime physicalTimestamp, String key) throws AllShardsUnavailableException,
+    HybridLogicalClock delete(LocalDateTime physicalTimestamp, String key) throws AllShardsUnavailableException,
             DatabaseNodeInActiveException, RootNodeDownException, NotLeaderException;
     String get(String key) throws AllShardsUnavailableException, DataNotFoundException, RootNodeDownException;
+    String get(String key, HybridLogicalClock hybridLogicalClock) throws AllShardsUnavailableException,
+            DataNotFoundException, RootNodeDownException;
+    // Same as above without throwing for the expected outcomes. A write or a delete is SUCCESS with the session token,
+    // SHARD_UNAVAILABLE, ROOT_NODE_DOWN or ALL_SHARDS_UNAVAILABLE, a read is SUCCESS with the value and its hybrid
+    // logical clock, DATA_NOT_FOUND, ROOT_NODE_DOWN or ALL_SHARDS_UNAVAILABLE.
+    OperationResult tryWrite(LocalDateTime physicalTimestamp, String key, String value);
+    OperationResult tryDelete(LocalDateTime physicalTimestamp, String key);
+    OperationResult tryGet(String key);
+    OperationResult tryGet(String key, HybridLogicalClock hybridLogicalClock);
+    // The batch requests are split by the owning root node, and report the outcome of every key instead of throwing
+    HashMap<String, OperationResult> writeBatch(LocalDateTime physicalTimestamp, Map<String, String> keysAndValues);
+    HashMap<String, OperationResult> deleteBatch(LocalDateTime physicalTimestamp, List<String> keys);
+    HashMap<String, OperationResult> multiGet(List<String> keys);
 }
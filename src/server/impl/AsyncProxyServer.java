@@ -0,0 +1,126 @@
+package server.impl;
+
+import config.ProxyServerConfig;
+import data.HybridLogicalClock;
+import data.OperationResult;
+import exception.RequestLimitExceededException;
+import server.AsyncRequestProxy;
+import server.RequestProxy;
+import util.ExecutorHelper;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Runs every request of the request proxy as a task of its own, on a virtual thread when the runtime has them. The
+// number of requests in flight is limited, a request over the limit is rejected instead of queued. A request which
+// times out keeps its permit until the request proxy returns, so the limit also bounds the work still running.
+public class AsyncProxyServer implements AsyncRequestProxy {
+    private final RequestProxy requestProxy;
+    private final ExecutorService executor;
+    private final int maximumNumberOfRequestsInFlight;
+    private final Semaphore requestsInFlight;
+    private final long requestTimeoutMilliseconds;
+
+    public AsyncProxyServer(RequestProxy requestProxy) {
+        this(requestProxy, ProxyServerConfig.maximumNumberOfAsyncRequestsInFlight,
+                ProxyServerConfig.asyncRequestTimeoutMilliseconds);
+    }
+
+    public AsyncProxyServer(RequestProxy requestProxy, int maximumNumberOfRequestsInFlight, long requestTimeoutMilliseconds) {
+        this.requestProxy = requestProxy;
+        this.executor = ExecutorHelper.newExecutorForBlockingTasks(ProxyServerConfig.numberOfThreadsForAsyncRequests);
+        this.maximumNumberOfRequestsInFlight = maximumNumberOfRequestsInFlight;
+        this.requestsInFlight = new Semaphore(maximumNumberOfRequestsInFlight);
+        this.requestTimeoutMilliseconds = requestTimeoutMilliseconds;
+    }
+
+    @Override
+    public CompletableFuture<HybridLogicalClock> write(LocalDateTime physicalTimestamp, String key, String value) {
+        return submit(() -> requestProxy.write(physicalTimestamp, key, value));
+    }
+
+    @Override
+    public CompletableFuture<HybridLogicalClock> delete(LocalDateTime physicalTimestamp, String key) {
+        return submit(() -> requestProxy.delete(physicalTimestamp, key));
+    }
+
+    @Override
+    public CompletableFuture<String> get(String key) {
+        return submit(() -> requestProxy.get(key));
+    }
+
+    @Override
+    public CompletableFuture<String> get(String key, HybridLogicalClock hybridLogicalClock) {
+        return submit(() -> requestProxy.get(key, hybridLogicalClock));
+    }
+
+    @Override
+    public CompletableFuture<OperationResult> tryWrite(LocalDateTime physicalTimestamp, String key, String value) {
+        return submit(() -> requestProxy.tryWrite(physicalTimestamp, key, value));
+    }
+
+    @Override
+    public CompletableFuture<OperationResult> tryDelete(LocalDateTime physicalTimestamp, String key) {
+        return submit(() -> requestProxy.tryDelete(physicalTimestamp, key));
+    }
+
+    @Override
+    public CompletableFuture<OperationResult> tryGet(String key) {
+        return submit(() -> requestProxy.tryGet(key));
+    }
+
+    @Override
+    public CompletableFuture<OperationResult> tryGet(String key, HybridLogicalClock hybridLogicalClock) {
+        return submit(() -> requestProxy.tryGet(key, hybridLogicalClock));
+    }
+
+    @Override
+    public CompletableFuture<HashMap<String, OperationResult>> writeBatch(LocalDateTime physicalTimestamp,
+                                                                          Map<String, String> keysAndValues) {
+        return submit(() -> requestProxy.writeBatch(physicalTimestamp, keysAndValues));
+    }
+
+    @Override
+    public CompletableFuture<HashMap<String, OperationResult>> deleteBatch(LocalDateTime physicalTimestamp, List<String> keys) {
+        return submit(() -> requestProxy.deleteBatch(physicalTimestamp, keys));
+    }
+
+    @Override
+    public CompletableFuture<HashMap<String, OperationResult>> multiGet(List<String> keys) {
+        return submit(() -> requestProxy.multiGet(keys));
+    }
+
+    public int getNumberOfRequestsInFlight() {
+        return maximumNumberOfRequestsInFlight - requestsInFlight.availablePermits();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> request) {
+        if (!requestsInFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RequestLimitExceededException(
+                    "[AsyncProxyServer]: Too many requests in flight. Try again after some time."));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(request.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    requestsInFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            requestsInFlight.release();
+            result.completeExceptionally(e);
+        }
+        return result.orTimeout(requestTimeoutMilliseconds, TimeUnit.MILLISECONDS);
+    }
+}
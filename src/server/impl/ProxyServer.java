@@ -3,6 +3,14 @@ package server.impl;
 import config.LogsConfig;
 import config.ProxyServerConfig;
 import data.HybridLogicalClock;
+import data.OperationResult;
+import data.OperationStatus;
+import data.OperationType;
+import data.RoutingTable;
+import data.Value;
+import data.operationDetails.DeleteOperationDetails;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
 import exception.*;
 import node.impl.RootNode;
 import node.rootNode.BasicRootNodeAccess;
@@ -10,21 +18,40 @@ import server.ElevatedProxyServer;
 import server.RequestProxy;
 import service.AsyncReplicationFromNeighbouringNode;
 import service.AsyncReplicationOfUpdates;
+import service.HotKeyReadCache;
+import service.PeriodicTask;
+import service.PeriodicTaskScheduler;
+import service.StateTransferOfRange;
+import util.ExecutorHelper;
 import util.HashingHelper;
+import util.RandomHelper;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 public class ProxyServer implements RequestProxy, ElevatedProxyServer {
+    // The logical clocks of a batch stay in the lower half, since the leader and then every replica increment the
+    // clock of a new key by one, and none of these increments should carry into the physical clock
+    private static final int numberOfLogicalClocksOfBatch = 1 << (HybridLogicalClock.numberOfBitsOfLogicalClock - 1);
     private final HashMap<BasicRootNodeAccess, LocalDateTime> rootNodesHeartBeat;
     private final HashMap<BasicRootNodeAccess, Boolean> rootNodesStatus;
     private final TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNode;
-    private final HashMap<BasicRootNodeAccess, Integer> rootNodesPositionInConsistentHashingRing;
+    private final HashMap<BasicRootNodeAccess, List<Integer>> rootNodesPositionInConsistentHashingRing;
     private final AsyncReplicationFromNeighbouringNode asyncReplicationFromNeighbouringNode;
+    private final List<Thread> asyncReplicationFromNeighbouringNodeThreads;
     private final AsyncReplicationOfUpdates asyncReplicationOfUpdates;
+    private final ExecutorService batchRequestExecutor;
+    // Null when the read cache is disabled
+    private final HotKeyReadCache readCache;
+    // Read without locking by the request path, replaced under the data lock whenever the ring changes
+    private volatile RoutingTable routingTable;
+    private long routingTableVersion;
     private boolean isActive;
-    private Thread cleaningInactiveRootNode;
+    private final PeriodicTaskScheduler periodicTaskScheduler = PeriodicTaskScheduler.getPeriodicTaskScheduler();
+    private PeriodicTask cleaningInactiveRootNodeTask;
     private final Object lock = new Object();
     private final Object dataLock = new Object();
 
@@ -34,14 +61,20 @@ public class ProxyServer implements RequestProxy, ElevatedProxyServer {
         consistentHashingRootNode = new TreeMap<>();
         rootNodesPositionInConsistentHashingRing = new HashMap<>();
         this.isActive = true;
-        // Creating a thread for updating the current root node with the latest data
+        // Creating the threads for updating the current root node with the latest data. The ranges of the virtual nodes
+        // are replicated independently, so they are pulled from the neighbouring root nodes in parallel.
         this.asyncReplicationFromNeighbouringNode = new AsyncReplicationFromNeighbouringNode();
-        Thread asyncReplicationFromNeighbouringNodeThread = new Thread(asyncReplicationFromNeighbouringNode);
-        asyncReplicationFromNeighbouringNodeThread.start();
-        // Creating a thread for replication the updates across specified number of replication factor
+        this.asyncReplicationFromNeighbouringNodeThreads = new ArrayList<>();
+        for (int i = 0; i < ProxyServerConfig.numberOfThreadsForReplicationFromNeighbouringNodes; i++) {
+            Thread asyncReplicationFromNeighbouringNodeThread = new Thread(asyncReplicationFromNeighbouringNode);
+            asyncReplicationFromNeighbouringNodeThread.start();
+            asyncReplicationFromNeighbouringNodeThreads.add(asyncReplicationFromNeighbouringNodeThread);
+        }
+        // Creating the replication pipelines of the updates across specified number of replication factor
         this.asyncReplicationOfUpdates = new AsyncReplicationOfUpdates();
-        Thread asyncReplicationOfUpdatesThread = new Thread(asyncReplicationOfUpdates);
-        asyncReplicationOfUpdatesThread.start();
+        // Creating the threads for sending the sub batches of a batch request to the root nodes in parallel
+        this.batchRequestExecutor = ExecutorHelper.newExecutorForBlockingTasks(ProxyServerConfig.numberOfThreadsForBatchRequests);
+        this.readCache = ProxyServerConfig.isReadCacheEnabled ? new HotKeyReadCache() : null;
 
         // Creating and initializing the shards. And finding the position in the consistent hashing ring, using the root node name.
         initiateShard(numberOfShards);
@@ -49,140 +82,244 @@ public class ProxyServer implements RequestProxy, ElevatedProxyServer {
         // Printing the shard details
         printShardDetails();
 
-        this.cleaningInactiveRootNode = new Thread(() -> {
-            System.out.println("[ProxyServer]: Starting a thread to check if any root node is inactive, using the last heart beat response");
-            while (true) {
-                try {
-                    Thread.sleep(ProxyServerConfig.cooldownTimeForCheckingHeartBeat);
-                } catch (InterruptedException e) {
-                    System.out.println("[ProxyServer]: Cleaning Inactive root node thread is stopped");
-                    Thread.currentThread().interrupt();
-                    return;
-                }
-
-                System.out.println("[Proxy Server]: Checking if any root node is inactive, using the last heart beat");
-                // Checking heart beat for all the root nodes
-                List<BasicRootNodeAccess> rootNodesToRemove = new ArrayList<>();
-                // Creating a consistent view of the root nodes.
-                // Adding the code in synchronized block to prevent synchronous access and modification, which  will cause
-                // an exception.
-                Set<BasicRootNodeAccess> rootNodesInConsistentHashingRingCopy;
-                synchronized (dataLock) {
-                    rootNodesInConsistentHashingRingCopy = rootNodesPositionInConsistentHashingRing.keySet();
-                }
-
-                for (var rootNode : rootNodesInConsistentHashingRingCopy) {
-                    long timeDifference = Duration.between(rootNodesHeartBeat.get(rootNode), LocalDateTime.now()).getSeconds();
-                    System.out.printf("[ProxyServer]: %s %d %d\n", rootNode.getRootNodeName(), timeDifference, ProxyServerConfig.heartBeatTimeoutSeconds);
-                    if (timeDifference >= ProxyServerConfig.heartBeatTimeoutSeconds) {
-                        rootNodesToRemove.add(rootNode);
-                    }
-                }
-
-                for (var rootNode : rootNodesToRemove) {
-                    removeRootNode(rootNode);
-                }
-            }
-        });
-
-        this.cleaningInactiveRootNode.start();
+        scheduleCleaningInactiveRootNode();
     }
 
     @Override
-    public void write(LocalDateTime physicalTimestamp, String key, String value) throws AllShardsUnavailableException,
+    public HybridLogicalClock write(LocalDateTime physicalTimestamp, String key, String value) throws AllShardsUnavailableException,
             ShardWriteFailedException, RootNodeDownException {
-        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy;
-        // Adding this code in synchronized block to prevent synchronous access and modification, which will cause
-        // an exception.
-        synchronized (dataLock) {
-            consistentHashingRootNodeCopy = new TreeMap<> (consistentHashingRootNode);
-        }
+        OperationResult operationResult = tryWrite(physicalTimestamp, key, value);
+        throwExceptionOfFailedWrite(operationResult, "write");
+        return operationResult.getHybridLogicalClock();
+    }
 
-        if (consistentHashingRootNodeCopy.isEmpty()) {
+    @Override
+    public OperationResult tryWrite(LocalDateTime physicalTimestamp, String key, String value) {
+        RoutingTable routingTableSnapshot = routingTable;
+
+        if (routingTableSnapshot.isEmpty()) {
             // If there are no root nodes that are active, then in this case we are stopping the proxy server
             stoppingTheProxyServer();
-            throw new AllShardsUnavailableException("[ProxyServer]: All the shards are unavailable. Try again after some time.");
+            return new OperationResult(OperationStatus.ALL_SHARDS_UNAVAILABLE);
         }
         HybridLogicalClock hybridLogicalClock = new HybridLogicalClock(physicalTimestamp);
         int positionInConsistentHashingRing = HashingHelper.hash(key);
-        Map.Entry<Integer, BasicRootNodeAccess> nextRootNodeEntry = getNextRootNode(consistentHashingRootNodeCopy, positionInConsistentHashingRing);
-        BasicRootNodeAccess rootNode = extractNextRootNode(consistentHashingRootNodeCopy, nextRootNodeEntry);
-        try {
-            rootNode.write(hybridLogicalClock, key, value);
+        BasicRootNodeAccess rootNode = routingTableSnapshot.getRootNode(positionInConsistentHashingRing);
+        List<BasicRootNodeAccess> replicaRootNodes = routingTableSnapshot.getReplicaRootNodes(positionInConsistentHashingRing);
+        if (!asyncReplicationOfUpdates.awaitRoomForUpdates(replicaRootNodes)) {
+            return new OperationResult(OperationStatus.REPLICATION_BACKLOG_FULL);
+        }
+        invalidateCachedValue(key, hybridLogicalClock);
+        OperationResult operationResult = rootNode.tryWrite(hybridLogicalClock, key, value);
+        if (operationResult.isSuccess()) {
             // Replicating the write operation in the next root nodes only if the main root node succeed
-            replicateWriteOperations(positionInConsistentHashingRing, hybridLogicalClock, key, value);
-        } catch (DatabaseNodeInActiveException | NotLeaderException e) {
-            throw new ShardWriteFailedException("[ProxyServer]: There was an unexpected error while performing the " +
-                    "write operation. Try again after some time");
-        } catch (RootNodeDownException e) {
-            // If the root node is inactive, then in this case we are removing this root node
-            removeRootNode(rootNode);
-            throw new RootNodeDownException(String.format("[ProxyServer]: All the nodes in the shard are down: %s",
-                    e.getMessage()));
+            replicateWriteOperations(replicaRootNodes, hybridLogicalClock, key, value);
         }
+        return getOperationResultOfWrite(rootNode, operationResult);
     }
 
     @Override
-    public void delete(LocalDateTime physicalTimestamp, String key) throws AllShardsUnavailableException,
+    public HybridLogicalClock delete(LocalDateTime physicalTimestamp, String key) throws AllShardsUnavailableException,
             ShardWriteFailedException ,RootNodeDownException {
-        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy;
-        // Adding this code in synchronized block to prevent synchronous access and modification, which will cause
-        // an exception.
-        synchronized (dataLock) {
-            consistentHashingRootNodeCopy = new TreeMap<> (consistentHashingRootNode);
-        }
+        OperationResult operationResult = tryDelete(physicalTimestamp, key);
+        throwExceptionOfFailedWrite(operationResult, "delete");
+        return operationResult.getHybridLogicalClock();
+    }
 
-        if (consistentHashingRootNodeCopy.isEmpty()) {
+    @Override
+    public OperationResult tryDelete(LocalDateTime physicalTimestamp, String key) {
+        RoutingTable routingTableSnapshot = routingTable;
+
+        if (routingTableSnapshot.isEmpty()) {
             // If there are no root nodes that are active, then in this case we are stopping the proxy server
             stoppingTheProxyServer();
-            throw new AllShardsUnavailableException("[ProxyServer]: All the shards are unavailable. Try again after some time.");
+            return new OperationResult(OperationStatus.ALL_SHARDS_UNAVAILABLE);
         }
         HybridLogicalClock hybridLogicalClock = new HybridLogicalClock(physicalTimestamp);
         int positionInConsistentHashingRing = HashingHelper.hash(key);
-        Map.Entry<Integer, BasicRootNodeAccess> nextRootNodeEntry = getNextRootNode(consistentHashingRootNodeCopy, positionInConsistentHashingRing);
-        BasicRootNodeAccess rootNode = extractNextRootNode(consistentHashingRootNodeCopy, nextRootNodeEntry);
-        try {
-            rootNode.delete(hybridLogicalClock, key);
+        BasicRootNodeAccess rootNode = routingTableSnapshot.getRootNode(positionInConsistentHashingRing);
+        List<BasicRootNodeAccess> replicaRootNodes = routingTableSnapshot.getReplicaRootNodes(positionInConsistentHashingRing);
+        if (!asyncReplicationOfUpdates.awaitRoomForUpdates(replicaRootNodes)) {
+            return new OperationResult(OperationStatus.REPLICATION_BACKLOG_FULL);
+        }
+        invalidateCachedValue(key, hybridLogicalClock);
+        OperationResult operationResult = rootNode.tryDelete(hybridLogicalClock, key);
+        if (operationResult.isSuccess()) {
             // Replicating the delete operation in the next root nodes only if the main root node succeed
-            replicateDeleteOperation(positionInConsistentHashingRing, hybridLogicalClock, key);
-        } catch (DatabaseNodeInActiveException | NotLeaderException e) {
-            throw new ShardWriteFailedException("[ProxyServer]: There was an unexpected error while performing the " +
-                    "delete operation. Try again after some time");
-        } catch (RootNodeDownException e) {
-            // If the root node is inactive, then in this case we are removing this root node
-            removeRootNode(rootNode);
-            throw new RootNodeDownException(String.format("[ProxyServer]: All the nodes in the shard are down: %s",
-                    e.getMessage()));
+            replicateDeleteOperation(replicaRootNodes, hybridLogicalClock, key);
         }
+        return getOperationResultOfWrite(rootNode, operationResult);
     }
 
     @Override
     public String get(String key) throws AllShardsUnavailableException, DataNotFoundException, RootNodeDownException {
-        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy;
-        // Adding this code in synchronized block to prevent synchronous access and modification, which will cause
-        // an exception.
-        synchronized (dataLock) {
-            consistentHashingRootNodeCopy = new TreeMap<> (consistentHashingRootNode);
+        return get(key, null);
+    }
+
+    @Override
+    public String get(String key, HybridLogicalClock hybridLogicalClock) throws AllShardsUnavailableException,
+            DataNotFoundException, RootNodeDownException {
+        OperationResult operationResult = tryGet(key, hybridLogicalClock);
+        switch (operationResult.getOperationStatus()) {
+            case SUCCESS -> {
+                return operationResult.getValue();
+            }
+            case ALL_SHARDS_UNAVAILABLE -> throw new AllShardsUnavailableException("[ProxyServer]: All the shards are " +
+                    "unavailable. Try again after some time.");
+            case DATA_NOT_FOUND -> throw new DataNotFoundException(String.format("[ProxyServer]: Data not found for the " +
+                    "given key: %s", key));
+            default -> throw new RootNodeDownException(String.format("[ProxyServer]: The root nodes of the key: %s cannot " +
+                    "serve the read, try again after some time", key));
         }
+    }
 
-        if (consistentHashingRootNodeCopy.isEmpty()) {
+    @Override
+    public OperationResult tryGet(String key) {
+        return tryGet(key, null);
+    }
+
+    @Override
+    public OperationResult tryGet(String key, HybridLogicalClock hybridLogicalClock) {
+        RoutingTable routingTableSnapshot = routingTable;
+
+        if (routingTableSnapshot.isEmpty()) {
             // If there are no root nodes that are active, then in this case we are stopping the proxy server
             stoppingTheProxyServer();
-            throw new AllShardsUnavailableException("[ProxyServer]: All the shards are unavailable. Try again after some time.");
+            return new OperationResult(OperationStatus.ALL_SHARDS_UNAVAILABLE);
+        }
+        if (readCache != null) {
+            Value cachedValue = readCache.get(key, hybridLogicalClock);
+            if (cachedValue != null) {
+                return new OperationResult(OperationStatus.SUCCESS, cachedValue.getValue(),
+                        cachedValue.getHybridLogicalClock());
+            }
         }
         int positionInConsistentHashingRing = HashingHelper.hash(key);
-        Map.Entry<Integer, BasicRootNodeAccess> nextRootNodeEntry = getNextRootNode(consistentHashingRootNodeCopy, positionInConsistentHashingRing);
-        BasicRootNodeAccess rootNode = extractNextRootNode(consistentHashingRootNodeCopy, nextRootNodeEntry);
-        try {
-            return rootNode.get(key);
-        } catch (RootNodeDownException e) {
-            // If the root node is inactive, then in this case we are removing this root node
-            removeRootNode(rootNode);
-            throw new RootNodeDownException(String.format("[ProxyServer]: The root node is down, try again after some time: %s",
-                    e.getMessage()));
-        } catch (DataNotFoundException e) {
-            throw new DataNotFoundException(String.format("[ProxyServer]: Data not found: %s", e.getMessage()));
+        BasicRootNodeAccess ownerRootNode = routingTableSnapshot.getRootNode(positionInConsistentHashingRing);
+        List<BasicRootNodeAccess> rootNodesOfKey = new ArrayList<>();
+        rootNodesOfKey.add(ownerRootNode);
+        for (var replicaRootNode : routingTableSnapshot.getReplicaRootNodes(positionInConsistentHashingRing)) {
+            if (replicaRootNode != ownerRootNode) {
+                rootNodesOfKey.add(replicaRootNode);
+            }
+        }
+        // A session read stays on the owning root node, the replica root nodes are updated asynchronously
+        BasicRootNodeAccess rootNode = ownerRootNode;
+        if (hybridLogicalClock == null && ProxyServerConfig.isReadLoadSpreadAcrossReplicaRootNodes) {
+            rootNode = rootNodesOfKey.get(RandomHelper.getRandomIntegerInRange(0, rootNodesOfKey.size()));
+        }
+        OperationResult operationResult = hybridLogicalClock == null
+                ? rootNode.tryGet(key)
+                : rootNode.tryGet(key, hybridLogicalClock);
+        switch (operationResult.getOperationStatus()) {
+            case SUCCESS -> {
+                if (hybridLogicalClock == null) {
+                    cacheValue(key, operationResult);
+                }
+                return operationResult;
+            }
+            case DATA_NOT_FOUND -> {
+                // A replica root node may not have received the key yet, only the owning root node is sure
+                if (rootNode == ownerRootNode) {
+                    return operationResult;
+                }
+            }
+            case ROOT_NODE_DOWN -> {
+                // If the root node is inactive, then in this case we are removing this root node
+                removeRootNode(rootNode);
+                if (LogsConfig.isExtraLoggingEnabled) {
+                    System.out.printf("[ProxyServer]: The root node: %s is down, reading from the replica root nodes\n",
+                            rootNode.getRootNodeName());
+                }
+            }
+            default -> {
+                if (LogsConfig.isExtraLoggingEnabled) {
+                    System.out.printf("[ProxyServer]: The root node: %s cannot serve the read, reading from the replica " +
+                            "root nodes\n", rootNode.getRootNodeName());
+                }
+            }
+        }
+        rootNodesOfKey.remove(rootNode);
+        return getFreshestValueFromRootNodes(rootNodesOfKey, key, hybridLogicalClock);
+    }
+
+    // Reads the key from every given root node and returns the value with the latest hybrid logical clock, since the
+    // replica root nodes are updated asynchronously and may disagree. A session read only accepts a value at the hybrid
+    // logical clock of the session or later.
+    private OperationResult getFreshestValueFromRootNodes(List<BasicRootNodeAccess> rootNodes, String key,
+                                                          HybridLogicalClock hybridLogicalClock) {
+        OperationResult freshestOperationResult = null;
+        boolean isDataNotFound = false;
+        for (var rootNode : rootNodes) {
+            OperationResult operationResult = rootNode.tryGet(key);
+            if (operationResult.isSuccess()) {
+                if (freshestOperationResult == null || operationResult.getHybridLogicalClock().compareTo(
+                        freshestOperationResult.getHybridLogicalClock()) > 0) {
+                    freshestOperationResult = operationResult;
+                }
+            } else if (operationResult.getOperationStatus() == OperationStatus.DATA_NOT_FOUND) {
+                isDataNotFound = true;
+            } else if (LogsConfig.isExtraLoggingEnabled) {
+                System.out.printf("[ProxyServer]: The replica root node: %s cannot serve the read: %s\n",
+                        rootNode.getRootNodeName(), operationResult.getOperationStatus());
+            }
+        }
+        if (freshestOperationResult != null && (hybridLogicalClock == null ||
+                freshestOperationResult.getHybridLogicalClock().compareTo(hybridLogicalClock) >= 0)) {
+            cacheValue(key, freshestOperationResult);
+            return freshestOperationResult;
+        }
+        if (isDataNotFound && hybridLogicalClock == null) {
+            return new OperationResult(OperationStatus.DATA_NOT_FOUND);
+        }
+        return new OperationResult(OperationStatus.ROOT_NODE_DOWN);
+    }
+
+    @Override
+    public HashMap<String, OperationResult> writeBatch(LocalDateTime physicalTimestamp, Map<String, String> keysAndValues) {
+        List<OperationDetails> operations = new ArrayList<>(keysAndValues.size());
+        for (var entry : keysAndValues.entrySet()) {
+            operations.add(new UpdateOperationDetails(OperationType.UPDATE, entry.getKey(), entry.getValue()));
         }
+        return writeBatch(physicalTimestamp, operations);
+    }
+
+    @Override
+    public HashMap<String, OperationResult> deleteBatch(LocalDateTime physicalTimestamp, List<String> keys) {
+        List<OperationDetails> operations = new ArrayList<>(keys.size());
+        for (String key : new LinkedHashSet<>(keys)) {
+            operations.add(new DeleteOperationDetails(OperationType.DELETE, key));
+        }
+        return writeBatch(physicalTimestamp, operations);
+    }
+
+    @Override
+    public HashMap<String, OperationResult> multiGet(List<String> keys) {
+        HashMap<String, OperationResult> results = new HashMap<>();
+        RoutingTable routingTableSnapshot = routingTable;
+
+        if (routingTableSnapshot.isEmpty()) {
+            // If there are no root nodes that are active, then in this case we are stopping the proxy server
+            stoppingTheProxyServer();
+            for (String key : keys) {
+                results.put(key, new OperationResult(OperationStatus.ALL_SHARDS_UNAVAILABLE));
+            }
+            return results;
+        }
+        HashMap<BasicRootNodeAccess, List<String>> keysOfRootNodes = new HashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            keysOfRootNodes.computeIfAbsent(routingTableSnapshot.getRootNode(HashingHelper.hash(key)),
+                    rootNode -> new ArrayList<>()).add(key);
+        }
+        List<CompletableFuture<HashMap<String, OperationResult>>> resultsOfRootNodes = new ArrayList<>();
+        for (var entry : keysOfRootNodes.entrySet()) {
+            resultsOfRootNodes.add(CompletableFuture.supplyAsync(
+                    () -> multiGetFromRootNode(entry.getKey(), entry.getValue()), batchRequestExecutor));
+        }
+        for (var resultsOfRootNode : resultsOfRootNodes) {
+            results.putAll(resultsOfRootNode.join());
+        }
+        return results;
     }
 
     @Override
@@ -213,8 +350,69 @@ public class ProxyServer implements RequestProxy, ElevatedProxyServer {
             }
             System.out.println("[ProxyServer]: Starting the proxy server");
             isActive = true;
-            cleaningInactiveRootNode = new Thread(cleaningInactiveRootNode);
-            cleaningInactiveRootNode.start();
+            scheduleCleaningInactiveRootNode();
+        }
+    }
+
+    private void scheduleCleaningInactiveRootNode() {
+        System.out.println("[ProxyServer]: Scheduling the check if any root node is inactive, using the last heart beat response");
+        cleaningInactiveRootNodeTask = periodicTaskScheduler.scheduleWithFixedDelay("ProxyServer: Cleaning inactive root nodes",
+                this::cleanInactiveRootNodes, ProxyServerConfig.cooldownTimeForCheckingHeartBeat);
+    }
+
+    private void cleanInactiveRootNodes() {
+        System.out.println("[Proxy Server]: Checking if any root node is inactive, using the last heart beat");
+        // Checking heart beat for all the root nodes
+        List<BasicRootNodeAccess> rootNodesToRemove = new ArrayList<>();
+        // Creating a consistent view of the root nodes.
+        // Adding the code in synchronized block to prevent synchronous access and modification, which  will cause
+        // an exception.
+        Set<BasicRootNodeAccess> rootNodesInConsistentHashingRingCopy;
+        synchronized (dataLock) {
+            rootNodesInConsistentHashingRingCopy = rootNodesPositionInConsistentHashingRing.keySet();
+        }
+
+        for (var rootNode : rootNodesInConsistentHashingRingCopy) {
+            long timeDifference = Duration.between(rootNodesHeartBeat.get(rootNode), LocalDateTime.now()).getSeconds();
+            System.out.printf("[ProxyServer]: %s %d %d\n", rootNode.getRootNodeName(), timeDifference, ProxyServerConfig.heartBeatTimeoutSeconds);
+            if (timeDifference >= ProxyServerConfig.heartBeatTimeoutSeconds) {
+                rootNodesToRemove.add(rootNode);
+            }
+        }
+
+        for (var rootNode : rootNodesToRemove) {
+            removeRootNode(rootNode);
+        }
+
+        if (LogsConfig.isReplicationOfUpdatesQueueDepthLoggingEnabled) {
+            System.out.printf("[ProxyServer]: Updates pending replication: %d, dropped: %d, writes rejected: %d\n",
+                    asyncReplicationOfUpdates.getNumberOfPendingUpdates(),
+                    asyncReplicationOfUpdates.getNumberOfDroppedUpdates(),
+                    asyncReplicationOfUpdates.getNumberOfRejectedWrites());
+        }
+        if (LogsConfig.isReadCacheLoggingEnabled && readCache != null) {
+            System.out.printf("[ProxyServer]: Read cache keys: %d, hits: %d, misses: %d, evictions: %d\n",
+                    readCache.getNumberOfKeys(), readCache.getNumberOfHits(), readCache.getNumberOfMisses(),
+                    readCache.getNumberOfEvictions());
+        }
+    }
+
+    // Stops the proxy server together with its root nodes and the threads it started, the requests sent afterwards fail
+    public void shutdown() {
+        synchronized (lock) {
+            if (isActive) {
+                isActive = false;
+                cleaningInactiveRootNodeTask.cancel();
+            }
+        }
+        System.out.println("[ProxyServer]: Shutting down the ProxyServer");
+        for (Thread asyncReplicationFromNeighbouringNodeThread : asyncReplicationFromNeighbouringNodeThreads) {
+            asyncReplicationFromNeighbouringNodeThread.interrupt();
+        }
+        batchRequestExecutor.shutdownNow();
+        asyncReplicationOfUpdates.shutdown();
+        for (var rootNode : new ArrayList<>(rootNodesHeartBeat.keySet())) {
+            rootNode.shutdown();
         }
     }
 
@@ -225,147 +423,306 @@ public class ProxyServer implements RequestProxy, ElevatedProxyServer {
             }
             System.out.println("[ProxyServer]: All the root nodes are down. So the ProxyServer is inactive");
             isActive = false;
-            cleaningInactiveRootNode.interrupt();
+            cleaningInactiveRootNodeTask.cancel();
+            System.out.println("[ProxyServer]: Cleaning inactive root nodes is stopped");
+        }
+    }
+
+    public long getNumberOfReadCacheHits() {
+        return readCache == null ? 0 : readCache.getNumberOfHits();
+    }
+
+    public long getNumberOfReadCacheMisses() {
+        return readCache == null ? 0 : readCache.getNumberOfMisses();
+    }
+
+    public long getNumberOfReadCacheEvictions() {
+        return readCache == null ? 0 : readCache.getNumberOfEvictions();
+    }
+
+    public int getNumberOfKeysInReadCache() {
+        return readCache == null ? 0 : readCache.getNumberOfKeys();
+    }
+
+    private void cacheValue(String key, OperationResult operationResult) {
+        if (readCache != null) {
+            readCache.put(key, new Value(operationResult.getHybridLogicalClock(), operationResult.getValue()));
+        }
+    }
+
+    // The database node outcomes of the owning root node are reported as the shard being unavailable
+    private OperationResult getOperationResultOfWrite(BasicRootNodeAccess rootNode, OperationResult operationResult) {
+        switch (operationResult.getOperationStatus()) {
+            case SUCCESS -> {
+                return operationResult;
+            }
+            case ROOT_NODE_DOWN -> {
+                // If the root node is inactive, then in this case we are removing this root node
+                removeRootNode(rootNode);
+                return operationResult;
+            }
+            default -> {
+                return new OperationResult(OperationStatus.SHARD_UNAVAILABLE);
+            }
+        }
+    }
+
+    // The keys of a batch get the logical clocks in the order of the batch. Past the logical clocks of a batch the next
+    // keys take the next microsecond, so every key of the batch has its own clock, since the logs keep a single operation
+    // per clock. A batch larger than the logical clocks of a microsecond is the only one ending after the request.
+    static HybridLogicalClock getHybridLogicalClockOfBatch(LocalDateTime physicalTimestamp, int indexInBatch) {
+        return new HybridLogicalClock(physicalTimestamp.plusNanos(1000L * (indexInBatch / numberOfLogicalClocksOfBatch)),
+                indexInBatch % numberOfLogicalClocksOfBatch);
+    }
+
+    private void throwExceptionOfFailedWrite(OperationResult operationResult, String operation) throws
+            AllShardsUnavailableException, ShardWriteFailedException, RootNodeDownException {
+        switch (operationResult.getOperationStatus()) {
+            case SUCCESS -> {
+            }
+            case ALL_SHARDS_UNAVAILABLE -> throw new AllShardsUnavailableException("[ProxyServer]: All the shards are " +
+                    "unavailable. Try again after some time.");
+            case ROOT_NODE_DOWN -> throw new RootNodeDownException("[ProxyServer]: All the nodes in the shard are down");
+            case REPLICATION_BACKLOG_FULL -> throw new ShardWriteFailedException(String.format("[ProxyServer]: The " +
+                    "replication to the replica root nodes is behind, the %s operation was not performed. Try again " +
+                    "after some time", operation));
+            default -> throw new ShardWriteFailedException(String.format("[ProxyServer]: There was an unexpected error " +
+                    "while performing the %s operation. Try again after some time", operation));
+        }
+    }
+
+    // The cached value is replaced before the write is sent, so that a read racing with the write cannot cache the
+    // value the write replaces
+    private void invalidateCachedValue(String key, HybridLogicalClock hybridLogicalClock) {
+        if (readCache != null) {
+            readCache.invalidate(key, hybridLogicalClock);
         }
     }
 
-    private void replicateWriteOperations(int positionInConsistentHashingRing, HybridLogicalClock hybridLogicalClock,
+    private void replicateWriteOperations(List<BasicRootNodeAccess> rootNodes, HybridLogicalClock hybridLogicalClock,
                                           String key, String value) {
-        List<BasicRootNodeAccess> rootNodes = getReplicationFactorNumberOfRootNode(positionInConsistentHashingRing);
         // Replicating the write operations
         for (var rootNode : rootNodes) {
             asyncReplicationOfUpdates.replicateWriteOperations(rootNode, hybridLogicalClock, key, value);
         }
     }
 
-    private void replicateDeleteOperation(int positionInConsistentHashingRing, HybridLogicalClock hybridLogicalClock,
+    private void replicateDeleteOperation(List<BasicRootNodeAccess> rootNodes, HybridLogicalClock hybridLogicalClock,
                                           String key) {
-        List<BasicRootNodeAccess> rootNodes = getReplicationFactorNumberOfRootNode(positionInConsistentHashingRing);
         // Replicating the delete operations
         for (var rootNode : rootNodes) {
             asyncReplicationOfUpdates.replicateDeleteOperations(rootNode, hybridLogicalClock, key);
         }
     }
 
-    private List<BasicRootNodeAccess> getReplicationFactorNumberOfRootNode(int positionInConsistentHashingRing) {
-        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy;
-        // Adding this code in synchronized block to prevent synchronous access and modification, which will cause
-        // an exception.
-        synchronized (dataLock) {
-            consistentHashingRootNodeCopy = new TreeMap<> (consistentHashingRootNode);
+    private HashMap<String, OperationResult> writeBatch(LocalDateTime physicalTimestamp, List<OperationDetails> operations) {
+        HashMap<String, OperationResult> results = new HashMap<>();
+        RoutingTable routingTableSnapshot = routingTable;
+
+        if (routingTableSnapshot.isEmpty()) {
+            // If there are no root nodes that are active, then in this case we are stopping the proxy server
+            stoppingTheProxyServer();
+            for (var operationDetails : operations) {
+                results.put(operationDetails.getKey(), new OperationResult(OperationStatus.ALL_SHARDS_UNAVAILABLE));
+            }
+            return results;
+        }
+        HashMap<BasicRootNodeAccess, HashMap<HybridLogicalClock, OperationDetails>> logsOfRootNodes = new HashMap<>();
+        int indexInBatch = 0;
+        for (var operationDetails : operations) {
+            BasicRootNodeAccess rootNode = routingTableSnapshot.getRootNode(operationDetails.getPositionInConsistentHashingRing());
+            logsOfRootNodes.computeIfAbsent(rootNode, currentRootNode -> new HashMap<>())
+                    .put(getHybridLogicalClockOfBatch(physicalTimestamp, indexInBatch++), operationDetails);
+        }
+        List<CompletableFuture<HashMap<String, OperationResult>>> resultsOfRootNodes = new ArrayList<>();
+        for (var entry : logsOfRootNodes.entrySet()) {
+            resultsOfRootNodes.add(CompletableFuture.supplyAsync(
+                    () -> writeBatchToRootNode(routingTableSnapshot, entry.getKey(), entry.getValue()), batchRequestExecutor));
+        }
+        for (var resultsOfRootNode : resultsOfRootNodes) {
+            results.putAll(resultsOfRootNode.join());
+        }
+        return results;
+    }
+
+    private HashMap<String, OperationResult> writeBatchToRootNode(RoutingTable routingTableSnapshot,
+                                                                  BasicRootNodeAccess rootNode,
+                                                                  HashMap<HybridLogicalClock, OperationDetails> logs) {
+        OperationStatus operationStatus;
+        HashMap<BasicRootNodeAccess, HashMap<HybridLogicalClock, OperationDetails>> logsOfReplicaRootNodes =
+                getLogsOfReplicaRootNodes(routingTableSnapshot, logs);
+        if (!asyncReplicationOfUpdates.awaitRoomForUpdates(logsOfReplicaRootNodes.keySet())) {
+            return getOperationResultOfKeys(logs, OperationStatus.REPLICATION_BACKLOG_FULL);
+        }
+        for (var entry : logs.entrySet()) {
+            invalidateCachedValue(entry.getValue().getKey(), entry.getKey());
         }
-        List<BasicRootNodeAccess> rootNodes = new ArrayList<>(consistentHashingRootNodeCopy
-                .tailMap(positionInConsistentHashingRing, false).values().stream()
-                .limit(ProxyServerConfig.replicationFactor).toList());
-        int remainingNumberOfRootNode = ProxyServerConfig.replicationFactor - rootNodes.size();
-        for (var rootNode : consistentHashingRootNodeCopy.values()) {
-            if (remainingNumberOfRootNode <= 0) break;
-            rootNodes.add(rootNode);
-            remainingNumberOfRootNode--;
+        try {
+            rootNode.writeBatch(logs);
+            // Replicating the sub batch in the next root nodes only if the main root node succeed
+            for (var entry : logsOfReplicaRootNodes.entrySet()) {
+                asyncReplicationOfUpdates.replicateBatchOperations(entry.getKey(), entry.getValue());
+            }
+            operationStatus = OperationStatus.SUCCESS;
+        } catch (DatabaseNodeInActiveException | NotLeaderException e) {
+            operationStatus = OperationStatus.SHARD_UNAVAILABLE;
+        } catch (RootNodeDownException e) {
+            // If the root node is inactive, then in this case we are removing this root node
+            removeRootNode(rootNode);
+            operationStatus = OperationStatus.ROOT_NODE_DOWN;
+        }
+        return getOperationResultOfKeys(logs, operationStatus);
+    }
+
+    private HashMap<String, OperationResult> getOperationResultOfKeys(HashMap<HybridLogicalClock, OperationDetails> logs,
+                                                                      OperationStatus operationStatus) {
+        HashMap<String, OperationResult> results = new HashMap<>();
+        OperationResult operationResult = new OperationResult(operationStatus);
+        for (var operationDetails : logs.values()) {
+            results.put(operationDetails.getKey(), operationResult);
+        }
+        return results;
+    }
+
+    private HashMap<String, OperationResult> multiGetFromRootNode(BasicRootNodeAccess rootNode, List<String> keys) {
+        HashMap<String, OperationResult> results = new HashMap<>();
+        try {
+            HashMap<String, String> values = rootNode.multiGet(keys);
+            for (String key : keys) {
+                String value = values.get(key);
+                results.put(key, value == null
+                        ? new OperationResult(OperationStatus.DATA_NOT_FOUND)
+                        : new OperationResult(OperationStatus.SUCCESS, value));
+            }
+        } catch (DatabaseNodeInActiveException e) {
+            putOperationResultOfKeys(results, keys, OperationStatus.SHARD_UNAVAILABLE);
+        } catch (RootNodeDownException e) {
+            // If the root node is inactive, then in this case we are removing this root node
+            removeRootNode(rootNode);
+            putOperationResultOfKeys(results, keys, OperationStatus.ROOT_NODE_DOWN);
+        }
+        return results;
+    }
+
+    private void putOperationResultOfKeys(HashMap<String, OperationResult> results, List<String> keys,
+                                          OperationStatus operationStatus) {
+        OperationResult operationResult = new OperationResult(operationStatus);
+        for (String key : keys) {
+            results.put(key, operationResult);
         }
-        return rootNodes;
     }
 
-    private void addRootNode(BasicRootNodeAccess rootNode, int positionInConsistentHashingRing) {
+    // The keys of a sub batch may be replicated by different root nodes, so the logs are grouped again by the replica
+    // root node
+    private HashMap<BasicRootNodeAccess, HashMap<HybridLogicalClock, OperationDetails>> getLogsOfReplicaRootNodes(
+            RoutingTable routingTableSnapshot, HashMap<HybridLogicalClock, OperationDetails> logs) {
+        HashMap<BasicRootNodeAccess, HashMap<HybridLogicalClock, OperationDetails>> logsOfReplicaRootNodes = new HashMap<>();
+        for (var entry : logs.entrySet()) {
+            for (var rootNode : routingTableSnapshot.getReplicaRootNodes(entry.getValue().getPositionInConsistentHashingRing())) {
+                logsOfReplicaRootNodes.computeIfAbsent(rootNode, currentRootNode -> new HashMap<>())
+                        .put(entry.getKey(), entry.getValue());
+            }
+        }
+        return logsOfReplicaRootNodes;
+    }
+
+    private void addRootNode(BasicRootNodeAccess rootNode, List<Integer> positionsInConsistentHashingRing) {
         synchronized (dataLock) {
-            consistentHashingRootNode.put(positionInConsistentHashingRing, rootNode);
-            rootNodesPositionInConsistentHashingRing.put(rootNode, positionInConsistentHashingRing);
+            for (int positionInConsistentHashingRing : positionsInConsistentHashingRing) {
+                consistentHashingRootNode.put(positionInConsistentHashingRing, rootNode);
+            }
+            rootNodesPositionInConsistentHashingRing.put(rootNode, positionsInConsistentHashingRing);
+            rebuildRoutingTable();
         }
     }
 
-    private synchronized void initiatingRootNode(BasicRootNodeAccess rootNode) {
-        System.out.printf("[ProxyServer]: Initiating the root node: %s\n", rootNode.getRootNodeName());
-        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy;
-        // Adding this code in synchronized block to prevent synchronous access and modification, which will cause
-        // an exception.
+    private void rebuildRoutingTable() {
         synchronized (dataLock) {
-            consistentHashingRootNodeCopy = new TreeMap<> (consistentHashingRootNode);
+            routingTable = new RoutingTable(++routingTableVersion, consistentHashingRootNode,
+                    ProxyServerConfig.positionsInTheConsistentHashingRing, ProxyServerConfig.replicationFactor);
         }
-        int positionInConsistentHashingRing = getPositionInConsistentHashingRing(consistentHashingRootNodeCopy,
+    }
+
+    private synchronized void initiatingRootNode(BasicRootNodeAccess rootNode) {
+        System.out.printf("[ProxyServer]: Initiating the root node: %s\n", rootNode.getRootNodeName());
+        RoutingTable currentRoutingTable = routingTable;
+        NavigableMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy = currentRoutingTable.getConsistentHashingRootNode();
+        List<Integer> positionsInConsistentHashingRing = getPositionsInConsistentHashingRing(consistentHashingRootNodeCopy,
                 rootNode.getRootNodeName());
         // If the consistent hashing ring is empty, then we add this root node and return
         if (consistentHashingRootNodeCopy.isEmpty()) {
             System.out.printf("[ProxyServer]: The consistent hashing node is empty, so adding the root node and returning " +
                     "for the root node: %s\n", rootNode.getRootNodeName());
-            addRootNode(rootNode, positionInConsistentHashingRing);
+            addRootNode(rootNode, positionsInConsistentHashingRing);
             return;
         }
-        System.out.println("[ProxyServer]: Starting the replication of data from the next and previous root node");
+        System.out.println("[ProxyServer]: Starting the replication of data from the neighbouring root nodes");
         printShardDetails();
-        BasicRootNodeAccess nextRootNode = extractNextRootNode(consistentHashingRootNodeCopy,
-                getNextRootNode(consistentHashingRootNodeCopy, positionInConsistentHashingRing));
-        BasicRootNodeAccess previousRootNode = extractPreviousRootNode(consistentHashingRootNodeCopy,
-                getPreviousRootNode(consistentHashingRootNodeCopy, positionInConsistentHashingRing));
-
-        // Getting the range of the current node using the previous root node.
-        // And getting the data from the next root node.
-        int startingPositionInConsistentHashingRing = rootNodesPositionInConsistentHashingRing.get(previousRootNode) + 1;
-        int endingPositionInConsistentHashingRing = positionInConsistentHashingRing;
+        System.out.printf("[ProxyServer]: Adding new root node: %s at positions: %s\n", rootNode.getRootNodeName(),
+                positionsInConsistentHashingRing);
 
-        System.out.printf("[ProxyServer]: Adding new root node: %s at position: %d\n", rootNode.getRootNodeName(),
-                positionInConsistentHashingRing);
-
-        if (endingPositionInConsistentHashingRing < startingPositionInConsistentHashingRing) {
-            System.out.printf("[ProxyServer]: Starting replication of data from the next root node to current root node in " +
-                    "range: %d %d and %d %d\n", startingPositionInConsistentHashingRing,
-                    ProxyServerConfig.positionsInTheConsistentHashingRing, 0, endingPositionInConsistentHashingRing);
-            asyncReplicationFromNeighbouringNode.createTaskForReplicationFromNextRootNodeAndEnqueue(
-                    rootNode, nextRootNode, startingPositionInConsistentHashingRing,
-                    ProxyServerConfig.positionsInTheConsistentHashingRing, 0,
-                    endingPositionInConsistentHashingRing
-            );
-        } else {
-            System.out.printf("[ProxyServer]: Starting replication of data from next root node to current root node in range: %d, %d\n",
-                    startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing);
-            asyncReplicationFromNeighbouringNode.createTaskForReplicationFromNextRootNodeAndEnqueue(rootNode, nextRootNode,
-                    startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing);
+        // Finding the ranges owned or replicated by this root node, using the ring after this root node has joined
+        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeAfterJoining = new TreeMap<>(consistentHashingRootNodeCopy);
+        for (int positionInConsistentHashingRing : positionsInConsistentHashingRing) {
+            consistentHashingRootNodeAfterJoining.put(positionInConsistentHashingRing, rootNode);
         }
-
-        // Replicating data present in the previous root node to the current root node. So that we can serve the data
-        // even if the previous root node goes down.
-        asyncReplicationFromNeighbouringNode.createTaskForReplicationFromPreviousRootNodeAndEnqueue(rootNode, previousRootNode);
-        // After starting the replication of data from the next and previous root node to get the latest data, we add
-        // the root node to the consistent hashing.
-        addRootNode(rootNode, positionInConsistentHashingRing);
-    }
-
-    private Map.Entry<Integer, BasicRootNodeAccess> getNextRootNode(
-            TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy, int positionInConsistentHashingRing) {
-        return consistentHashingRootNodeCopy.higherEntry(positionInConsistentHashingRing);
-    }
-
-    private Map.Entry<Integer, BasicRootNodeAccess> getPreviousRootNode(
-            TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy, int positionInConsistentHashingRing
-    ) {
-        return consistentHashingRootNodeCopy.lowerEntry(positionInConsistentHashingRing);
-    }
-
-    private BasicRootNodeAccess extractNextRootNode(
-            TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy,
-            Map.Entry<Integer, BasicRootNodeAccess> nextRootNodeEntry
-    ) {
-        if (nextRootNodeEntry == null) {
-            return consistentHashingRootNodeCopy.firstEntry().getValue();
+        for (StateTransferOfRange stateTransferOfRange : getStateTransfersOfRangesOfJoiningRootNode(currentRoutingTable,
+                consistentHashingRootNodeAfterJoining, rootNode)) {
+            asyncReplicationFromNeighbouringNode.enqueueStateTransferOfRange(stateTransferOfRange);
         }
-        return nextRootNodeEntry.getValue();
+        // After starting the replication of data from the neighbouring root nodes to get the latest data, we add the
+        // root node to the consistent hashing.
+        addRootNode(rootNode, positionsInConsistentHashingRing);
     }
 
-    private BasicRootNodeAccess extractPreviousRootNode(
-            TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy,
-            Map.Entry<Integer, BasicRootNodeAccess> previousRootNodeEntry
-    ) {
-        if (previousRootNodeEntry == null) {
-            return consistentHashingRootNodeCopy.lastEntry().getValue();
-        } else {
-            return previousRootNodeEntry.getValue();
+    // The ranges owned or replicated by the joining root node in the ring after it has joined, each pulled from the root
+    // node serving it before the join
+    static List<StateTransferOfRange> getStateTransfersOfRangesOfJoiningRootNode(
+            RoutingTable currentRoutingTable, TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeAfterJoining,
+            BasicRootNodeAccess rootNode) {
+        RoutingTable routingTableAfterJoining = new RoutingTable(currentRoutingTable.getVersion(),
+                consistentHashingRootNodeAfterJoining, ProxyServerConfig.positionsInTheConsistentHashingRing,
+                ProxyServerConfig.replicationFactor);
+        List<StateTransferOfRange> stateTransfersOfRanges = new ArrayList<>();
+
+        for (var entry : consistentHashingRootNodeAfterJoining.entrySet()) {
+            // The keys from the previous position up to the position before this one are owned by this position
+            Integer previousPositionInConsistentHashingRing = consistentHashingRootNodeAfterJoining.lowerKey(entry.getKey());
+            if (previousPositionInConsistentHashingRing == null) {
+                previousPositionInConsistentHashingRing = consistentHashingRootNodeAfterJoining.lastKey();
+            }
+            int startingPositionInConsistentHashingRing = previousPositionInConsistentHashingRing;
+            int endingPositionInConsistentHashingRing = Math.floorMod(entry.getKey() - 1,
+                    ProxyServerConfig.positionsInTheConsistentHashingRing);
+
+            BasicRootNodeAccess sourceRootNode;
+            if (entry.getValue() == rootNode) {
+                // The range of the virtual node was served by the next root node while this root node was inactive
+                sourceRootNode = currentRoutingTable.getRootNode(endingPositionInConsistentHashingRing);
+            } else if (routingTableAfterJoining.getReplicaRootNodes(endingPositionInConsistentHashingRing).contains(rootNode)) {
+                // Replicating the range owned by another root node, so that we can serve the data even if that root node
+                // goes down
+                sourceRootNode = entry.getValue();
+            } else {
+                continue;
+            }
+            stateTransfersOfRanges.add(new StateTransferOfRange(rootNode, sourceRootNode,
+                    startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing));
         }
+        return stateTransfersOfRanges;
     }
 
     private void removeRootNode(BasicRootNodeAccess rootNode) {
         synchronized (dataLock) {
-            int positionInConsistentHashingRing = rootNodesPositionInConsistentHashingRing.get(rootNode);
-            rootNodesPositionInConsistentHashingRing.remove(rootNode);
-            consistentHashingRootNode.remove(positionInConsistentHashingRing);
+            List<Integer> positionsInConsistentHashingRing = rootNodesPositionInConsistentHashingRing.remove(rootNode);
+            if (positionsInConsistentHashingRing == null) {
+                // Already removed by a concurrent request which found the root node down
+                return;
+            }
+            for (int positionInConsistentHashingRing : positionsInConsistentHashingRing) {
+                consistentHashingRootNode.remove(positionInConsistentHashingRing);
+            }
+            rebuildRoutingTable();
         }
         rootNodesStatus.put(rootNode, false);
 
@@ -381,12 +738,8 @@ public class ProxyServer implements RequestProxy, ElevatedProxyServer {
     }
 
     private void printShardDetails() {
-        TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy;
-        synchronized (dataLock) {
-            consistentHashingRootNodeCopy = new TreeMap<>(consistentHashingRootNode);
-        }
         System.out.println("Shard Details");
-        for (var entry : consistentHashingRootNodeCopy.entrySet()) {
+        for (var entry : routingTable.getConsistentHashingRootNode().entrySet()) {
             int positionInconsistentHashingRing = entry.getKey();
             BasicRootNodeAccess rootNode = entry.getValue();
             System.out.println(rootNode.getRootNodeName() + " " + positionInconsistentHashingRing);
@@ -399,19 +752,36 @@ public class ProxyServer implements RequestProxy, ElevatedProxyServer {
             rootNodesHeartBeat.put(rootNode, LocalDateTime.now());
             rootNodesStatus.put(rootNode, true);
             String currentRootNodeName = rootNode.getRootNodeName();
-            int positionInConsistentHashingRing = getPositionInConsistentHashingRing(consistentHashingRootNode, currentRootNodeName);
-            consistentHashingRootNode.put(positionInConsistentHashingRing, rootNode);
-            rootNodesPositionInConsistentHashingRing.put(rootNode, positionInConsistentHashingRing);
+            List<Integer> positionsInConsistentHashingRing = getPositionsInConsistentHashingRing(consistentHashingRootNode,
+                    currentRootNodeName);
+            for (int positionInConsistentHashingRing : positionsInConsistentHashingRing) {
+                consistentHashingRootNode.put(positionInConsistentHashingRing, rootNode);
+            }
+            rootNodesPositionInConsistentHashingRing.put(rootNode, positionsInConsistentHashingRing);
+        }
+        rebuildRoutingTable();
+    }
+
+    private List<Integer> getPositionsInConsistentHashingRing(
+            NavigableMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy, String rootNodeName) {
+        List<Integer> positionsInConsistentHashingRing = new ArrayList<>();
+        for (int virtualNode = 0; virtualNode < ProxyServerConfig.numberOfVirtualNodesPerRootNode; virtualNode++) {
+            // The first virtual node keeps the position derived from the root node name alone
+            String virtualNodeName = virtualNode == 0 ? rootNodeName : rootNodeName + "#" + virtualNode;
+            positionsInConsistentHashingRing.add(getPositionInConsistentHashingRing(consistentHashingRootNodeCopy,
+                    positionsInConsistentHashingRing, virtualNodeName));
         }
+        return positionsInConsistentHashingRing;
     }
 
-    private int getPositionInConsistentHashingRing(TreeMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy,
-                                                   String rootNodeName) {
+    private int getPositionInConsistentHashingRing(NavigableMap<Integer, BasicRootNodeAccess> consistentHashingRootNodeCopy,
+                                                   List<Integer> takenPositionsInConsistentHashingRing, String rootNodeName) {
         int attempt = 1;
         int finalPositionInConsistentHashingRing;
         while (true) {
             int positionInConsistentHashingRing = HashingHelper.hash(rootNodeName);
-            if (!consistentHashingRootNodeCopy.containsKey(positionInConsistentHashingRing)) {
+            if (!consistentHashingRootNodeCopy.containsKey(positionInConsistentHashingRing) &&
+                    !takenPositionsInConsistentHashingRing.contains(positionInConsistentHashingRing)) {
                 finalPositionInConsistentHashingRing = positionInConsistentHashingRing;
                 break;
             }
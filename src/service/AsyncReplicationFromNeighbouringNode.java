@@ -1,17 +1,15 @@
 package service;
 
-import data.HybridLogicalClock;
-import data.operationDetails.OperationDetails;
 import exception.DatabaseNodeInActiveException;
 import exception.NotLeaderException;
 import exception.RootNodeDownException;
 import node.rootNode.BasicRootNodeAccess;
 
-import java.util.HashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 
 public class AsyncReplicationFromNeighbouringNode implements Runnable {
-    private final LinkedBlockingQueue<Runnable> queue;
+    private final LinkedBlockingQueue<StateTransferOfRange> queue;
+    private final RetryScheduler retryScheduler = RetryScheduler.getRetryScheduler();
 
     public AsyncReplicationFromNeighbouringNode() {
         queue = new LinkedBlockingQueue<>();
@@ -20,74 +18,49 @@ public class AsyncReplicationFromNeighbouringNode implements Runnable {
     @Override
     public void run() {
         while (true) {
-            Runnable task = null;
+            StateTransferOfRange task = null;
             try {
                 task = queue.take();
                 task.run();
+                task.resetNumberOfFailedAttempts();
+                retryScheduler.recordSuccess(task.getSourceRootNodeName());
+                // A state transfer runs a chunk at a time, so that the transfers of the other ranges are not held up
+                if (!task.isCompleted()) {
+                    enqueueTaskToTheQueue(task);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 System.out.println("The service for replication of data from the next node is stopped");
+                return;
             } catch (DatabaseNodeInActiveException | NotLeaderException e) {
-                System.out.printf("[AsyncReplicationFromNeighbouringNode]: Error while performing the replication, " +
-                        "trying the replication after some time: %s\n", e.getMessage());
-                enqueueTaskToTheQueue(task);
+                retryTask(task, e.getMessage());
             } catch (RootNodeDownException e) {
                 System.out.printf("[AsyncReplicationFromNeighbouringNode]: %s\n", e.getMessage());
             }
         }
     }
 
-    public void createTaskForReplicationFromNextRootNodeAndEnqueue(BasicRootNodeAccess currentRootNode,
-                                                                   BasicRootNodeAccess nextRootNode,
-                                                                   int startingPositionInConsistentHashingRing,
-                                                                   int endingPositionInConsistentHashingRing) {
-        Runnable task = () -> {
-            System.out.println("[AsyncReplicationFromNeighbouringNode]: Starting a task to replicate data from the " +
-                    "next root node to the current root node");
-            HashMap<HybridLogicalClock, OperationDetails> logsInRangeOfConsistentHashingPosition =
-                    nextRootNode.getLogsInRangeOfConsistentHashingPosition(startingPositionInConsistentHashingRing,
-                            endingPositionInConsistentHashingRing);
-            currentRootNode.replicationOfData(logsInRangeOfConsistentHashingPosition);
-        };
-
-        enqueueTaskToTheQueue(task);
-    }
-
-    public void createTaskForReplicationFromNextRootNodeAndEnqueue(BasicRootNodeAccess currentRootNode,
-                                                                           BasicRootNodeAccess nextRootNode,
-                                                                           int startingPositionInConsistentHashingRing,
-                                                                           int intermediateEndingPositionInConsistentHashingRing,
-                                                                           int intermediateStartingPositonInConsistentHashingRing,
-                                                                           int endingPositonInConsistentHashingRing) {
-        Runnable task = () -> {
-            System.out.println("[AsyncReplicationFromNeighbouringNode]: Starting a task to replicate data from the " +
-                    "next root node to the current root node");
-            HashMap<HybridLogicalClock, OperationDetails> logsInRangeOfConsistentHashingPosition =
-                    nextRootNode.getLogsInRangeOfConsistentHashingPosition(
-                            startingPositionInConsistentHashingRing,
-                            intermediateEndingPositionInConsistentHashingRing,
-                            intermediateStartingPositonInConsistentHashingRing,
-                            endingPositonInConsistentHashingRing
-                    );
-            currentRootNode.replicationOfData(logsInRangeOfConsistentHashingPosition);
-        };
-
+    // A range ending before its starting position wraps around the ring
+    public void enqueueStateTransferOfRange(StateTransferOfRange task) {
+        System.out.printf("[AsyncReplicationFromNeighbouringNode]: Starting a task to transfer the data in range: %d %d " +
+                "from %s to %s\n", task.getStartingPositionInConsistentHashingRing(),
+                task.getEndingPositionInConsistentHashingRing(), task.getSourceRootNodeName(), task.getCurrentRootNodeName());
         enqueueTaskToTheQueue(task);
     }
 
-    public void createTaskForReplicationFromPreviousRootNodeAndEnqueue(BasicRootNodeAccess currentRootNode,
-                                                                       BasicRootNodeAccess previousRootNode) {
-        Runnable task = () -> {
-            System.out.println("[AsyncReplicationFromNeighbouringNode]: Starting a task to replicate data from the " +
-                    "previous root node to the current root node");
-            HashMap<HybridLogicalClock, OperationDetails> logs = previousRootNode.getLogs();
-            currentRootNode.replicationOfData(logs);
-        };
-
-        enqueueTaskToTheQueue(task);
+    // The task is kept aside until its backoff has passed, the queue goes on with the transfers of the other ranges
+    private void retryTask(StateTransferOfRange task, String message) {
+        int numberOfFailedAttempts = task.incrementNumberOfFailedAttempts();
+        if (!retryScheduler.hasRetriesLeft(numberOfFailedAttempts)) {
+            retryScheduler.addDeadLetter(task.getSourceRootNodeName(), task.toString());
+            return;
+        }
+        System.out.printf("[AsyncReplicationFromNeighbouringNode]: Error while performing the replication, " +
+                "trying the replication after some time: %s\n", message);
+        retryScheduler.scheduleRetry(task.getSourceRootNodeName(), numberOfFailedAttempts, () -> enqueueTaskToTheQueue(task));
     }
 
-    private void enqueueTaskToTheQueue(Runnable task) {
+    private void enqueueTaskToTheQueue(StateTransferOfRange task) {
         queue.offer(task);
     }
 }
@@ -1,65 +1,93 @@
 package service;
 
-import config.LogsConfig;
+import config.ProxyServerConfig;
 import data.HybridLogicalClock;
-import exception.DatabaseNodeInActiveException;
-import exception.NotLeaderException;
-import exception.RootNodeDownException;
+import data.OperationType;
+import data.operationDetails.DeleteOperationDetails;
+import data.operationDetails.OperationDetails;
+import data.operationDetails.UpdateOperationDetails;
 import node.rootNode.BasicRootNodeAccess;
+import util.ExecutorHelper;
 
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
-public class AsyncReplicationOfUpdates implements Runnable {
-    private final LinkedBlockingQueue<Runnable> queue;
+// Replicates the updates to the replica root nodes through a replication pipeline per root node, which batches and
+// coalesces the pending updates of that root node
+public class AsyncReplicationOfUpdates {
+    private final ConcurrentHashMap<BasicRootNodeAccess, ReplicationPipeline> replicationPipelines;
+    private final ExecutorService executor;
 
     public AsyncReplicationOfUpdates() {
-        queue = new LinkedBlockingQueue<>();
+        replicationPipelines = new ConcurrentHashMap<>();
+        executor = ExecutorHelper.newExecutorForBlockingTasks(ProxyServerConfig.numberOfThreadsForReplicationOfUpdates);
     }
 
-    @Override
-    public void run() {
-        while (true) {
-            Runnable task = null;
-            try {
-                task = queue.take();
-                task.run();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.out.println("The service for replication of updated is stopped");
-            } catch (DatabaseNodeInActiveException | NotLeaderException e) {
-                System.out.printf("[AsyncReplicationOfUpdates]: Error while performing the replication, " +
-                        "trying the replication after some time: %s\n", e.getMessage());
-                enqueueTask(task);
-            } catch (RootNodeDownException e) {
-                System.out.printf("[AsyncReplicationOfUpdates]: %s\n", e.getMessage());
+    // Waits for room in the pipelines of the replica root nodes, up to the backpressure timeout in total. False when one
+    // of them is still full, then the write is rejected before it is sent to the owning root node.
+    public boolean awaitRoomForUpdates(Collection<BasicRootNodeAccess> rootNodes) {
+        long deadlineNanoseconds = System.nanoTime() +
+                TimeUnit.MILLISECONDS.toNanos(ProxyServerConfig.replicationBackpressureTimeoutMilliseconds);
+        for (var rootNode : rootNodes) {
+            if (!getReplicationPipeline(rootNode).awaitRoomForUpdates(deadlineNanoseconds)) {
+                return false;
             }
         }
+        return true;
     }
 
     public void replicateWriteOperations(BasicRootNodeAccess rootNode, HybridLogicalClock hybridLogicalClock,
                                          String key, String value) {
-        Runnable task = () -> {
-            if (LogsConfig.isAsyncReplicationOfUpdatesLoggingEnabled) {
-                System.out.printf("[AsyncReplicationOfUpdates]: replicating write operation to the root node: %s\n",
-                        rootNode.getRootNodeName());
-            }
-            rootNode.write(hybridLogicalClock, key, value);
-        };
-        enqueueTask(task);
+        getReplicationPipeline(rootNode).addUpdate(hybridLogicalClock,
+                new UpdateOperationDetails(OperationType.UPDATE, key, value));
     }
 
     public void replicateDeleteOperations(BasicRootNodeAccess rootNode, HybridLogicalClock hybridLogicalClock, String key) {
-        Runnable task = () -> {
-            if (LogsConfig.isAsyncReplicationOfUpdatesLoggingEnabled) {
-                System.out.printf("[AsyncReplicationOfUpdates]: Replicating delete operation to the root node: %s\n",
-                        rootNode.getRootNodeName());
-            }
-            rootNode.delete(hybridLogicalClock, key);
-        };
-        enqueueTask(task);
+        getReplicationPipeline(rootNode).addUpdate(hybridLogicalClock, new DeleteOperationDetails(OperationType.DELETE, key));
+    }
+
+    public void replicateBatchOperations(BasicRootNodeAccess rootNode, HashMap<HybridLogicalClock, OperationDetails> logs) {
+        ReplicationPipeline replicationPipeline = getReplicationPipeline(rootNode);
+        for (var entry : logs.entrySet()) {
+            replicationPipeline.addUpdate(entry.getKey(), entry.getValue());
+        }
+    }
+
+    // Depth of the pipelines, the number of keys waiting to be replicated across every root node
+    public int getNumberOfPendingUpdates() {
+        int numberOfPendingUpdates = 0;
+        for (var replicationPipeline : replicationPipelines.values()) {
+            numberOfPendingUpdates += replicationPipeline.getNumberOfPendingUpdates();
+        }
+        return numberOfPendingUpdates;
+    }
+
+    public long getNumberOfDroppedUpdates() {
+        long numberOfDroppedUpdates = 0;
+        for (var replicationPipeline : replicationPipelines.values()) {
+            numberOfDroppedUpdates += replicationPipeline.getNumberOfDroppedUpdates();
+        }
+        return numberOfDroppedUpdates;
+    }
+
+    public long getNumberOfRejectedWrites() {
+        long numberOfRejectedWrites = 0;
+        for (var replicationPipeline : replicationPipelines.values()) {
+            numberOfRejectedWrites += replicationPipeline.getNumberOfRejectedWrites();
+        }
+        return numberOfRejectedWrites;
+    }
+
+    // The updates still pending in the pipelines are not replicated
+    public void shutdown() {
+        executor.shutdownNow();
     }
 
-    private void enqueueTask(Runnable task) {
-        queue.offer(task);
+    private ReplicationPipeline getReplicationPipeline(BasicRootNodeAccess rootNode) {
+        return replicationPipelines.computeIfAbsent(rootNode,
+                currentRootNode -> new ReplicationPipeline(currentRootNode, executor));
     }
 }
@@ -3,34 +3,80 @@ package service;
 import exception.ReplicationRetryExceededException;
 import exception.RootNodeDownException;
 
-import java.util.concurrent.LinkedBlockingQueue;
-
-public class AsyncReplicationService implements Runnable {
-    private final LinkedBlockingQueue<Runnable> queue;
-
-    public AsyncReplicationService() {
-        queue = new LinkedBlockingQueue<>();
-    }
-
-    @Override
-    public void run() {
-        while (true) {
-            Runnable task;
-            try {
-                task = queue.take();
-                task.run();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.out.println("[AsyncReplicationService]: The asynchronous replication of data within the shard is stopped");
-            } catch (ReplicationRetryExceededException e) {
-                System.out.println("[AsyncReplicationService]: Replicate data has exceeded the try limit for replication of data");
-            } catch (RootNodeDownException e) {
-                System.out.println("[AsyncReplicationService]: Root node is down");
-            }
-        }
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// The tasks of a root node run one at a time, in the order they were added, by a single drain task on the threads of
+// the periodic task scheduler for the blocking tasks
+public class AsyncReplicationService {
+    private final String rootNodeName;
+    private final ConcurrentLinkedQueue<RetryableTask> queue;
+    private final RetryScheduler retryScheduler = RetryScheduler.getRetryScheduler();
+    private final PeriodicTaskScheduler periodicTaskScheduler = PeriodicTaskScheduler.getPeriodicTaskScheduler();
+    private final AtomicBoolean isDrainScheduled = new AtomicBoolean();
+
+    public AsyncReplicationService(String rootNodeName) {
+        this.rootNodeName = rootNodeName;
+        queue = new ConcurrentLinkedQueue<>();
     }
 
     public void addTask(Runnable task) {
+        offerTask(new RetryableTask(task));
+    }
+
+    private void offerTask(RetryableTask task) {
         queue.offer(task);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (isDrainScheduled.compareAndSet(false, true)) {
+            periodicTaskScheduler.executeBlockingTask(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            RetryableTask task;
+            while ((task = queue.poll()) != null) {
+                runTask(task);
+            }
+        } finally {
+            isDrainScheduled.set(false);
+        }
+        // A task added after the queue was found empty, but before the drain task was done
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void runTask(RetryableTask task) {
+        try {
+            task.runnable.run();
+            retryScheduler.recordSuccess(rootNodeName);
+        } catch (ReplicationRetryExceededException e) {
+            System.out.println("[AsyncReplicationService]: Replicate data has exceeded the try limit for replication of data");
+            retryTask(task);
+        } catch (RootNodeDownException e) {
+            System.out.println("[AsyncReplicationService]: Root node is down");
+        }
+    }
+
+    private void retryTask(RetryableTask task) {
+        task.numberOfFailedAttempts++;
+        if (!retryScheduler.hasRetriesLeft(task.numberOfFailedAttempts)) {
+            retryScheduler.addDeadLetter(rootNodeName, "replication of data between the database nodes");
+            return;
+        }
+        retryScheduler.scheduleRetry(rootNodeName, task.numberOfFailedAttempts, () -> offerTask(task));
+    }
+
+    private static class RetryableTask {
+        private final Runnable runnable;
+        private int numberOfFailedAttempts;
+
+        private RetryableTask(Runnable runnable) {
+            this.runnable = runnable;
+        }
     }
 }
@@ -0,0 +1,34 @@
+package service;
+
+import config.RetryConfig;
+
+// Opens once a target has failed a number of times in a row. While open, the retries of the target are held back.
+// Once the open time has passed, the next retry is let through as a trial: a success closes the circuit, a failure
+// opens it again.
+public class CircuitBreaker {
+    private int numberOfConsecutiveFailures;
+    private long openUntilNanoseconds;
+
+    public synchronized void recordSuccess() {
+        numberOfConsecutiveFailures = 0;
+        openUntilNanoseconds = 0;
+    }
+
+    public synchronized void recordFailure() {
+        numberOfConsecutiveFailures++;
+        if (numberOfConsecutiveFailures >= RetryConfig.numberOfFailuresToOpenCircuit) {
+            openUntilNanoseconds = System.nanoTime() + RetryConfig.circuitOpenMilliseconds * 1_000_000L;
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return getRemainingOpenNanoseconds() > 0;
+    }
+
+    public synchronized long getRemainingOpenNanoseconds() {
+        if (openUntilNanoseconds == 0) {
+            return 0;
+        }
+        return Math.max(0, openUntilNanoseconds - System.nanoTime());
+    }
+}
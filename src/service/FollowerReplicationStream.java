@@ -0,0 +1,256 @@
+package service;
+
+import config.LogsConfig;
+import config.RootNodeConfig;
+import data.HybridLogicalClock;
+import data.StateTransferChunk;
+import data.operationDetails.OperationDetails;
+import exception.DatabaseNodeInActiveException;
+import node.databaseNode.ElevatedDatabaseNodeAccess;
+import util.HybridLogicalClockComparator;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Delivers the batches of the leader to a single database node, so that every database node of the root node is
+// replicated independently and in parallel. The stream keeps the maximum hybrid logical clock of the leader which the
+// database node has acknowledged. When the database node is down, the batches are not kept: the stream only remembers
+// the earliest hybrid logical clock it missed, and catches up from the log of the leader once the database node is back.
+// The batches are delivered by a single drain task at a time on the threads of the periodic task scheduler for the
+// blocking tasks, so a stream holds no thread while it has nothing to deliver.
+public class FollowerReplicationStream {
+    private static final Comparator<HybridLogicalClock> hybridLogicalClockComparator =
+            HybridLogicalClockComparator.getHybridLogicalClock();
+
+    private final ElevatedDatabaseNodeAccess databaseNode;
+    private final Supplier<ElevatedDatabaseNodeAccess> leaderDatabaseNodeSupplier;
+    private final ConcurrentLinkedQueue<ReplicationBatch> queue;
+    private final PeriodicTaskScheduler periodicTaskScheduler = PeriodicTaskScheduler.getPeriodicTaskScheduler();
+    private final AtomicBoolean isDrainScheduled = new AtomicBoolean();
+    private volatile PeriodicTask catchingUpTask;
+    private volatile HybridLogicalClock acknowledgedHybridLogicalClock;
+    // Earliest hybrid logical clock of the batch being delivered, null in between the batches
+    private volatile HybridLogicalClock deliveringHybridLogicalClock;
+    // Earliest hybrid logical clock missed by the database node, null while the database node is up to date
+    private volatile HybridLogicalClock missedHybridLogicalClock;
+    // Batches enqueued and not delivered yet, including the one being delivered
+    private final AtomicInteger numberOfUndeliveredBatches = new AtomicInteger();
+
+    public FollowerReplicationStream(ElevatedDatabaseNodeAccess databaseNode,
+                                     Supplier<ElevatedDatabaseNodeAccess> leaderDatabaseNodeSupplier) {
+        this.databaseNode = databaseNode;
+        this.leaderDatabaseNodeSupplier = leaderDatabaseNodeSupplier;
+        this.queue = new ConcurrentLinkedQueue<>();
+    }
+
+    // A database node which missed batches is checked periodically, to catch up once it is back. Started and stopped
+    // with the periodic tasks of the root node.
+    public void scheduleCatchingUp() {
+        if (catchingUpTask != null) {
+            catchingUpTask.cancel();
+        }
+        catchingUpTask = periodicTaskScheduler.scheduleWithFixedDelay(
+                String.format("Replication stream of %s: Catching up", databaseNode.getDatabaseNodeName()), () -> {
+                    if (missedHybridLogicalClock != null) {
+                        scheduleDrain();
+                    }
+                }, RootNodeConfig.cooldownTimeForCatchingUpDatabaseNodes);
+    }
+
+    public void cancelCatchingUp() {
+        if (catchingUpTask != null) {
+            catchingUpTask.cancel();
+        }
+    }
+
+    // The logs are ordered by the hybrid logical clock. The database node which applied the logs while writing them,
+    // the leader for the logs of its replication buffer, only acknowledges them. It is null for the logs coming from
+    // outside the root node, which every database node applies, including the leader.
+    public void enqueue(LinkedHashMap<HybridLogicalClock, OperationDetails> logs,
+                        ElevatedDatabaseNodeAccess appliedDatabaseNode) {
+        if (!logs.isEmpty()) {
+            numberOfUndeliveredBatches.incrementAndGet();
+            queue.offer(new ReplicationBatch(logs, appliedDatabaseNode, logs.keySet().iterator().next(), null, 0, 0));
+            scheduleDrain();
+        }
+    }
+
+    // A snapshot chunk of a range is delivered in order with the logs, so the logs written after the chunk was read
+    // are applied after it
+    public void enqueueSnapshotChunk(StateTransferChunk stateTransferChunk, int startingPositionInConsistentHashingRing,
+                                     int endingPositionInConsistentHashingRing) {
+        HybridLogicalClock firstHybridLogicalClock = stateTransferChunk.getHybridLogicalClock();
+        for (HybridLogicalClock hybridLogicalClock : stateTransferChunk.getLogs().keySet()) {
+            firstHybridLogicalClock = getMinimum(firstHybridLogicalClock, hybridLogicalClock);
+        }
+        if (firstHybridLogicalClock == null) {
+            // The source had no data when the chunk was read
+            return;
+        }
+        numberOfUndeliveredBatches.incrementAndGet();
+        queue.offer(new ReplicationBatch(stateTransferChunk.getLogs(), null, firstHybridLogicalClock, stateTransferChunk,
+                startingPositionInConsistentHashingRing, endingPositionInConsistentHashingRing));
+        scheduleDrain();
+    }
+
+    public ElevatedDatabaseNodeAccess getDatabaseNode() {
+        return databaseNode;
+    }
+
+    public HybridLogicalClock getAcknowledgedHybridLogicalClock() {
+        return acknowledgedHybridLogicalClock;
+    }
+
+    // The database node has applied every batch enqueued so far
+    public boolean isCaughtUp() {
+        return numberOfUndeliveredBatches.get() == 0 && missedHybridLogicalClock == null;
+    }
+
+    // Earliest hybrid logical clock which the database node may still need from the log of the leader, null when there
+    // is none
+    public HybridLogicalClock getEarliestUnacknowledgedHybridLogicalClock() {
+        HybridLogicalClock earliestHybridLogicalClock = getMinimum(missedHybridLogicalClock, deliveringHybridLogicalClock);
+        ReplicationBatch nextBatch = queue.peek();
+        if (nextBatch != null) {
+            earliestHybridLogicalClock = getMinimum(earliestHybridLogicalClock, nextBatch.firstHybridLogicalClock);
+        }
+        return earliestHybridLogicalClock;
+    }
+
+    private void scheduleDrain() {
+        if (isDrainScheduled.compareAndSet(false, true)) {
+            periodicTaskScheduler.executeBlockingTask(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            ReplicationBatch batch;
+            while ((batch = queue.poll()) != null) {
+                try {
+                    deliver(batch);
+                } finally {
+                    numberOfUndeliveredBatches.decrementAndGet();
+                }
+            }
+            if (missedHybridLogicalClock != null) {
+                catchUpFromLeaderDatabaseNode();
+            }
+        } finally {
+            isDrainScheduled.set(false);
+        }
+        // A batch enqueued after the queue was found empty, but before the drain task was done
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void deliver(ReplicationBatch batch) {
+        HashMap<HybridLogicalClock, OperationDetails> logs = batch.logs;
+        HybridLogicalClock firstHybridLogicalClock = batch.firstHybridLogicalClock;
+        if (databaseNode == batch.appliedDatabaseNode) {
+            acknowledge(logs);
+            return;
+        }
+        if (missedHybridLogicalClock != null) {
+            // The log of the leader has these logs as well, so they are covered by the catch up. A chunk deletes the
+            // keys missing from it through the log of the leader too, or through the anti-entropy with the leader
+            // when the log was truncated.
+            missedHybridLogicalClock = getMinimum(missedHybridLogicalClock, firstHybridLogicalClock);
+            catchUpFromLeaderDatabaseNode();
+            return;
+        }
+        deliveringHybridLogicalClock = firstHybridLogicalClock;
+        try {
+            if (batch.stateTransferChunk == null) {
+                databaseNode.replicateData(logs);
+            } else {
+                databaseNode.replicateSnapshotChunk(batch.stateTransferChunk, batch.startingPositionInConsistentHashingRing,
+                        batch.endingPositionInConsistentHashingRing);
+            }
+            acknowledge(logs);
+        } catch (DatabaseNodeInActiveException e) {
+            if (LogsConfig.isExtraLoggingEnabled) {
+                System.out.printf("[FollowerReplicationStream]: %s is down, it will catch up from the leader: %s\n",
+                        databaseNode.getDatabaseNodeName(), e.getMessage());
+            }
+            missedHybridLogicalClock = firstHybridLogicalClock;
+        } finally {
+            deliveringHybridLogicalClock = null;
+        }
+    }
+
+    private void catchUpFromLeaderDatabaseNode() {
+        ElevatedDatabaseNodeAccess leaderDatabaseNode = leaderDatabaseNodeSupplier.get();
+        if (leaderDatabaseNode == null || !databaseNode.getIsActive()) {
+            return;
+        }
+        if (leaderDatabaseNode == databaseNode) {
+            missedHybridLogicalClock = null;
+            return;
+        }
+        HashMap<HybridLogicalClock, OperationDetails> logs =
+                leaderDatabaseNode.getLogsAfterTheGivenTimestamp(missedHybridLogicalClock);
+        try {
+            databaseNode.replicateData(logs);
+        } catch (DatabaseNodeInActiveException e) {
+            return;
+        }
+        acknowledge(logs);
+        missedHybridLogicalClock = null;
+        if (LogsConfig.isExtraLoggingEnabled) {
+            System.out.printf("[FollowerReplicationStream]: %s caught up with %d logs from the leader\n",
+                    databaseNode.getDatabaseNodeName(), logs.size());
+        }
+    }
+
+    private void acknowledge(HashMap<HybridLogicalClock, OperationDetails> logs) {
+        HybridLogicalClock maximumHybridLogicalClock = acknowledgedHybridLogicalClock;
+        for (HybridLogicalClock hybridLogicalClock : logs.keySet()) {
+            if (maximumHybridLogicalClock == null ||
+                    hybridLogicalClockComparator.compare(hybridLogicalClock, maximumHybridLogicalClock) > 0) {
+                maximumHybridLogicalClock = hybridLogicalClock;
+            }
+        }
+        acknowledgedHybridLogicalClock = maximumHybridLogicalClock;
+    }
+
+    private HybridLogicalClock getMinimum(HybridLogicalClock first, HybridLogicalClock second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return hybridLogicalClockComparator.compare(first, second) <= 0 ? first : second;
+    }
+
+    // A batch of logs, or a snapshot chunk of a range together with its logs
+    private static class ReplicationBatch {
+        private final HashMap<HybridLogicalClock, OperationDetails> logs;
+        // Null when no database node has applied the logs yet
+        private final ElevatedDatabaseNodeAccess appliedDatabaseNode;
+        private final HybridLogicalClock firstHybridLogicalClock;
+        // Null for a batch of logs
+        private final StateTransferChunk stateTransferChunk;
+        private final int startingPositionInConsistentHashingRing;
+        private final int endingPositionInConsistentHashingRing;
+
+        private ReplicationBatch(HashMap<HybridLogicalClock, OperationDetails> logs,
+                                 ElevatedDatabaseNodeAccess appliedDatabaseNode, HybridLogicalClock firstHybridLogicalClock,
+                                 StateTransferChunk stateTransferChunk, int startingPositionInConsistentHashingRing,
+                                 int endingPositionInConsistentHashingRing) {
+            this.logs = logs;
+            this.appliedDatabaseNode = appliedDatabaseNode;
+            this.firstHybridLogicalClock = firstHybridLogicalClock;
+            this.stateTransferChunk = stateTransferChunk;
+            this.startingPositionInConsistentHashingRing = startingPositionInConsistentHashingRing;
+            this.endingPositionInConsistentHashingRing = endingPositionInConsistentHashingRing;
+        }
+    }
+}
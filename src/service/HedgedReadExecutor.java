@@ -0,0 +1,134 @@
+package service;
+
+import config.RootNodeConfig;
+import data.OperationResult;
+import data.OperationStatus;
+import util.ExecutorHelper;
+import util.LatencyHistogram;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Sends a read to a second follower database node when the first one has not answered within the configured percentile
+// of the recent read latencies, and returns whichever answers first. The number of hedged reads is capped at a fraction
+// of the reads, so a slow root node does not double its own load.
+public class HedgedReadExecutor {
+    // Shared by the hedged reads of every root node. A read runs on its own thread, so the reads of one shard never
+    // queue behind the reads of another, and a slow first read can be left behind once the hedged read answers.
+    private static final ExecutorService executor = ExecutorHelper.newExecutorForTasksInFlight();
+    private final LatencyHistogram latencyHistogram;
+    private final AtomicLong numberOfReads = new AtomicLong();
+    private final AtomicLong numberOfHedgedReads = new AtomicLong();
+    private final AtomicLong numberOfHedgedReadsWon = new AtomicLong();
+    private volatile long hedgedReadDelayNanoseconds = TimeUnit.MICROSECONDS.toNanos(RootNodeConfig.minimumHedgedReadDelayMicroseconds);
+
+    public HedgedReadExecutor() {
+        this.latencyHistogram = new LatencyHistogram(RootNodeConfig.numberOfReadsInHedgedReadLatencyWindow);
+    }
+
+    // An inactive database node of one read leaves the answer to the other, any other outcome is the answer
+    public OperationResult read(Supplier<OperationResult> firstRead, Supplier<OperationResult> secondRead) {
+        long readNumber = numberOfReads.incrementAndGet();
+        if (readNumber % RootNodeConfig.numberOfReadsBetweenHedgedReadDelayUpdates == 0) {
+            updateHedgedReadDelay();
+        }
+        long startTimeNanoseconds = System.nanoTime();
+        CompletableFuture<OperationResult> firstFuture = CompletableFuture.supplyAsync(firstRead, executor);
+        firstFuture.whenComplete((value, exception) -> latencyHistogram.add(System.nanoTime() - startTimeNanoseconds));
+        try {
+            return firstFuture.get(hedgedReadDelayNanoseconds, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The first follower database node is slow, hedging below
+        } catch (ExecutionException e) {
+            throw getCauseOfFailedRead(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE);
+        }
+        if (!tryAcquireHedgedRead()) {
+            return await(firstFuture);
+        }
+        CompletableFuture<OperationResult> secondFuture = CompletableFuture.supplyAsync(secondRead, executor);
+        CompletableFuture<OperationResult> answer = new CompletableFuture<>();
+        AtomicInteger numberOfInactiveDatabaseNodes = new AtomicInteger();
+        firstFuture.whenComplete((value, exception) ->
+                completeAnswer(answer, value, exception, numberOfInactiveDatabaseNodes, false));
+        secondFuture.whenComplete((value, exception) ->
+                completeAnswer(answer, value, exception, numberOfInactiveDatabaseNodes, true));
+        return await(answer);
+    }
+
+    public long getNumberOfHedgedReads() {
+        return numberOfHedgedReads.get();
+    }
+
+    public long getNumberOfHedgedReadsWon() {
+        return numberOfHedgedReadsWon.get();
+    }
+
+    public long getHedgedReadDelayNanoseconds() {
+        return hedgedReadDelayNanoseconds;
+    }
+
+    private void completeAnswer(CompletableFuture<OperationResult> answer, OperationResult operationResult,
+                                Throwable exception, AtomicInteger numberOfInactiveDatabaseNodes, boolean isHedgedRead) {
+        Throwable cause = exception == null ? null : getCause(exception);
+        boolean isDatabaseNodeInactive = cause == null &&
+                operationResult.getOperationStatus() == OperationStatus.DATABASE_NODE_INACTIVE;
+        if (isDatabaseNodeInactive && numberOfInactiveDatabaseNodes.incrementAndGet() < 2) {
+            return;
+        }
+        boolean isAnswered = cause == null ? answer.complete(operationResult) : answer.completeExceptionally(cause);
+        if (isAnswered && isHedgedRead) {
+            numberOfHedgedReadsWon.incrementAndGet();
+        }
+    }
+
+    private boolean tryAcquireHedgedRead() {
+        long maximumNumberOfHedgedReads = (long) (RootNodeConfig.maximumFractionOfHedgedReads * numberOfReads.get()) +
+                RootNodeConfig.numberOfHedgedReadsAllowedInBurst;
+        if (numberOfHedgedReads.incrementAndGet() > maximumNumberOfHedgedReads) {
+            numberOfHedgedReads.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void updateHedgedReadDelay() {
+        long percentileOfLatencyNanoseconds = latencyHistogram.getPercentile(RootNodeConfig.percentileOfLatencyForHedgedReadDelay);
+        hedgedReadDelayNanoseconds = Math.max(percentileOfLatencyNanoseconds,
+                TimeUnit.MICROSECONDS.toNanos(RootNodeConfig.minimumHedgedReadDelayMicroseconds));
+    }
+
+    private OperationResult await(CompletableFuture<OperationResult> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw getCauseOfFailedRead(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new OperationResult(OperationStatus.DATABASE_NODE_INACTIVE);
+        }
+    }
+
+    private static Throwable getCause(Throwable exception) {
+        return exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
+    }
+
+    private static RuntimeException getCauseOfFailedRead(Throwable exception) {
+        Throwable cause = getCause(exception);
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException(cause);
+    }
+}
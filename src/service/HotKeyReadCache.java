@@ -0,0 +1,210 @@
+package service;
+
+import config.ProxyServerConfig;
+import data.HybridLogicalClock;
+import data.Value;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded cache of the values read through the proxy server, keyed by the key. Every segment is a segmented LRU: a key
+// read for the first time goes to the probation part, a key read again while in the probation part is promoted to the
+// protected part, and the least recently read key of a full protected part goes back to the probation part. The least
+// recently read key of a full probation part is evicted, so a scan of keys read once never evicts the hot keys.
+// A write or a delete leaves a marker with its hybrid logical clock in place of the value, a read is a miss on a marker,
+// and a value read later is only cached if it is not older than the marker. So a read which raced with the write cannot
+// put back the value the write replaced, unless the marker is evicted in between, which the maximum staleness bounds.
+public class HotKeyReadCache {
+    private final Segment[] segments;
+    private final long maximumStalenessNanoseconds;
+    private final AtomicLong numberOfHits = new AtomicLong();
+    private final AtomicLong numberOfMisses = new AtomicLong();
+    private final AtomicLong numberOfEvictions = new AtomicLong();
+
+    public HotKeyReadCache() {
+        int numberOfSegments = Integer.highestOneBit(Math.max(1, ProxyServerConfig.numberOfSegmentsOfReadCache));
+        int numberOfKeysPerSegment = Math.max(2, ProxyServerConfig.maximumNumberOfKeysInReadCache / numberOfSegments);
+        int numberOfProtectedKeysPerSegment = Math.min(numberOfKeysPerSegment - 1,
+                (int) (numberOfKeysPerSegment * ProxyServerConfig.fractionOfReadCacheForProtectedKeys));
+        this.segments = new Segment[numberOfSegments];
+        for (int i = 0; i < numberOfSegments; i++) {
+            segments[i] = new Segment(numberOfKeysPerSegment - numberOfProtectedKeysPerSegment,
+                    numberOfProtectedKeysPerSegment);
+        }
+        this.maximumStalenessNanoseconds =
+                TimeUnit.MILLISECONDS.toNanos(ProxyServerConfig.maximumStalenessOfReadCacheMilliseconds);
+    }
+
+    // The cached value, or null on a miss. A session read only accepts a value at the hybrid logical clock of the
+    // session or later.
+    public Value get(String key, HybridLogicalClock hybridLogicalClock) {
+        Value value = getSegment(key).get(key);
+        if (value != null && (hybridLogicalClock == null ||
+                value.getHybridLogicalClock().compareTo(hybridLogicalClock) >= 0)) {
+            numberOfHits.incrementAndGet();
+            return value;
+        }
+        numberOfMisses.incrementAndGet();
+        return null;
+    }
+
+    // Caches a value read from the root nodes
+    public void put(String key, Value value) {
+        getSegment(key).put(key, value.getHybridLogicalClock(), value);
+    }
+
+    // Called before a write or a delete of the key is sent to the root node
+    public void invalidate(String key, HybridLogicalClock hybridLogicalClock) {
+        getSegment(key).put(key, hybridLogicalClock, null);
+    }
+
+    public long getNumberOfHits() {
+        return numberOfHits.get();
+    }
+
+    public long getNumberOfMisses() {
+        return numberOfMisses.get();
+    }
+
+    public long getNumberOfEvictions() {
+        return numberOfEvictions.get();
+    }
+
+    public int getNumberOfKeys() {
+        int numberOfKeys = 0;
+        for (Segment segment : segments) {
+            numberOfKeys += segment.getNumberOfKeys();
+        }
+        return numberOfKeys;
+    }
+
+    private Segment getSegment(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    // The value is null for the marker of a write or a delete
+    private static class CachedValue {
+        private final HybridLogicalClock hybridLogicalClock;
+        private final Value value;
+        private final long cachedAtNanoseconds;
+
+        private CachedValue(HybridLogicalClock hybridLogicalClock, Value value, long cachedAtNanoseconds) {
+            this.hybridLogicalClock = hybridLogicalClock;
+            this.value = value;
+            this.cachedAtNanoseconds = cachedAtNanoseconds;
+        }
+    }
+
+    private class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Both are in the order of the reads, the least recently read key first
+        private final LinkedHashMap<String, CachedValue> probationKeys = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, CachedValue> protectedKeys = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maximumNumberOfProbationKeys;
+        private final int maximumNumberOfProtectedKeys;
+
+        Segment(int maximumNumberOfProbationKeys, int maximumNumberOfProtectedKeys) {
+            this.maximumNumberOfProbationKeys = maximumNumberOfProbationKeys;
+            this.maximumNumberOfProtectedKeys = maximumNumberOfProtectedKeys;
+        }
+
+        Value get(String key) {
+            lock.lock();
+            try {
+                CachedValue cachedValue = protectedKeys.get(key);
+                if (cachedValue == null) {
+                    cachedValue = probationKeys.get(key);
+                    if (cachedValue == null || cachedValue.value == null) {
+                        return null;
+                    }
+                    if (isStale(cachedValue)) {
+                        probationKeys.remove(key);
+                        return null;
+                    }
+                    // Read again while in the probation part, so the key is hot
+                    probationKeys.remove(key);
+                    putProtectedKey(key, cachedValue);
+                    return cachedValue.value;
+                }
+                if (cachedValue.value == null) {
+                    return null;
+                }
+                if (isStale(cachedValue)) {
+                    protectedKeys.remove(key);
+                    return null;
+                }
+                return cachedValue.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(String key, HybridLogicalClock hybridLogicalClock, Value value) {
+            CachedValue cachedValue = new CachedValue(hybridLogicalClock, value, System.nanoTime());
+            lock.lock();
+            try {
+                CachedValue currentCachedValue = protectedKeys.get(key);
+                if (currentCachedValue != null) {
+                    if (!isOlder(cachedValue, currentCachedValue)) {
+                        protectedKeys.put(key, cachedValue);
+                    }
+                    return;
+                }
+                currentCachedValue = probationKeys.get(key);
+                if (currentCachedValue != null && isOlder(cachedValue, currentCachedValue)) {
+                    return;
+                }
+                probationKeys.put(key, cachedValue);
+                evictProbationKeys();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int getNumberOfKeys() {
+            lock.lock();
+            try {
+                return probationKeys.size() + protectedKeys.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void putProtectedKey(String key, CachedValue cachedValue) {
+            protectedKeys.put(key, cachedValue);
+            if (protectedKeys.size() > maximumNumberOfProtectedKeys) {
+                // The least recently read protected key gets another chance in the probation part
+                Iterator<Map.Entry<String, CachedValue>> iterator = protectedKeys.entrySet().iterator();
+                Map.Entry<String, CachedValue> demotedKey = iterator.next();
+                iterator.remove();
+                probationKeys.put(demotedKey.getKey(), demotedKey.getValue());
+                evictProbationKeys();
+            }
+        }
+
+        private void evictProbationKeys() {
+            Iterator<String> iterator = probationKeys.keySet().iterator();
+            while (probationKeys.size() > maximumNumberOfProbationKeys) {
+                iterator.next();
+                iterator.remove();
+                numberOfEvictions.incrementAndGet();
+            }
+        }
+
+        // A marker is older than a value at the same hybrid logical clock, since the value was read after the write
+        private boolean isOlder(CachedValue cachedValue, CachedValue currentCachedValue) {
+            int comparison = cachedValue.hybridLogicalClock.compareTo(currentCachedValue.hybridLogicalClock);
+            return comparison < 0 || (comparison == 0 && cachedValue.value == null);
+        }
+
+        private boolean isStale(CachedValue cachedValue) {
+            return maximumStalenessNanoseconds > 0 &&
+                    System.nanoTime() - cachedValue.cachedAtNanoseconds > maximumStalenessNanoseconds;
+        }
+    }
+}
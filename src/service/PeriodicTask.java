@@ -0,0 +1,67 @@
+package service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// A task run by the periodic task scheduler, the next run is scheduled once the current run is done, so a task never
+// runs twice at the same time. A run which has already started finishes after the task is cancelled.
+public class PeriodicTask {
+    private final String nameOfTask;
+    private final Runnable task;
+    private final LongSupplier delayMillisecondsSupplier;
+    private final ScheduledExecutorService scheduledExecutor;
+    private final ExecutorService executor;
+    private volatile ScheduledFuture<?> nextRun;
+    private volatile boolean isCancelled;
+
+    PeriodicTask(String nameOfTask, Runnable task, LongSupplier delayMillisecondsSupplier,
+                 ScheduledExecutorService scheduledExecutor, ExecutorService executor) {
+        this.nameOfTask = nameOfTask;
+        this.task = task;
+        this.delayMillisecondsSupplier = delayMillisecondsSupplier;
+        this.scheduledExecutor = scheduledExecutor;
+        this.executor = executor;
+    }
+
+    public void cancel() {
+        isCancelled = true;
+        ScheduledFuture<?> currentNextRun = nextRun;
+        if (currentNextRun != null) {
+            currentNextRun.cancel(false);
+        }
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    public String getNameOfTask() {
+        return nameOfTask;
+    }
+
+    void scheduleNextRun() {
+        if (isCancelled) {
+            return;
+        }
+        // The timer thread only hands the run to the executor, so a slow task does not delay the other tasks
+        nextRun = scheduledExecutor.schedule(() -> executor.execute(this::run), delayMillisecondsSupplier.getAsLong(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        if (isCancelled) {
+            return;
+        }
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // The task runs again after the delay, like the loops which caught the exception and went back to sleep
+            System.out.printf("[PeriodicTask]: Exception in the periodic task: %s -> %s\n", nameOfTask, e.getMessage());
+        } finally {
+            scheduleNextRun();
+        }
+    }
+}
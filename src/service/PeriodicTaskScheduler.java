@@ -0,0 +1,79 @@
+package service;
+
+import config.SchedulerConfig;
+import util.ExecutorHelper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.LongSupplier;
+
+// Shared by every node for its periodic tasks (heart beats, shipping the logs to the followers, anti-entropy,
+// checkpoints, scaling up and down) and for the tasks triggered by an event, like delivering the logs to a database
+// node. A single timer thread keeps the delays and hands every due task to a fixed set of threads, so the number of
+// threads stays the same however many nodes there are. A task is stopped by cancelling the periodic task returned for it.
+// The tasks which block on the disk or on other nodes run on their own threads, so a slow disk does not hold back the
+// heart beats and the checks of the inactive nodes.
+public class PeriodicTaskScheduler {
+    private static final PeriodicTaskScheduler periodicTaskScheduler = new PeriodicTaskScheduler();
+
+    private final ScheduledExecutorService scheduledExecutor;
+    private final ExecutorService executor;
+    private final ExecutorService executorForBlockingTasks;
+
+    private PeriodicTaskScheduler() {
+        ScheduledThreadPoolExecutor scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "PeriodicTaskScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A cancelled task does not stay on the delay queue until it was due
+        scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+        this.scheduledExecutor = scheduledThreadPoolExecutor;
+        this.executor = Executors.newFixedThreadPool(SchedulerConfig.numberOfThreadsForPeriodicTasks);
+        this.executorForBlockingTasks = ExecutorHelper.newExecutorForBlockingTasks(SchedulerConfig.numberOfThreadsForBlockingTasks);
+    }
+
+    public static PeriodicTaskScheduler getPeriodicTaskScheduler() {
+        return periodicTaskScheduler;
+    }
+
+    // The first run is after the delay, and every next run the delay after the previous run is done
+    public PeriodicTask scheduleWithFixedDelay(String nameOfTask, Runnable task, long delayMilliseconds) {
+        return scheduleWithFixedDelay(nameOfTask, task, () -> delayMilliseconds);
+    }
+
+    // The delay is asked for again before every run
+    public PeriodicTask scheduleWithFixedDelay(String nameOfTask, Runnable task, LongSupplier delayMillisecondsSupplier) {
+        return scheduleWithFixedDelay(nameOfTask, task, delayMillisecondsSupplier, executor);
+    }
+
+    // Like scheduleWithFixedDelay, for a task which blocks on the disk or on other nodes
+    public PeriodicTask scheduleBlockingTaskWithFixedDelay(String nameOfTask, Runnable task, long delayMilliseconds) {
+        return scheduleBlockingTaskWithFixedDelay(nameOfTask, task, () -> delayMilliseconds);
+    }
+
+    public PeriodicTask scheduleBlockingTaskWithFixedDelay(String nameOfTask, Runnable task,
+                                                           LongSupplier delayMillisecondsSupplier) {
+        return scheduleWithFixedDelay(nameOfTask, task, delayMillisecondsSupplier, executorForBlockingTasks);
+    }
+
+    // Runs a task once on the shared threads, as soon as one is free
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    // Runs a task which blocks on the disk or on other nodes once
+    public void executeBlockingTask(Runnable task) {
+        executorForBlockingTasks.execute(task);
+    }
+
+    private PeriodicTask scheduleWithFixedDelay(String nameOfTask, Runnable task, LongSupplier delayMillisecondsSupplier,
+                                                ExecutorService executorOfTask) {
+        PeriodicTask periodicTask = new PeriodicTask(nameOfTask, task, delayMillisecondsSupplier, scheduledExecutor,
+                executorOfTask);
+        periodicTask.scheduleNextRun();
+        return periodicTask;
+    }
+}
@@ -0,0 +1,181 @@
+package service;
+
+import config.LogsConfig;
+import config.ProxyServerConfig;
+import data.HybridLogicalClock;
+import data.operationDetails.OperationDetails;
+import exception.DatabaseNodeInActiveException;
+import exception.NotLeaderException;
+import exception.RootNodeDownException;
+import node.rootNode.BasicRootNodeAccess;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Updates waiting to be replicated to a single root node. The pending updates are kept by key, so a key written again
+// before it is replicated is sent once with the latest hybrid logical clock. They are sent as batches by a single drain
+// task at a time, the pipelines of different root nodes drain in parallel. The number of pending keys is bounded: a
+// writer waits for room before its write is sent to the owning root node, and the write is rejected if there is still
+// no room after the backpressure timeout. An update of a write which succeeded is always kept, so the pipeline may go
+// over its bound by the updates of the writers which found room at the same time. After a failed batch the drain task
+// ends and the retry scheduler starts it again, so it holds no thread while backing off.
+public class ReplicationPipeline {
+    private final BasicRootNodeAccess rootNode;
+    private final ExecutorService executor;
+    private final LinkedHashMap<String, Map.Entry<HybridLogicalClock, OperationDetails>> pendingUpdates;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicLong numberOfDroppedUpdates = new AtomicLong();
+    private final AtomicLong numberOfRejectedWrites = new AtomicLong();
+    private final RetryScheduler retryScheduler = RetryScheduler.getRetryScheduler();
+    private boolean isDrainScheduled;
+    // Only used by the drain task, which runs one at a time
+    private int numberOfFailedAttempts;
+
+    public ReplicationPipeline(BasicRootNodeAccess rootNode, ExecutorService executor) {
+        this.rootNode = rootNode;
+        this.executor = executor;
+        this.pendingUpdates = new LinkedHashMap<>();
+    }
+
+    // Waits until there is room for an update or the deadline has passed, false when the pipeline is still full
+    public boolean awaitRoomForUpdates(long deadlineNanoseconds) {
+        lock.lock();
+        try {
+            while (pendingUpdates.size() >= ProxyServerConfig.maximumNumberOfPendingUpdatesPerRootNode) {
+                long remainingNanoseconds = deadlineNanoseconds - System.nanoTime();
+                if (remainingNanoseconds <= 0) {
+                    numberOfRejectedWrites.incrementAndGet();
+                    if (LogsConfig.isReplicationBackpressureLoggingEnabled) {
+                        System.out.printf("[ReplicationPipeline]: Replication to the root node: %s is full, rejecting " +
+                                "the write\n", rootNode.getRootNodeName());
+                    }
+                    return false;
+                }
+                notFull.awaitNanos(remainingNanoseconds);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            numberOfRejectedWrites.incrementAndGet();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called once the owning root node has applied the update, so it is never dropped for want of room
+    public void addUpdate(HybridLogicalClock hybridLogicalClock, OperationDetails operationDetails) {
+        boolean isDrainToBeScheduled;
+        lock.lock();
+        try {
+            putPendingUpdate(hybridLogicalClock, operationDetails);
+            isDrainToBeScheduled = !isDrainScheduled;
+            isDrainScheduled = true;
+        } finally {
+            lock.unlock();
+        }
+        if (isDrainToBeScheduled) {
+            executor.execute(this::drain);
+        }
+    }
+
+    public int getNumberOfPendingUpdates() {
+        lock.lock();
+        try {
+            return pendingUpdates.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getNumberOfDroppedUpdates() {
+        return numberOfDroppedUpdates.get();
+    }
+
+    public long getNumberOfRejectedWrites() {
+        return numberOfRejectedWrites.get();
+    }
+
+    private void drain() {
+        HashMap<HybridLogicalClock, OperationDetails> updates;
+        while ((updates = takePendingUpdates()) != null) {
+            if (LogsConfig.isAsyncReplicationOfUpdatesLoggingEnabled) {
+                System.out.printf("[ReplicationPipeline]: Replicating %d updates to the root node: %s, %d pending\n",
+                        updates.size(), rootNode.getRootNodeName(), getNumberOfPendingUpdates());
+            }
+            try {
+                rootNode.writeBatch(updates);
+                numberOfFailedAttempts = 0;
+                retryScheduler.recordSuccess(rootNode.getRootNodeName());
+            } catch (DatabaseNodeInActiveException | NotLeaderException | RootNodeDownException e) {
+                // A root node which is down may be back before the retries are used up, otherwise the updates are
+                // counted as dropped and kept as a dead letter
+                numberOfFailedAttempts++;
+                if (!retryScheduler.hasRetriesLeft(numberOfFailedAttempts)) {
+                    numberOfFailedAttempts = 0;
+                    numberOfDroppedUpdates.addAndGet(updates.size());
+                    retryScheduler.addDeadLetter(rootNode.getRootNodeName(),
+                            String.format("replication of %d updates", updates.size()));
+                    continue;
+                }
+                System.out.printf("[ReplicationPipeline]: Error while performing the replication, " +
+                        "trying the replication after some time: %s\n", e.getMessage());
+                putBackPendingUpdates(updates);
+                // The drain stays scheduled, so the updates added in the meantime wait for the retry
+                retryScheduler.scheduleRetry(rootNode.getRootNodeName(), numberOfFailedAttempts,
+                        () -> executor.execute(this::drain));
+                return;
+            }
+        }
+    }
+
+    // The next batch of the pending updates, or null once there are none and the drain task is done
+    private HashMap<HybridLogicalClock, OperationDetails> takePendingUpdates() {
+        lock.lock();
+        try {
+            if (pendingUpdates.isEmpty()) {
+                isDrainScheduled = false;
+                return null;
+            }
+            HashMap<HybridLogicalClock, OperationDetails> updates = new HashMap<>();
+            Iterator<Map.Entry<HybridLogicalClock, OperationDetails>> iterator = pendingUpdates.values().iterator();
+            while (iterator.hasNext() && updates.size() < ProxyServerConfig.maximumNumberOfUpdatesPerReplicationBatch) {
+                Map.Entry<HybridLogicalClock, OperationDetails> pendingUpdate = iterator.next();
+                updates.put(pendingUpdate.getKey(), pendingUpdate.getValue());
+                iterator.remove();
+            }
+            notFull.signalAll();
+            return updates;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A failed batch goes back without waiting for room, a key written again in the meantime keeps the later update
+    private void putBackPendingUpdates(HashMap<HybridLogicalClock, OperationDetails> updates) {
+        lock.lock();
+        try {
+            for (var entry : updates.entrySet()) {
+                putPendingUpdate(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putPendingUpdate(HybridLogicalClock hybridLogicalClock, OperationDetails operationDetails) {
+        Map.Entry<HybridLogicalClock, OperationDetails> pendingUpdate = pendingUpdates.get(operationDetails.getKey());
+        if (pendingUpdate != null && pendingUpdate.getKey().compareTo(hybridLogicalClock) > 0) {
+            return;
+        }
+        pendingUpdates.put(operationDetails.getKey(), new AbstractMap.SimpleImmutableEntry<>(hybridLogicalClock, operationDetails));
+    }
+}
@@ -0,0 +1,118 @@
+package service;
+
+import config.RetryConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Shared by the replication services for retrying their failed tasks. A failed task is kept on a delay queue for an
+// exponential backoff with jitter instead of going straight back to the queue of its service, so a target which is
+// down costs no work in between the retries and the other tasks of the service are not held up by it. The retries of
+// a target whose circuit is open wait until the circuit is half open. A task which has used up its retries is recorded
+// as a dead letter.
+public class RetryScheduler {
+    private static final RetryScheduler retryScheduler = new RetryScheduler();
+
+    private final ScheduledExecutorService scheduledExecutor;
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakersOfTargets;
+    private final ConcurrentHashMap<String, AtomicLong> numberOfDeadLettersOfTargets;
+    // The most recent dead letters, the older ones are only counted
+    private final ConcurrentLinkedDeque<String> deadLetters;
+    private final AtomicLong numberOfRetries;
+
+    private RetryScheduler() {
+        // The retries only hand the task back to its service, so a single thread is enough
+        ScheduledThreadPoolExecutor scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "RetryScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+        this.scheduledExecutor = scheduledThreadPoolExecutor;
+        this.circuitBreakersOfTargets = new ConcurrentHashMap<>();
+        this.numberOfDeadLettersOfTargets = new ConcurrentHashMap<>();
+        this.deadLetters = new ConcurrentLinkedDeque<>();
+        this.numberOfRetries = new AtomicLong();
+    }
+
+    public static RetryScheduler getRetryScheduler() {
+        return retryScheduler;
+    }
+
+    public boolean hasRetriesLeft(int numberOfFailedAttempts) {
+        return numberOfFailedAttempts <= RetryConfig.maximumNumberOfRetries;
+    }
+
+    // Runs the retry on the scheduler thread once the backoff has passed, it should only hand the task back
+    public void scheduleRetry(String targetName, int numberOfFailedAttempts, Runnable retry) {
+        CircuitBreaker circuitBreaker = getCircuitBreaker(targetName);
+        circuitBreaker.recordFailure();
+        long delayNanoseconds = Math.max(getBackoffNanoseconds(numberOfFailedAttempts),
+                circuitBreaker.getRemainingOpenNanoseconds());
+        numberOfRetries.incrementAndGet();
+        scheduledExecutor.schedule(retry, delayNanoseconds, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSuccess(String targetName) {
+        CircuitBreaker circuitBreaker = circuitBreakersOfTargets.get(targetName);
+        if (circuitBreaker != null) {
+            circuitBreaker.recordSuccess();
+        }
+    }
+
+    public void addDeadLetter(String targetName, String descriptionOfTask) {
+        getCircuitBreaker(targetName).recordFailure();
+        numberOfDeadLettersOfTargets.computeIfAbsent(targetName, currentTargetName -> new AtomicLong()).incrementAndGet();
+        deadLetters.addLast(String.format("%s: %s", targetName, descriptionOfTask));
+        while (deadLetters.size() > RetryConfig.maximumNumberOfDeadLettersKept) {
+            deadLetters.pollFirst();
+        }
+        System.out.printf("[RetryScheduler]: Giving up on the task after %d retries, %s: %s\n",
+                RetryConfig.maximumNumberOfRetries, targetName, descriptionOfTask);
+    }
+
+    public boolean isCircuitOpen(String targetName) {
+        CircuitBreaker circuitBreaker = circuitBreakersOfTargets.get(targetName);
+        return circuitBreaker != null && circuitBreaker.isOpen();
+    }
+
+    public long getNumberOfRetries() {
+        return numberOfRetries.get();
+    }
+
+    public long getNumberOfDeadLetters(String targetName) {
+        AtomicLong numberOfDeadLetters = numberOfDeadLettersOfTargets.get(targetName);
+        return numberOfDeadLetters == null ? 0 : numberOfDeadLetters.get();
+    }
+
+    public long getNumberOfDeadLetters() {
+        long numberOfDeadLetters = 0;
+        for (var numberOfDeadLettersOfTarget : numberOfDeadLettersOfTargets.values()) {
+            numberOfDeadLetters += numberOfDeadLettersOfTarget.get();
+        }
+        return numberOfDeadLetters;
+    }
+
+    public List<String> getDeadLetters() {
+        return new ArrayList<>(deadLetters);
+    }
+
+    private CircuitBreaker getCircuitBreaker(String targetName) {
+        return circuitBreakersOfTargets.computeIfAbsent(targetName, currentTargetName -> new CircuitBreaker());
+    }
+
+    private long getBackoffNanoseconds(int numberOfFailedAttempts) {
+        int exponent = Math.min(Math.max(numberOfFailedAttempts - 1, 0), 30);
+        long backoffMilliseconds = Math.min(RetryConfig.maximumBackoffMilliseconds,
+                RetryConfig.initialBackoffMilliseconds << exponent);
+        long halfOfBackoffNanoseconds = TimeUnit.MILLISECONDS.toNanos(backoffMilliseconds) / 2;
+        return halfOfBackoffNanoseconds + ThreadLocalRandom.current().nextLong(halfOfBackoffNanoseconds + 1);
+    }
+}
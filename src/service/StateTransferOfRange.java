@@ -0,0 +1,123 @@
+package service;
+
+import config.ProxyServerConfig;
+import data.HybridLogicalClock;
+import data.StateTransferChunk;
+import data.operationDetails.OperationDetails;
+import node.rootNode.BasicRootNodeAccess;
+
+import java.util.HashMap;
+
+// Transfers the data of a range from the source root node to the current root node. The live keys of the range are
+// sent in chunks of whole positions, so the current root node also drops the keys of those positions which the source
+// no longer has. Then the logs written after the first chunk was read are sent. Every run transfers a single chunk and
+// keeps the position to continue from, so a failed run is resumed instead of starting over.
+public class StateTransferOfRange implements Runnable {
+    private final BasicRootNodeAccess currentRootNode;
+    private final BasicRootNodeAccess sourceRootNode;
+    // Pairs of starting and ending positions, a range wrapping around the ring is split in two
+    private final int[] startingAndEndingPositionsInConsistentHashingRing;
+    private int indexOfRange;
+    private int nextPositionInConsistentHashingRing;
+    private HybridLogicalClock startingHybridLogicalClockOfLogs;
+    private boolean isSnapshotStarted;
+    private boolean isCompleted;
+    private int numberOfFailedAttempts;
+
+    public StateTransferOfRange(BasicRootNodeAccess currentRootNode, BasicRootNodeAccess sourceRootNode,
+                                int startingPositionInConsistentHashingRing, int endingPositionInConsistentHashingRing) {
+        this.currentRootNode = currentRootNode;
+        this.sourceRootNode = sourceRootNode;
+        if (endingPositionInConsistentHashingRing < startingPositionInConsistentHashingRing) {
+            this.startingAndEndingPositionsInConsistentHashingRing = new int[]{startingPositionInConsistentHashingRing,
+                    ProxyServerConfig.positionsInTheConsistentHashingRing - 1, 0, endingPositionInConsistentHashingRing};
+        } else {
+            this.startingAndEndingPositionsInConsistentHashingRing = new int[]{startingPositionInConsistentHashingRing,
+                    endingPositionInConsistentHashingRing};
+        }
+        this.nextPositionInConsistentHashingRing = startingPositionInConsistentHashingRing;
+    }
+
+    @Override
+    public void run() {
+        if (indexOfRange < startingAndEndingPositionsInConsistentHashingRing.length) {
+            transferNextChunkOfSnapshot();
+            return;
+        }
+        // A key which was updated while the chunks were read is replayed again, and the replicas keep the most recent write
+        for (int i = 0; i < startingAndEndingPositionsInConsistentHashingRing.length; i += 2) {
+            HashMap<HybridLogicalClock, OperationDetails> logsAfterSnapshot =
+                    sourceRootNode.getLogsInRangeOfConsistentHashingPositionAfterTheGivenTimestamp(
+                            startingAndEndingPositionsInConsistentHashingRing[i],
+                            startingAndEndingPositionsInConsistentHashingRing[i + 1], startingHybridLogicalClockOfLogs);
+            currentRootNode.replicationOfData(logsAfterSnapshot);
+        }
+        isCompleted = true;
+        System.out.printf("[StateTransferOfRange]: Completed the transfer of the range: %d %d from %s to %s\n",
+                startingAndEndingPositionsInConsistentHashingRing[0],
+                startingAndEndingPositionsInConsistentHashingRing[startingAndEndingPositionsInConsistentHashingRing.length - 1],
+                sourceRootNode.getRootNodeName(), currentRootNode.getRootNodeName());
+    }
+
+    public boolean isCompleted() {
+        return isCompleted;
+    }
+
+    public String getSourceRootNodeName() {
+        return sourceRootNode.getRootNodeName();
+    }
+
+    public String getCurrentRootNodeName() {
+        return currentRootNode.getRootNodeName();
+    }
+
+    public BasicRootNodeAccess getSourceRootNode() {
+        return sourceRootNode;
+    }
+
+    public int getStartingPositionInConsistentHashingRing() {
+        return startingAndEndingPositionsInConsistentHashingRing[0];
+    }
+
+    public int getEndingPositionInConsistentHashingRing() {
+        return startingAndEndingPositionsInConsistentHashingRing[startingAndEndingPositionsInConsistentHashingRing.length - 1];
+    }
+
+    public int incrementNumberOfFailedAttempts() {
+        return ++numberOfFailedAttempts;
+    }
+
+    public void resetNumberOfFailedAttempts() {
+        numberOfFailedAttempts = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("transfer of the range: %d %d from %s to %s", getStartingPositionInConsistentHashingRing(),
+                getEndingPositionInConsistentHashingRing(), getSourceRootNodeName(), getCurrentRootNodeName());
+    }
+
+    private void transferNextChunkOfSnapshot() {
+        StateTransferChunk stateTransferChunk = sourceRootNode.getSnapshotChunkOfRange(nextPositionInConsistentHashingRing,
+                startingAndEndingPositionsInConsistentHashingRing[indexOfRange + 1],
+                ProxyServerConfig.numberOfKeysPerStateTransferChunk);
+        if (!isSnapshotStarted) {
+            startingHybridLogicalClockOfLogs = stateTransferChunk.getHybridLogicalClock();
+            isSnapshotStarted = true;
+        }
+        int endingPositionOfChunk = stateTransferChunk.getNextPositionInConsistentHashingRing() == -1
+                ? startingAndEndingPositionsInConsistentHashingRing[indexOfRange + 1]
+                : stateTransferChunk.getNextPositionInConsistentHashingRing() - 1;
+        currentRootNode.replicationOfSnapshotChunk(stateTransferChunk, nextPositionInConsistentHashingRing,
+                endingPositionOfChunk);
+
+        if (stateTransferChunk.getNextPositionInConsistentHashingRing() != -1) {
+            nextPositionInConsistentHashingRing = stateTransferChunk.getNextPositionInConsistentHashingRing();
+            return;
+        }
+        indexOfRange += 2;
+        if (indexOfRange < startingAndEndingPositionsInConsistentHashingRing.length) {
+            nextPositionInConsistentHashingRing = startingAndEndingPositionsInConsistentHashingRing[indexOfRange];
+        }
+    }
+}
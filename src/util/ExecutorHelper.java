@@ -0,0 +1,32 @@
+package util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Executors for the tasks which spend most of their time blocked on the nodes. A virtual thread per task is used when
+// the runtime has virtual threads, the build targets Java 17 so they are looked up by reflection. Otherwise the tasks
+// share a fixed number of platform threads, or as many platform threads as there are tasks in flight.
+public class ExecutorHelper {
+    private static final String virtualThreadExecutorMethodName = "newVirtualThreadPerTaskExecutor";
+
+    public static ExecutorService newExecutorForBlockingTasks(int numberOfPlatformThreads) {
+        ExecutorService virtualThreadExecutor = getVirtualThreadExecutor();
+        return virtualThreadExecutor != null ? virtualThreadExecutor : Executors.newFixedThreadPool(numberOfPlatformThreads);
+    }
+
+    // For the tasks a caller is waiting on, which must never queue behind each other. The idle platform threads are
+    // reused, so the number of threads follows the number of tasks in flight.
+    public static ExecutorService newExecutorForTasksInFlight() {
+        ExecutorService virtualThreadExecutor = getVirtualThreadExecutor();
+        return virtualThreadExecutor != null ? virtualThreadExecutor : Executors.newCachedThreadPool();
+    }
+
+    private static ExecutorService getVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(virtualThreadExecutorMethodName).invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package util;
 
 import config.ProxyServerConfig;
-
-import java.math.BigInteger;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import data.RingHashAlgorithm;
+import util.ringHash.Murmur3RingHash;
+import util.ringHash.RingHash;
+import util.ringHash.Sha256RingHash;
 
 public class HashingHelper {
+    private static final Murmur3RingHash murmur3RingHash = new Murmur3RingHash();
+    private static final RingHash sha256RingHash = new Sha256RingHash();
+
     public static int hash(String input) {
-        try {
-            MessageDigest hashingAlgorithm = MessageDigest.getInstance("SHA256");
-            byte[] hash = hashingAlgorithm.digest(input.getBytes());
-            BigInteger index = new BigInteger(1, hash);
-            return index.mod(BigInteger.valueOf(ProxyServerConfig.positionsInTheConsistentHashingRing)).intValue();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
+        return hash(input, ProxyServerConfig.ringHashAlgorithm);
+    }
+
+    // Used to reproduce the ring positions computed with a different algorithm than the configured one
+    public static int hash(String input, RingHashAlgorithm ringHashAlgorithm) {
+        return getRingHash(ringHashAlgorithm).getPositionInConsistentHashingRing(input,
+                ProxyServerConfig.positionsInTheConsistentHashingRing);
+    }
+
+    // 64-bit hash of a key together with its value, independent of the configured ring hash algorithm
+    public static long hash(String key, String value) {
+        return murmur3RingHash.hash(key) ^ Long.rotateLeft(murmur3RingHash.hash(value) * 0x9e3779b97f4a7c15L, 31);
+    }
+
+    private static RingHash getRingHash(RingHashAlgorithm ringHashAlgorithm) {
+        return switch (ringHashAlgorithm) {
+            case MURMUR3 -> murmur3RingHash;
+            case SHA256 -> sha256RingHash;
+        };
     }
 }
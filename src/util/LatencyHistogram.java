@@ -0,0 +1,73 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Counts of latencies in buckets of a quarter of a power of two, for estimating a percentile without keeping the
+// samples. The counts are halved once there are enough of them, so that the recent latencies weigh more.
+public class LatencyHistogram {
+    private static final int numberOfBitsOfSubBucket = 2;
+    private static final int numberOfSubBuckets = 1 << numberOfBitsOfSubBucket;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final long maximumTotalCount;
+
+    public LatencyHistogram(long maximumTotalCount) {
+        this.counts = new AtomicLongArray(Long.SIZE * numberOfSubBuckets);
+        this.totalCount = new AtomicLong();
+        this.maximumTotalCount = maximumTotalCount;
+    }
+
+    public void add(long latencyNanoseconds) {
+        counts.incrementAndGet(getBucket(Math.max(latencyNanoseconds, 1)));
+        if (totalCount.incrementAndGet() >= maximumTotalCount) {
+            halveCounts();
+        }
+    }
+
+    // The upper bound of the bucket of the given percentile, 0 when there are no latencies yet
+    public long getPercentile(double percentile) {
+        long[] countsCopy = new long[counts.length()];
+        long total = 0;
+        for (int bucket = 0; bucket < countsCopy.length; bucket++) {
+            countsCopy[bucket] = counts.get(bucket);
+            total += countsCopy[bucket];
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long count = 0;
+        for (int bucket = 0; bucket < countsCopy.length; bucket++) {
+            count += countsCopy[bucket];
+            if (count >= rank && countsCopy[bucket] > 0) {
+                return getUpperBoundOfBucket(bucket);
+            }
+        }
+        return 0;
+    }
+
+    // Concurrent additions may be halved or not, which only shifts the estimate slightly
+    private void halveCounts() {
+        long total = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            total += counts.updateAndGet(bucket, count -> count / 2);
+        }
+        totalCount.set(total);
+    }
+
+    private static int getBucket(long latencyNanoseconds) {
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(latencyNanoseconds);
+        if (exponent < numberOfBitsOfSubBucket) {
+            return exponent * numberOfSubBuckets;
+        }
+        int subBucket = (int) (latencyNanoseconds >>> (exponent - numberOfBitsOfSubBucket)) & (numberOfSubBuckets - 1);
+        return exponent * numberOfSubBuckets + subBucket;
+    }
+
+    private static long getUpperBoundOfBucket(int bucket) {
+        int exponent = bucket / numberOfSubBuckets;
+        if (exponent < numberOfBitsOfSubBucket) {
+            return 1L << (exponent + 1);
+        }
+        int subBucket = bucket % numberOfSubBuckets;
+        return (long) (numberOfSubBuckets + subBucket + 1) << (exponent - numberOfBitsOfSubBucket);
+    }
+}
@@ -0,0 +1,14 @@
+package util.followerSelector;
+
+import node.databaseNode.FollowerDatabaseNodeAccess;
+
+import java.util.List;
+
+// Picks the follower database node for the next read. Every read started on a follower database node is finished or
+// failed, so that the selector can track the latency and the requests in flight of every follower database node.
+public interface FollowerSelector {
+    FollowerDatabaseNodeAccess select(List<FollowerDatabaseNodeAccess> followerDatabaseNodes);
+    long startRead(FollowerDatabaseNodeAccess followerDatabaseNode);
+    void finishRead(FollowerDatabaseNodeAccess followerDatabaseNode, long startTimeNanoseconds);
+    void failRead(FollowerDatabaseNodeAccess followerDatabaseNode);
+}
@@ -0,0 +1,80 @@
+package util.followerSelector;
+
+import config.RootNodeConfig;
+import node.databaseNode.FollowerDatabaseNodeAccess;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Compares two follower database nodes picked at random and reads from the one with the lower cost, the exponentially
+// weighted moving average of its read latency times the requests in flight. A degraded follower database node loses
+// most comparisons without being excluded. The average decays while a follower database node is not read from, so a
+// follower database node which has recovered is tried again.
+public class PowerOfTwoChoicesFollowerSelector implements FollowerSelector {
+    private final ConcurrentHashMap<FollowerDatabaseNodeAccess, ReadStatistics> readStatisticsOfFollowerDatabaseNodes =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public FollowerDatabaseNodeAccess select(List<FollowerDatabaseNodeAccess> followerDatabaseNodes) {
+        int numberOfFollowerDatabaseNodes = followerDatabaseNodes.size();
+        if (numberOfFollowerDatabaseNodes == 1) {
+            return followerDatabaseNodes.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt(numberOfFollowerDatabaseNodes);
+        int secondIndex = random.nextInt(numberOfFollowerDatabaseNodes - 1);
+        if (secondIndex >= firstIndex) {
+            secondIndex++;
+        }
+        FollowerDatabaseNodeAccess firstFollowerDatabaseNode = followerDatabaseNodes.get(firstIndex);
+        FollowerDatabaseNodeAccess secondFollowerDatabaseNode = followerDatabaseNodes.get(secondIndex);
+        long currentTimeNanoseconds = System.nanoTime();
+        return getReadStatistics(firstFollowerDatabaseNode).getCost(currentTimeNanoseconds) <=
+                getReadStatistics(secondFollowerDatabaseNode).getCost(currentTimeNanoseconds)
+                ? firstFollowerDatabaseNode
+                : secondFollowerDatabaseNode;
+    }
+
+    @Override
+    public long startRead(FollowerDatabaseNodeAccess followerDatabaseNode) {
+        getReadStatistics(followerDatabaseNode).numberOfReadsInFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    @Override
+    public void finishRead(FollowerDatabaseNodeAccess followerDatabaseNode, long startTimeNanoseconds) {
+        ReadStatistics readStatistics = getReadStatistics(followerDatabaseNode);
+        readStatistics.numberOfReadsInFlight.decrementAndGet();
+        readStatistics.addLatency(System.nanoTime() - startTimeNanoseconds);
+    }
+
+    @Override
+    public void failRead(FollowerDatabaseNodeAccess followerDatabaseNode) {
+        getReadStatistics(followerDatabaseNode).numberOfReadsInFlight.decrementAndGet();
+    }
+
+    private ReadStatistics getReadStatistics(FollowerDatabaseNodeAccess followerDatabaseNode) {
+        return readStatisticsOfFollowerDatabaseNodes.computeIfAbsent(followerDatabaseNode, k -> new ReadStatistics());
+    }
+
+    private static class ReadStatistics {
+        private final AtomicInteger numberOfReadsInFlight = new AtomicInteger();
+        // Updated without a lock, a concurrent update which is lost only drops a sample
+        private volatile double averageLatencyNanoseconds;
+        private volatile long lastUpdateTimeNanoseconds = System.nanoTime();
+
+        private void addLatency(long latencyNanoseconds) {
+            averageLatencyNanoseconds += RootNodeConfig.weightOfLatestFollowerReadLatency *
+                    (latencyNanoseconds - averageLatencyNanoseconds);
+            lastUpdateTimeNanoseconds = System.nanoTime();
+        }
+
+        private double getCost(long currentTimeNanoseconds) {
+            double idleTimeInDecayPeriods = (double) (currentTimeNanoseconds - lastUpdateTimeNanoseconds) /
+                    (RootNodeConfig.decayTimeOfFollowerReadLatencyMilliseconds * 1_000_000L);
+            return averageLatencyNanoseconds / (1 + idleTimeInDecayPeriods) * (numberOfReadsInFlight.get() + 1);
+        }
+    }
+}
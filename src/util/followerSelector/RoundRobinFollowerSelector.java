@@ -0,0 +1,29 @@
+package util.followerSelector;
+
+import node.databaseNode.FollowerDatabaseNodeAccess;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RoundRobinFollowerSelector implements FollowerSelector {
+    private final AtomicInteger index = new AtomicInteger(0);
+
+    @Override
+    public FollowerDatabaseNodeAccess select(List<FollowerDatabaseNodeAccess> followerDatabaseNodes) {
+        // The counter wraps around to negative values, the modulo stays in range
+        return followerDatabaseNodes.get(Math.floorMod(index.getAndIncrement(), followerDatabaseNodes.size()));
+    }
+
+    @Override
+    public long startRead(FollowerDatabaseNodeAccess followerDatabaseNode) {
+        return 0;
+    }
+
+    @Override
+    public void finishRead(FollowerDatabaseNodeAccess followerDatabaseNode, long startTimeNanoseconds) {
+    }
+
+    @Override
+    public void failRead(FollowerDatabaseNodeAccess followerDatabaseNode) {
+    }
+}
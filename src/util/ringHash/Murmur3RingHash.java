@@ -0,0 +1,90 @@
+package util.ringHash;
+
+// 64-bit MurmurHash3 mixing (a single lane of the x64 variant) over the UTF-8 bytes of the input. The bytes are encoded
+// on the fly from the characters, so hashing a key does not allocate.
+public class Murmur3RingHash implements RingHash {
+    private static final long c1 = 0x87c37b91114253d5L;
+    private static final long c2 = 0x4cf5ad432745937fL;
+    private static final long seed = 0x9747b28cL;
+
+    @Override
+    public int getPositionInConsistentHashingRing(String input, int positionsInTheConsistentHashingRing) {
+        return (int) Long.remainderUnsigned(hash(input), positionsInTheConsistentHashingRing);
+    }
+
+    public long hash(String input) {
+        long hash = seed;
+        long block = 0;
+        int bytesInBlock = 0;
+        long totalBytes = 0;
+
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            int codePoint = input.charAt(i);
+            int encodedBytes;
+            int numberOfEncodedBytes;
+            if (codePoint < 0x80) {
+                encodedBytes = codePoint;
+                numberOfEncodedBytes = 1;
+            } else if (codePoint < 0x800) {
+                encodedBytes = (0xc0 | (codePoint >>> 6)) | ((0x80 | (codePoint & 0x3f)) << 8);
+                numberOfEncodedBytes = 2;
+            } else {
+                if (Character.isHighSurrogate((char) codePoint) && i + 1 < length
+                        && Character.isLowSurrogate(input.charAt(i + 1))) {
+                    codePoint = Character.toCodePoint((char) codePoint, input.charAt(++i));
+                    encodedBytes = (0xf0 | (codePoint >>> 18))
+                            | ((0x80 | ((codePoint >>> 12) & 0x3f)) << 8)
+                            | ((0x80 | ((codePoint >>> 6) & 0x3f)) << 16)
+                            | ((0x80 | (codePoint & 0x3f)) << 24);
+                    numberOfEncodedBytes = 4;
+                } else {
+                    // Unpaired surrogates are encoded as '?', the same as String.getBytes(UTF_8)
+                    if (Character.isSurrogate((char) codePoint)) {
+                        codePoint = '?';
+                        encodedBytes = codePoint;
+                        numberOfEncodedBytes = 1;
+                    } else {
+                        encodedBytes = (0xe0 | (codePoint >>> 12))
+                                | ((0x80 | ((codePoint >>> 6) & 0x3f)) << 8)
+                                | ((0x80 | (codePoint & 0x3f)) << 16);
+                        numberOfEncodedBytes = 3;
+                    }
+                }
+            }
+
+            for (int j = 0; j < numberOfEncodedBytes; j++) {
+                block |= ((long) ((encodedBytes >>> (8 * j)) & 0xff)) << (8 * bytesInBlock);
+                if (++bytesInBlock == 8) {
+                    hash ^= mixBlock(block);
+                    hash = Long.rotateLeft(hash, 27) * 5 + 0x52dce729;
+                    block = 0;
+                    bytesInBlock = 0;
+                }
+            }
+            totalBytes += numberOfEncodedBytes;
+        }
+
+        if (bytesInBlock > 0) {
+            hash ^= mixBlock(block);
+        }
+        hash ^= totalBytes;
+        return finalMix(hash);
+    }
+
+    private static long mixBlock(long block) {
+        block *= c1;
+        block = Long.rotateLeft(block, 31);
+        block *= c2;
+        return block;
+    }
+
+    private static long finalMix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
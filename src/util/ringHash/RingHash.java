@@ -0,0 +1,5 @@
+package util.ringHash;
+
+public interface RingHash {
+    int getPositionInConsistentHashingRing(String input, int positionsInTheConsistentHashingRing);
+}
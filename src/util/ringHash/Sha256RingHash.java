@@ -0,0 +1,28 @@
+package util.ringHash;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// Reproduces the positions of the original SHA-256 ring hash: the digest read as an unsigned big-endian number, modulo
+// the number of positions. The modulo is computed byte by byte instead of through a BigInteger, and the message digest
+// is reused per thread instead of being looked up for every key.
+public class Sha256RingHash implements RingHash {
+    private static final ThreadLocal<MessageDigest> messageDigest = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+
+    @Override
+    public int getPositionInConsistentHashingRing(String input, int positionsInTheConsistentHashingRing) {
+        byte[] hash = messageDigest.get().digest(input.getBytes(StandardCharsets.UTF_8));
+        long remainder = 0;
+        for (byte hashByte : hash) {
+            remainder = ((remainder << 8) | (hashByte & 0xff)) % positionsInTheConsistentHashingRing;
+        }
+        return (int) remainder;
+    }
+}